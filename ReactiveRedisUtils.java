@@ -0,0 +1,827 @@
+package club.wadreamer.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName: ReactiveRedisUtils
+ * Description: TODO 响应式 Redis 工具类，与 RedisUtils 提供相同的 key、string、hash、set、zSet、list 操作，
+ * 基于 ReactiveRedisTemplate（Lettuce 响应式连接），少量事件循环线程即可承载大量在途命令；
+ * 返回集合的操作以 Flux 逐个发出元素，支持背压。不会被组件扫描自动注册，需要响应式访问的应用在配置了
+ * ReactiveRedisTemplate 后自行以 @Bean 声明，未引入 Reactor 或未配置响应式连接的应用不受影响
+ * date: 2026/10/18 15:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+@SuppressWarnings({"unchecked", "all"})
+public class ReactiveRedisUtils {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveRedisUtils.class);
+
+    // 大集合按批次读取时默认的批次大小
+    private static final int DEFAULT_CHUNK = 500;
+
+    private static final RedisElementWriter<byte[]> RAW_WRITER = RedisElementWriter.from(RedisSerializer.byteArray());
+
+    private static final RedisElementReader<Long> LONG_READER = RedisElementReader.from(new GenericToStringSerializer<>(Long.class));
+
+    private ReactiveRedisTemplate<Object, Object> reactiveRedisTemplate;
+
+    public ReactiveRedisUtils(ReactiveRedisTemplate<Object, Object> reactiveRedisTemplate) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+    }
+
+    private <T> Mono<T> fallback(Throwable e, T value) {
+        LOGGER.warn("Redis 响应式命令失败，返回默认值", e);
+        return Mono.justOrEmpty(value);
+    }
+
+    private <T> Flux<T> fallback(Throwable e) {
+        LOGGER.warn("Redis 响应式命令失败，返回空结果", e);
+        return Flux.empty();
+    }
+
+    // =================================== key 操作 ===================================
+
+    /**
+     * @param key
+     * @param time
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:02
+     * @description: TODO 设置 key 的过期时间
+     */
+    public Mono<Boolean> expire(String key, long time) {
+        return expire(key, time, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param key
+     * @param time
+     * @param timeUnit
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:02
+     * @description: TODO 指定时间单位，设置 key 的过期时间
+     */
+    public Mono<Boolean> expire(String key, long time, TimeUnit timeUnit) {
+        if (time <= 0) {
+            return Mono.just(true);
+        }
+        return reactiveRedisTemplate.expire(key, Duration.ofNanos(timeUnit.toNanos(time)))
+                .map(Boolean.TRUE::equals)
+                .onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:03
+     * @description: TODO 获取过期时间（秒）
+     */
+    public Mono<Long> getExpire(String key) {
+        return reactiveRedisTemplate.getExpire(key).map(Duration::getSeconds);
+    }
+
+    /**
+     * @param key
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:03
+     * @description: TODO 是否含有该 key
+     */
+    public Mono<Boolean> hasKey(String key) {
+        return reactiveRedisTemplate.hasKey(key).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param keys
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:04
+     * @description: TODO 删除一个或多个 key（不做通配符展开），返回删除的数量
+     */
+    public Mono<Long> del(String... keys) {
+        if (Objects.isNull(keys) || keys.length == 0) {
+            return Mono.just(0L);
+        }
+        return reactiveRedisTemplate.unlink((Object[]) keys).onErrorResume(e -> fallback(e, 0L));
+    }
+
+    /**
+     * @param pattern
+     * @param count
+     * @return {{@link Flux< String>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:05
+     * @description: TODO 基于 SCAN 查找匹配 key，按下游请求量逐批扫描
+     */
+    public Flux<String> matchkey(String pattern, long count) {
+        return reactiveRedisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(count).build())
+                .map(String::valueOf);
+    }
+
+    // =================================== String 操作 ===================================
+
+    /**
+     * @param key
+     * @return {{@link Mono< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:06
+     * @description: TODO 单个缓存获取，未命中时为空 Mono
+     */
+    public Mono<Object> get(String key) {
+        return Objects.isNull(key) ? Mono.empty() : reactiveRedisTemplate.opsForValue().get(key);
+    }
+
+    /**
+     * @param keys
+     * @return {{@link Mono< List< Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:06
+     * @description: TODO 批量获取缓存，结果与 keys 按下标一一对应，未命中的位置为 null
+     */
+    public Mono<List<Object>> multiGet(List<String> keys) {
+        return reactiveRedisTemplate.opsForValue().multiGet(new ArrayList<>(keys));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:07
+     * @description: TODO 存入单个缓存
+     */
+    public Mono<Boolean> set(String key, Object value) {
+        return reactiveRedisTemplate.opsForValue().set(key, value).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @param time
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:07
+     * @description: TODO 存入单个缓存，并指定过期时间
+     */
+    public Mono<Boolean> set(String key, Object value, long time) {
+        return set(key, value, time, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @param time
+     * @param timeUnit
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:08
+     * @description: TODO 存入单个缓存，并指定过期时间和时间单位
+     */
+    public Mono<Boolean> set(String key, Object value, long time, TimeUnit timeUnit) {
+        if (time <= 0) {
+            return set(key, value);
+        }
+        return reactiveRedisTemplate.opsForValue().set(key, value, Duration.ofNanos(timeUnit.toNanos(time)))
+                .onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:08
+     * @description: TODO 若不存在，则存入值
+     */
+    public Mono<Boolean> setIfAbsent(String key, Object value) {
+        return reactiveRedisTemplate.opsForValue().setIfAbsent(key, value).onErrorResume(e -> fallback(e, false));
+    }
+
+    // =================================== Map 操作 ===================================
+
+    private ReactiveHashOperations<Object, Object, Object> hashOps() {
+        return reactiveRedisTemplate.opsForHash();
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @return {{@link Mono< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:10
+     * @description: TODO 获取 map 类型的缓存
+     */
+    public Mono<Object> hGet(String key, String item) {
+        return (Objects.isNull(key) || Objects.isNull(item)) ? Mono.empty() : hashOps().get(key, item);
+    }
+
+    /**
+     * @param key
+     * @return {{@link Mono< Map< Object, Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:10
+     * @description: TODO 批量获取 map 类型的缓存，大 hash 请使用 hScan
+     */
+    public Mono<Map<Object, Object>> hmGet(String key) {
+        return Objects.isNull(key) ? Mono.empty() : hashOps().entries(key).collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * @param key
+     * @param count
+     * @return {{@link Flux< Map.Entry< Object, Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:11
+     * @description: TODO 基于 HSCAN 逐个发出 hash 的 field 与 value，按下游请求量逐批读取
+     */
+    public Flux<Map.Entry<Object, Object>> hScan(String key, long count) {
+        return hashOps().scan(key, ScanOptions.scanOptions().count(count).build());
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @param value
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:11
+     * @description: TODO 存入 map 类型的缓存
+     */
+    public Mono<Boolean> hSet(String key, String item, Object value) {
+        return hashOps().put(key, item, value).thenReturn(true).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @param value
+     * @param time
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:12
+     * @description: TODO 存入 map 类型的缓存，并指定过期时间，写入与设置过期时间为一次原子操作
+     */
+    public Mono<Boolean> hSet(String key, String item, Object value, long time) {
+        RedisSerializationContext<Object, Object> context = reactiveRedisTemplate.getSerializationContext();
+        List<byte[]> args = Arrays.asList(
+                ByteUtils.getBytes(context.getHashKeySerializationPair().write(item)),
+                ByteUtils.getBytes(context.getHashValueSerializationPair().write(value)));
+        return writeWithTtl(RedisUtils.HSET_WITH_TTL, key, TimeUnit.SECONDS.toMillis(time), args)
+                .thenReturn(true).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param map
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:12
+     * @description: TODO 批量存入 map 类型的缓存
+     */
+    public Mono<Boolean> hmSet(String key, Map<String, Object> map) {
+        return hashOps().putAll(key, map).thenReturn(true).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param items
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:13
+     * @description: TODO 删除 map 类型的缓存
+     */
+    public Mono<Long> hDel(String key, Object... items) {
+        return hashOps().remove(key, items);
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:13
+     * @description: TODO 判断以 item 为 key 的 map 类型的缓存是否存在
+     */
+    public Mono<Boolean> hHasKey(String key, String item) {
+        return hashOps().hasKey(key, item);
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @param by
+     * @return {{@link Mono< Double>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:14
+     * @description: TODO 使 map 类型的缓存自增长指定的值
+     */
+    public Mono<Double> hIncr(String key, String item, double by) {
+        return hashOps().increment(key, item, by);
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @param by
+     * @return {{@link Mono< Double>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:14
+     * @description: TODO 使 map 类型的缓存自递减指定的值
+     */
+    public Mono<Double> hDecr(String key, String item, double by) {
+        return hashOps().increment(key, item, -by);
+    }
+
+    // =================================== Set 操作 ===================================
+
+    /**
+     * @param key
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:15
+     * @description: TODO 获取 set 类型的缓存，基于 SSCAN 按下游请求量逐批读取
+     */
+    public Flux<Object> sGet(String key) {
+        return sScan(key, DEFAULT_CHUNK);
+    }
+
+    /**
+     * @param key
+     * @param count
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:15
+     * @description: TODO 基于 SSCAN 逐个发出 set 成员，count 为每批次的 COUNT 提示
+     */
+    public Flux<Object> sScan(String key, long count) {
+        return reactiveRedisTemplate.opsForSet().scan(key, ScanOptions.scanOptions().count(count).build())
+                .onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:16
+     * @description: TODO 判断 set 类型的缓存中是否存在指定的值
+     */
+    public Mono<Boolean> sHasKey(String key, Object value) {
+        return reactiveRedisTemplate.opsForSet().isMember(key, value).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param values
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:16
+     * @description: TODO 存入 set 类型的缓存
+     */
+    public Mono<Long> sSet(String key, Object... values) {
+        return reactiveRedisTemplate.opsForSet().add(key, values).onErrorResume(e -> fallback(e, 0L));
+    }
+
+    /**
+     * @param key
+     * @param time
+     * @param values
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:17
+     * @description: TODO 存储 set 类型的缓存，并指定过期时间，写入与设置过期时间为一次原子操作
+     */
+    public Mono<Long> sSet(String key, long time, Object... values) {
+        return writeWithTtl(RedisUtils.SADD_WITH_TTL, key, TimeUnit.SECONDS.toMillis(time), rawValues(Arrays.asList(values)))
+                .onErrorResume(e -> fallback(e, 0L));
+    }
+
+    /**
+     * @param key
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:17
+     * @description: TODO 获取 set 类型的缓存的大小
+     */
+    public Mono<Long> sGetSetSize(String key) {
+        return reactiveRedisTemplate.opsForSet().size(key).onErrorResume(e -> fallback(e, 0L));
+    }
+
+    /**
+     * @param key
+     * @param values
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:18
+     * @description: TODO 移除 set 类型的缓存中指定的值
+     */
+    public Mono<Long> setRemove(String key, Object... values) {
+        return reactiveRedisTemplate.opsForSet().remove(key, values).onErrorResume(e -> fallback(e, 0L));
+    }
+
+    /**
+     * @param key
+     * @param otherKeys
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:18
+     * @description: TODO 获取某个集合与多个集合的交集
+     */
+    public Flux<Object> sIntersect(String key, Collection<String> otherKeys) {
+        return reactiveRedisTemplate.opsForSet().intersect(key, new ArrayList<Object>(otherKeys)).onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @param otherKeys
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:19
+     * @description: TODO 获取某个集合和多个集合的并集
+     */
+    public Flux<Object> sUnion(String key, Collection<String> otherKeys) {
+        return reactiveRedisTemplate.opsForSet().union(key, new ArrayList<Object>(otherKeys)).onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @param otherKeys
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:19
+     * @description: TODO 获取某个集合和多个集合的差集
+     */
+    public Flux<Object> sDifference(String key, Collection<String> otherKeys) {
+        return reactiveRedisTemplate.opsForSet().difference(key, new ArrayList<Object>(otherKeys)).onErrorResume(this::fallback);
+    }
+
+    // =================================== zSet 操作 ===================================
+
+    /**
+     * @param key
+     * @param value
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:20
+     * @description: TODO 返回元素在集合的排名，有序集合是按照元素的score值由小到大排列
+     */
+    public Mono<Long> zRank(String key, Object value) {
+        return reactiveRedisTemplate.opsForZSet().rank(key, value).onErrorResume(e -> fallback(e, null));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:20
+     * @description: TODO 返回元素在集合的排名,按元素的score值由大到小排列
+     */
+    public Mono<Long> zReverseRank(String key, Object value) {
+        return reactiveRedisTemplate.opsForZSet().reverseRank(key, value).onErrorResume(e -> fallback(e, null));
+    }
+
+    /**
+     * @param key
+     * @param start
+     * @param end
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:21
+     * @description: TODO 获取集合指定位置内的元素，并按从小到大的排序
+     */
+    public Flux<Object> zRange(String key, long start, long end) {
+        return reactiveRedisTemplate.opsForZSet().range(key, Range.closed(start, end)).onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @param start
+     * @param end
+     * @return {{@link Flux< ZSetOperations.TypedTuple< Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:21
+     * @description: TODO 批量获取集合指定位置内的元素, 并且把 score 值也获取
+     */
+    public Flux<ZSetOperations.TypedTuple<Object>> zRangeWithScores(String key, long start, long end) {
+        return reactiveRedisTemplate.opsForZSet().rangeWithScores(key, Range.closed(start, end)).onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @param min
+     * @param max
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:22
+     * @description: TODO 根据 score 获取指定范围内的集合元素，并按从小到大排序
+     */
+    public Flux<Object> zRangeByScore(String key, double min, double max) {
+        return reactiveRedisTemplate.opsForZSet().rangeByScore(key, Range.closed(min, max)).onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @param start
+     * @param end
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:22
+     * @description: TODO 获取集合元素，按从大到小排序
+     */
+    public Flux<Object> zReverseRange(String key, long start, long end) {
+        return reactiveRedisTemplate.opsForZSet().reverseRange(key, Range.closed(start, end)).onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @param start
+     * @param end
+     * @return {{@link Flux< ZSetOperations.TypedTuple< Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:23
+     * @description: TODO 获取集合的元素, 从大到小排序, 并返回 score 值
+     */
+    public Flux<ZSetOperations.TypedTuple<Object>> zReverseRangeWithScores(String key, long start, long end) {
+        return reactiveRedisTemplate.opsForZSet().reverseRangeWithScores(key, Range.closed(start, end)).onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @param count
+     * @return {{@link Flux< ZSetOperations.TypedTuple< Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:23
+     * @description: TODO 基于 ZSCAN 逐个发出成员与 score，按下游请求量逐批读取
+     */
+    public Flux<ZSetOperations.TypedTuple<Object>> zScan(String key, long count) {
+        return reactiveRedisTemplate.opsForZSet().scan(key, ScanOptions.scanOptions().count(count).build())
+                .onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:24
+     * @description: TODO 获取集合元素的数量
+     */
+    public Mono<Long> zSize(String key) {
+        return reactiveRedisTemplate.opsForZSet().size(key).onErrorResume(e -> fallback(e, null));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @return {{@link Mono< Double>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:24
+     * @description: TODO 获取集合中 value 元素的 score 值
+     */
+    public Mono<Double> zScore(String key, Object value) {
+        return reactiveRedisTemplate.opsForZSet().score(key, value).onErrorResume(e -> fallback(e, null));
+    }
+
+    /**
+     * @param key
+     * @param min
+     * @param max
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:25
+     * @description: TODO 根据score值获取集合元素数量
+     */
+    public Mono<Long> zCount(String key, double min, double max) {
+        return reactiveRedisTemplate.opsForZSet().count(key, Range.closed(min, max));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @param score
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:25
+     * @description: TODO 添加元素，有序集合是按照元素的 score 值由小到大排列
+     */
+    public Mono<Boolean> zAdd(String key, Object value, double score) {
+        return reactiveRedisTemplate.opsForZSet().add(key, value, score).onErrorResume(e -> fallback(e, null));
+    }
+
+    /**
+     * @param key
+     * @param values
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:26
+     * @description: TODO 批量移除 zSet 中指定的值
+     */
+    public Mono<Long> zRemove(String key, Object... values) {
+        return reactiveRedisTemplate.opsForZSet().remove(key, values).onErrorResume(e -> fallback(e, null));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @param delta
+     * @return {{@link Mono< Double>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:26
+     * @description: TODO 增加元素的 score 值，并返回增加后的值
+     */
+    public Mono<Double> zIncrementScore(String key, Object value, double delta) {
+        return reactiveRedisTemplate.opsForZSet().incrementScore(key, value, delta).onErrorResume(e -> fallback(e, null));
+    }
+
+    /**
+     * @param key
+     * @param min
+     * @param max
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:27
+     * @description: TODO 根据指定的 score 值的范围来移除成员
+     */
+    public Mono<Long> zRemoveRangeByScore(String key, double min, double max) {
+        return reactiveRedisTemplate.opsForZSet().removeRangeByScore(key, Range.closed(min, max)).onErrorResume(e -> fallback(e, null));
+    }
+
+    // =================================== list 操作 ===================================
+
+    /**
+     * @param key
+     * @param start
+     * @param end
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:28
+     * @description: TODO 获取 list 类型的缓存中指定范围内的值
+     */
+    public Flux<Object> lGet(String key, long start, long end) {
+        return reactiveRedisTemplate.opsForList().range(key, start, end).onErrorResume(this::fallback);
+    }
+
+    /**
+     * @param key
+     * @param chunk
+     * @return {{@link Flux< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:28
+     * @description: TODO 按批次 LRANGE 逐个发出整个 list，同一时刻只有一个批次在途，读到空批次即结束
+     */
+    public Flux<Object> lScan(String key, int chunk) {
+        if (chunk <= 0) {
+            throw new IllegalArgumentException("chunk 必须大于 0");
+        }
+        return Flux.range(0, Integer.MAX_VALUE)
+                .concatMap(i -> reactiveRedisTemplate.opsForList()
+                        .range(key, (long) i * chunk, (long) (i + 1) * chunk - 1).collectList(), 1)
+                .takeWhile(batch -> !batch.isEmpty())
+                .concatMapIterable(batch -> batch);
+    }
+
+    /**
+     * @param key
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:29
+     * @description: TODO 获取 list 类型的缓存的大小
+     */
+    public Mono<Long> lGetListSize(String key) {
+        return reactiveRedisTemplate.opsForList().size(key).onErrorResume(e -> fallback(e, 0L));
+    }
+
+    /**
+     * @param key
+     * @param index
+     * @return {{@link Mono< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:29
+     * @description: TODO 获取 list 类型的缓存中的指定位置的值
+     */
+    public Mono<Object> lGetIndex(String key, long index) {
+        return reactiveRedisTemplate.opsForList().index(key, index).onErrorResume(e -> fallback(e, null));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:30
+     * @description: TODO 从右边往 list 类型缓存中存入指定的值
+     */
+    public Mono<Boolean> lSet(String key, Object value) {
+        return reactiveRedisTemplate.opsForList().rightPush(key, value).thenReturn(true).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @param time
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:30
+     * @description: TODO 从右边往 list 类型缓存中存入指定的值，并指定过期时间，写入与设置过期时间为一次原子操作
+     */
+    public Mono<Boolean> lSet(String key, Object value, long time) {
+        return writeWithTtl(RedisUtils.RPUSH_WITH_TTL, key, TimeUnit.SECONDS.toMillis(time), rawValues(Collections.singletonList(value)))
+                .thenReturn(true).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:31
+     * @description: TODO 从右边往 list 类型缓存中存入 list 类型的值
+     */
+    public Mono<Boolean> lSet(String key, List<Object> value) {
+        return reactiveRedisTemplate.opsForList().rightPushAll(key, value).thenReturn(true).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @param time
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:31
+     * @description: TODO 从右边往 list 类型缓存中存入 list 类型的值，并指定过期时间，写入与设置过期时间为一次原子操作
+     */
+    public Mono<Boolean> lSet(String key, List<Object> value, long time) {
+        if (value.isEmpty()) {
+            return Mono.just(true);
+        }
+        return writeWithTtl(RedisUtils.RPUSH_WITH_TTL, key, TimeUnit.SECONDS.toMillis(time), rawValues(value))
+                .thenReturn(true).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param index
+     * @param value
+     * @return {{@link Mono< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:32
+     * @description: TODO 修改 list 类型缓存中指定位置的值
+     */
+    public Mono<Boolean> lUpdateIndex(String key, long index, Object value) {
+        return reactiveRedisTemplate.opsForList().set(key, index, value).onErrorResume(e -> fallback(e, false));
+    }
+
+    /**
+     * @param key
+     * @param count
+     * @param value
+     * @return {{@link Mono< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 15:32
+     * @description: TODO 移除 list 类型的缓存中指定数量的值
+     */
+    public Mono<Long> lRemove(String key, long count, Object value) {
+        return reactiveRedisTemplate.opsForList().remove(key, count, value).onErrorResume(e -> fallback(e, 0L));
+    }
+
+    private List<byte[]> rawValues(Collection<?> values) {
+        RedisSerializationContext.SerializationPair<Object> pair = reactiveRedisTemplate.getSerializationContext().getValueSerializationPair();
+        List<byte[]> raw = new ArrayList<>(values.size());
+        for (Object value : values) {
+            raw.add(ByteUtils.getBytes(pair.write(value)));
+        }
+        return raw;
+    }
+
+    private Mono<Long> writeWithTtl(RedisScript<Long> script, String key, long ttlMillis, List<byte[]> args) {
+        List<byte[]> scriptArgs = new ArrayList<>(args.size() + 1);
+        scriptArgs.add(String.valueOf(ttlMillis).getBytes(StandardCharsets.UTF_8));
+        scriptArgs.addAll(args);
+        return reactiveRedisTemplate.execute(script, Collections.singletonList(key), scriptArgs, RAW_WRITER, LONG_READER).next();
+    }
+
+}
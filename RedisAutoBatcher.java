@@ -0,0 +1,333 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisAdvancedClusterAsyncCommands;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.output.BooleanOutput;
+import io.lettuce.core.output.CommandOutput;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.output.ValueOutput;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.RedisCommand;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * ClassName: RedisAutoBatcher
+ * Description: TODO 并发单 key 命令的自动批量执行：各线程提交的命令按 hash slot 归入所在主节点的队列，
+ * 队列达到 maxBatchSize 或自第一条命令入队起经过 windowMicros 微秒后（先到者为准），整批命令一次写出并刷新到节点连接，
+ * 每个调用方的 future 以各自命令的结果完成。节点迁移返回 MOVED / ASK 时改由集群连接重新发送
+ * date: 2026/10/18 23:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisAutoBatcher implements DisposableBean {
+
+    private static final ByteArrayCodec CODEC = ByteArrayCodec.INSTANCE;
+
+    private final RedisClusterSupport support;
+
+    // support 由本对象创建时，关闭时一并关闭其线程池
+    private final boolean ownsSupport;
+
+    private final int maxBatchSize;
+
+    private final long windowMicros;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, NodeQueue> queues = new ConcurrentHashMap<>();
+
+    // 长期持有的集群连接，节点队列使用其中的节点连接写出，关闭时释放
+    private volatile RedisClusterConnection rc;
+
+    private volatile StatefulRedisClusterConnection<byte[], byte[]> connection;
+
+    private final LongAdder commands = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder redirects = new LongAdder();
+
+    private volatile boolean closed;
+
+    public RedisAutoBatcher(RedisTemplate<Object, Object> redisTemplate, int maxBatchSize, long windowMicros) {
+        this(new RedisClusterSupport(redisTemplate), true, maxBatchSize, windowMicros);
+    }
+
+    public RedisAutoBatcher(RedisClusterSupport support, int maxBatchSize, long windowMicros) {
+        this(support, false, maxBatchSize, windowMicros);
+    }
+
+    private RedisAutoBatcher(RedisClusterSupport support, boolean ownsSupport, int maxBatchSize, long windowMicros) {
+        this.ownsSupport = ownsSupport;
+        if (maxBatchSize <= 0 || windowMicros <= 0) {
+            throw new IllegalArgumentException("maxBatchSize 与 windowMicros 必须大于 0");
+        }
+        this.support = Objects.requireNonNull(support);
+        this.maxBatchSize = maxBatchSize;
+        this.windowMicros = windowMicros;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-auto-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param key
+     * @return {{@link CompletableFuture< byte[]>}}
+     * @author wadreamer
+     * @date: 2026/10/18 23:01
+     * @description: TODO 批量发送 GET，结果为未反序列化的值，key 不存在时为 null
+     */
+    public CompletableFuture<byte[]> get(String key) {
+        byte[] rawKey = support.rawKey(key);
+        return submit(rawKey, CommandType.GET, new ValueOutput<>(CODEC), new CommandArgs<>(CODEC).addKey(rawKey),
+                async -> async.get(rawKey));
+    }
+
+    /**
+     * @param key
+     * @param field
+     * @param value
+     * @return {{@link CompletableFuture< Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 23:02
+     * @description: TODO 批量发送 HSET，field 与 value 为已序列化的字节，结果为 true 表示新增了 field
+     */
+    public CompletableFuture<Boolean> hSet(String key, byte[] field, byte[] value) {
+        byte[] rawKey = support.rawKey(key);
+        return submit(rawKey, CommandType.HSET, new BooleanOutput<>(CODEC), new CommandArgs<>(CODEC).addKey(rawKey).add(field).add(value),
+                async -> async.hset(rawKey, field, value));
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @return {{@link CompletableFuture< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 23:03
+     * @description: TODO 批量发送 RPUSH，value 为已序列化的字节，结果为写入后的 list 长度
+     */
+    public CompletableFuture<Long> rPush(String key, byte[] value) {
+        byte[] rawKey = support.rawKey(key);
+        return submit(rawKey, CommandType.RPUSH, new IntegerOutput<>(CODEC), new CommandArgs<>(CODEC).addKey(rawKey).add(value),
+                async -> async.rpush(rawKey, value));
+    }
+
+    /**
+     * @param future
+     * @return {{@link T}}
+     * @author wadreamer
+     * @date: 2026/10/18 23:04
+     * @description: TODO 在命令超时时间内等待结果，异常统一转换为 RedisSystemException
+     */
+    public <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(support.commandTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisSystemException("等待 Redis 命令结果时被中断", e);
+        } catch (ExecutionException e) {
+            throw new RedisSystemException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new RedisSystemException("Redis 命令执行超时", e);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(byte[] rawKey, CommandType type, CommandOutput<byte[], byte[], T> output,
+                                            CommandArgs<byte[], byte[]> args,
+                                            Function<RedisAdvancedClusterAsyncCommands<byte[], byte[]>, RedisFuture<T>> redirect) {
+        if (closed) {
+            throw new IllegalStateException("自动批量执行器已关闭");
+        }
+        StatefulRedisClusterConnection<byte[], byte[]> cluster = connection();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        commands.increment();
+        RedisClusterNode node = cluster.getPartitions().getPartitionBySlot(ClusterSlotHashUtil.calculateSlot(rawKey));
+        if (Objects.isNull(node)) {
+            // 拓扑尚未包含该 slot，交给集群连接按 key 路由
+            complete(redirect.apply(cluster.async()), result);
+            return result;
+        }
+        AsyncCommand<byte[], byte[], T> command = new AsyncCommand<>(new Command<>(type, output, args));
+        command.whenComplete((value, error) -> {
+            if (Objects.isNull(error)) {
+                result.complete(value);
+            } else if (isRedirect(error)) {
+                redirects.increment();
+                complete(redirect.apply(cluster.async()), result);
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        queues.computeIfAbsent(node.getNodeId(), nodeId -> new NodeQueue(cluster.getConnection(nodeId))).add(command);
+        return result;
+    }
+
+    private StatefulRedisClusterConnection<byte[], byte[]> connection() {
+        StatefulRedisClusterConnection<byte[], byte[]> current = connection;
+        if (Objects.nonNull(current)) {
+            return current;
+        }
+        synchronized (this) {
+            if (Objects.isNull(connection)) {
+                rc = support.openClusterConnection();
+                connection = ((RedisAdvancedClusterAsyncCommands<byte[], byte[]>) rc.getNativeConnection()).getStatefulConnection();
+            }
+            return connection;
+        }
+    }
+
+    private static <T> void complete(RedisFuture<T> source, CompletableFuture<T> target) {
+        source.whenComplete((value, error) -> {
+            if (Objects.isNull(error)) {
+                target.complete(value);
+            } else {
+                target.completeExceptionally(error);
+            }
+        });
+    }
+
+    private static boolean isRedirect(Throwable error) {
+        String message = error.getMessage();
+        return Objects.nonNull(message) && (message.startsWith("MOVED") || message.startsWith("ASK"));
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getWindowMicros() {
+        return windowMicros;
+    }
+
+    public long getCommands() {
+        return commands.sum();
+    }
+
+    // 每批命令对应一次 dispatch() 调用（一次写出与刷新），commands / batches 即每次 dispatch() 平均承载的命令数；
+    // Netty 可能再合并或拆分底层的 write 系统调用，这里不统计系统调用次数
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getRedirects() {
+        return redirects.sum();
+    }
+
+    public double getAverageBatchSize() {
+        long batchCount = batches.sum();
+        return batchCount == 0 ? 0D : (double) commands.sum() / batchCount;
+    }
+
+    /**
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 23:05
+     * @description: TODO 拒绝新的命令，写出所有队列中剩余的命令后释放连接；由本对象创建的 RedisClusterSupport 一并关闭其线程池
+     */
+    @Override
+    public void destroy() {
+        closed = true;
+        scheduler.shutdown();
+        for (NodeQueue queue : queues.values()) {
+            queue.flush();
+        }
+        support.release(rc);
+        if (ownsSupport) {
+            support.executor().shutdown();
+        }
+    }
+
+    /**
+     * 单个主节点的待发送队列：入队线程在达到 maxBatchSize 时直接写出，否则由定时任务在时间窗口结束时写出
+     */
+    private final class NodeQueue {
+
+        private final StatefulRedisConnection<byte[], byte[]> nodeConnection;
+
+        private final ConcurrentLinkedQueue<RedisCommand<byte[], byte[], ?>> pending = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        // 是否已安排时间窗口结束时的写出
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // 保证同一节点的命令按入队顺序写出
+        private final ReentrantLock lock = new ReentrantLock();
+
+        NodeQueue(StatefulRedisConnection<byte[], byte[]> nodeConnection) {
+            this.nodeConnection = nodeConnection;
+        }
+
+        void add(RedisCommand<byte[], byte[], ?> command) {
+            pending.add(command);
+            if (size.incrementAndGet() >= maxBatchSize) {
+                flush();
+            } else if (scheduled.compareAndSet(false, true)) {
+                try {
+                    scheduler.schedule(this::flushWindow, windowMicros, TimeUnit.MICROSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // 已关闭，立即写出
+                    scheduled.set(false);
+                    flush();
+                }
+            }
+        }
+
+        // 先清除标记再写出，写出期间入队的命令会安排新的时间窗口
+        private void flushWindow() {
+            scheduled.set(false);
+            flush();
+        }
+
+        void flush() {
+            lock.lock();
+            try {
+                while (!pending.isEmpty()) {
+                    List<RedisCommand<byte[], byte[], ?>> batch = new ArrayList<>(Math.min(Math.max(size.get(), 1), maxBatchSize));
+                    RedisCommand<byte[], byte[], ?> command;
+                    while (batch.size() < maxBatchSize && Objects.nonNull(command = pending.poll())) {
+                        batch.add(command);
+                    }
+                    size.addAndGet(-batch.size());
+                    dispatch(batch);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void dispatch(List<RedisCommand<byte[], byte[], ?>> batch) {
+            batches.increment();
+            try {
+                nodeConnection.dispatch(batch);
+            } catch (RuntimeException e) {
+                for (RedisCommand<byte[], byte[], ?> command : batch) {
+                    command.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,654 @@
+package club.wadreamer.utils;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Longs;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClassName: RedisBloomFilter
+ * Description: TODO 基于 Redis bitmap 的可扩展布隆过滤器，用于拦截不存在的 id，避免缓存穿透到数据库。
+ * 过滤器由若干层组成，当前层写满 capacity 后追加一层，新层容量翻倍、误判率减半，总误判率不超过设定值；
+ * 所有 key 使用相同的 hash tag，位于同一节点，添加与判断各是一次脚本调用，脚本内校验层数，层数变化时客户端刷新后重试。
+ * 可选开启本地 bitmap 镜像，判断在本地完成；镜像定期刷新，刷新间隔内其他实例新增的 id 可能被误拒
+ * date: 2026/10/18 20:40
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisBloomFilter implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisBloomFilter.class);
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    // Redis bitmap 最多 2^32 位
+    private static final long MAX_BITS = 1L << 32;
+
+    // 每次 SETRANGE 上传的字节数
+    private static final int UPLOAD_CHUNK = 1 << 20;
+
+    // KEYS[1] 为元数据，KEYS[2..] 为各层 bitmap；ARGV[1]、ARGV[2] 为客户端认为的代数与层数，之后每层依次为 k 与 k 个偏移量
+    private static final RedisScript<Long> CONTAINS = new DefaultRedisScript<>(
+            "local meta = redis.call('HMGET', KEYS[1], 'gen', 'layers')\n"
+                    + "if meta[1] ~= ARGV[1] or meta[2] ~= ARGV[2] then\n"
+                    + "    return -1\n"
+                    + "end\n"
+                    + "local pos = 3\n"
+                    + "for i = 2, #KEYS do\n"
+                    + "    local k = tonumber(ARGV[pos])\n"
+                    + "    local hit = 1\n"
+                    + "    for j = 1, k do\n"
+                    + "        if redis.call('GETBIT', KEYS[i], ARGV[pos + j]) == 0 then\n"
+                    + "            hit = 0\n"
+                    + "            break\n"
+                    + "        end\n"
+                    + "    end\n"
+                    + "    if hit == 1 then\n"
+                    + "        return 1\n"
+                    + "    end\n"
+                    + "    pos = pos + k + 1\n"
+                    + "end\n"
+                    + "return 0", Long.class);
+
+    // 参数同 CONTAINS，ARGV[3] 为最后一层的容量，之后为各层的 k 与偏移量；已存在返回 0，新增返回 1，新增后当前层写满返回 2，层数过期返回 -1
+    private static final RedisScript<Long> ADD = new DefaultRedisScript<>(
+            "local meta = redis.call('HMGET', KEYS[1], 'gen', 'layers')\n"
+                    + "if meta[1] ~= ARGV[1] or meta[2] ~= ARGV[2] then\n"
+                    + "    return -1\n"
+                    + "end\n"
+                    + "local pos = 4\n"
+                    + "for i = 2, #KEYS - 1 do\n"
+                    + "    local k = tonumber(ARGV[pos])\n"
+                    + "    local hit = 1\n"
+                    + "    for j = 1, k do\n"
+                    + "        if redis.call('GETBIT', KEYS[i], ARGV[pos + j]) == 0 then\n"
+                    + "            hit = 0\n"
+                    + "            break\n"
+                    + "        end\n"
+                    + "    end\n"
+                    + "    if hit == 1 then\n"
+                    + "        return 0\n"
+                    + "    end\n"
+                    + "    pos = pos + k + 1\n"
+                    + "end\n"
+                    + "local k = tonumber(ARGV[pos])\n"
+                    + "local added = 0\n"
+                    + "for j = 1, k do\n"
+                    + "    if redis.call('SETBIT', KEYS[#KEYS], ARGV[pos + j], 1) == 0 then\n"
+                    + "        added = 1\n"
+                    + "    end\n"
+                    + "end\n"
+                    + "if added == 0 then\n"
+                    + "    return 0\n"
+                    + "end\n"
+                    + "if redis.call('HINCRBY', KEYS[1], 'count', 1) >= tonumber(ARGV[3]) then\n"
+                    + "    redis.call('HMSET', KEYS[1], 'layers', #KEYS, 'count', 0)\n"
+                    + "    return 2\n"
+                    + "end\n"
+                    + "return 1", Long.class);
+
+    // 重建完成后切换代数，返回旧代数的层数；代数已被其他重建切换时返回 0
+    private static final RedisScript<Long> SWAP = new DefaultRedisScript<>(
+            "local meta = redis.call('HMGET', KEYS[1], 'gen', 'layers')\n"
+                    + "if meta[1] ~= ARGV[1] then\n"
+                    + "    return 0\n"
+                    + "end\n"
+                    + "redis.call('HMSET', KEYS[1], 'gen', ARGV[2], 'layers', ARGV[3], 'count', ARGV[4])\n"
+                    + "return tonumber(meta[2])", Long.class);
+
+    private final RedisClusterSupport support;
+
+    private final String name;
+
+    private final String metaKey;
+
+    // 第一层的容量与整个过滤器的误判率，以 Redis 中首次创建时的值为准
+    private final long expectedInsertions;
+
+    private final double fpp;
+
+    private volatile State state;
+
+    private volatile Mirror mirror;
+
+    // 本实例在镜像刷新前新增的 id 与添加时间，镜像刷新后清除
+    private final ConcurrentHashMap<String, Long> recentAdds = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService mirrorRefresher;
+
+    // 批量操作时每次流水线发送的脚本调用数量
+    private int batchSize = 500;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder passed = new LongAdder();
+
+    public RedisBloomFilter(RedisClusterSupport support, String name, long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions 必须大于 0");
+        }
+        if (fpp <= 0D || fpp >= 1D) {
+            throw new IllegalArgumentException("fpp 必须在 0 与 1 之间");
+        }
+        this.support = Objects.requireNonNull(support);
+        this.name = Objects.requireNonNull(name);
+        this.metaKey = "bloom:{" + name + "}";
+        String[] stored = initMeta(expectedInsertions, fpp);
+        this.expectedInsertions = Long.parseLong(stored[2]);
+        this.fpp = Double.parseDouble(stored[3]);
+        this.state = new State(Long.parseLong(stored[0]), Integer.parseInt(stored[1]));
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于 0");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param refreshMillis
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 20:41
+     * @description: TODO 开启本地镜像：定期拉取各层 bitmap，mightContain 在本地判断，不再访问 Redis
+     */
+    public synchronized void enableLocalMirror(long refreshMillis) {
+        if (refreshMillis <= 0) {
+            throw new IllegalArgumentException("refreshMillis 必须大于 0");
+        }
+        if (Objects.nonNull(mirrorRefresher)) {
+            return;
+        }
+        refreshMirror();
+        mirrorRefresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-bloom-mirror-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        mirrorRefresher.scheduleWithFixedDelay(() -> {
+            try {
+                refreshMirror();
+            } catch (Exception e) {
+                // 刷新失败时继续使用旧镜像
+                LOGGER.warn("布隆过滤器本地镜像刷新失败，继续使用旧镜像: {}", name, e);
+            }
+        }, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // 开启本地镜像后 mightContain 不访问 Redis
+    public boolean isLocalMirrorEnabled() {
+        return Objects.nonNull(mirror);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (Objects.nonNull(mirrorRefresher)) {
+            mirrorRefresher.shutdownNow();
+            mirrorRefresher = null;
+        }
+        mirror = null;
+    }
+
+    /**
+     * @param id
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:42
+     * @description: TODO 判断 id 是否可能存在，返回 false 时一定不存在
+     */
+    public boolean mightContain(String id) {
+        long[] hash = hash(id);
+        Mirror local = mirror;
+        if (Objects.nonNull(local)) {
+            return count(local.contains(hash) || recentAdds.containsKey(id));
+        }
+        for (; ; ) {
+            State current = state;
+            Long result = support.template().execute(CONTAINS, RedisSerializer.string(),
+                    new GenericToStringSerializer<>(Long.class), keys(current), args(current, hash, false));
+            if (Objects.nonNull(result) && result >= 0) {
+                return count(result == 1L);
+            }
+            refreshState(current);
+        }
+    }
+
+    /**
+     * @param id
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:43
+     * @description: TODO 添加 id，返回 true 表示此前不存在
+     */
+    public boolean add(String id) {
+        long[] hash = hash(id);
+        for (; ; ) {
+            State current = state;
+            Long result = support.template().execute(ADD, RedisSerializer.string(),
+                    new GenericToStringSerializer<>(Long.class), keys(current), args(current, hash, true));
+            if (Objects.nonNull(result) && result >= 0) {
+                if (Objects.nonNull(mirror)) {
+                    recentAdds.put(id, System.currentTimeMillis());
+                }
+                if (result == 2L) {
+                    // 当前层已写满并追加了新层
+                    refreshState(current);
+                }
+                return result > 0;
+            }
+            refreshState(current);
+        }
+    }
+
+    /**
+     * @param ids
+     * @return {{@link Map< String, Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:44
+     * @description: TODO 批量判断，未开启本地镜像时在所在节点上流水线执行，返回按输入顺序排列的结果
+     */
+    public Map<String, Boolean> mightContainAll(Collection<String> ids) {
+        Map<String, Boolean> result = new LinkedHashMap<>(ids.size() * 4 / 3 + 1);
+        if (Objects.nonNull(mirror)) {
+            for (String id : ids) {
+                result.put(id, mightContain(id));
+            }
+            return result;
+        }
+        for (Map.Entry<String, Long> entry : pipelined(CONTAINS, new ArrayList<>(new LinkedHashSet<>(ids)), false).entrySet()) {
+            result.put(entry.getKey(), count(entry.getValue() == 1L));
+        }
+        return result;
+    }
+
+    /**
+     * @param ids
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:45
+     * @description: TODO 批量添加，在所在节点上流水线执行，返回此前不存在的数量
+     */
+    public long addAll(Collection<String> ids) {
+        long added = 0;
+        boolean mirrored = Objects.nonNull(mirror);
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Long> entry : pipelined(ADD, new ArrayList<>(new LinkedHashSet<>(ids)), true).entrySet()) {
+            if (entry.getValue() > 0) {
+                added++;
+            }
+            if (mirrored) {
+                recentAdds.put(entry.getKey(), now);
+            }
+        }
+        state = readState();
+        return added;
+    }
+
+    /**
+     * @param source
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:46
+     * @description: TODO 从数据源重建过滤器，清除已删除 id 带来的误判：在本地构建新一代各层 bitmap 并上传，完成后原子切换代数并删除旧代数据。
+     * 重建期间其他实例新增到旧代的 id 不会进入新代，调用方应在重建后补录这段时间内新增的 id（例如按创建时间再查询一次）
+     */
+    public long rebuild(Iterator<String> source) {
+        State current = readState();
+        long newGen = support.template().execute((RedisCallback<Long>) connection ->
+                connection.hIncrBy(support.rawKey(metaKey), bytes("seq"), 1L));
+
+        List<byte[]> layers = new ArrayList<>();
+        layers.add(new byte[(int) ((bits(0) + 7) >>> 3)]);
+        long layerCount = 0;
+        long total = 0;
+        while (source.hasNext()) {
+            String id = source.next();
+            if (Objects.isNull(id)) {
+                continue;
+            }
+            long[] hash = hash(id);
+            boolean exists = false;
+            for (int i = 0; i < layers.size() - 1 && !exists; i++) {
+                exists = test(layers.get(i), i, hash);
+            }
+            int last = layers.size() - 1;
+            if (exists || !set(layers.get(last), last, hash)) {
+                continue;
+            }
+            total++;
+            if (++layerCount >= capacity(last)) {
+                layers.add(new byte[(int) ((bits(last + 1) + 7) >>> 3)]);
+                layerCount = 0;
+            }
+        }
+
+        upload(newGen, layers);
+        Long oldLayers = support.template().execute(SWAP, RedisSerializer.string(), new GenericToStringSerializer<>(Long.class),
+                Collections.singletonList(metaKey), String.valueOf(current.gen), String.valueOf(newGen),
+                String.valueOf(layers.size()), String.valueOf(layerCount));
+        if (Objects.isNull(oldLayers) || oldLayers == 0L) {
+            // 其他实例同时完成了重建，丢弃本次结果
+            delete(newGen, layers.size());
+            throw new IllegalStateException("布隆过滤器 " + name + " 正在被其他实例重建");
+        }
+        delete(current.gen, oldLayers.intValue());
+        state = readState();
+        if (Objects.nonNull(mirror)) {
+            refreshMirror();
+        }
+        return total;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getPassed() {
+        return passed.sum();
+    }
+
+    public int getLayers() {
+        return state.layers;
+    }
+
+    private boolean count(boolean mightContain) {
+        (mightContain ? passed : rejected).increment();
+        return mightContain;
+    }
+
+    private Map<String, Long> pipelined(RedisScript<Long> script, List<String> ids, boolean add) {
+        Map<String, Long> results = new LinkedHashMap<>(ids.size() * 4 / 3 + 1);
+        List<String> stale = new ArrayList<>();
+        State current = state;
+        byte[] rawMeta = support.rawKey(metaKey);
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands =
+                    support.nodeCommands(rc, rc.clusterGetNodeForSlot(ClusterSlotHashUtil.calculateSlot(rawMeta)));
+            // 先在同一连接上加载脚本，后续 EVALSHA 按顺序执行，不会出现 NOSCRIPT
+            RedisFuture<String> loaded = commands.scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+            byte[][] rawKeys = rawKeys(current);
+            for (List<String> batch : RedisClusterSupport.partition(ids, batchSize)) {
+                List<RedisFuture<Long>> futures = new ArrayList<>(batch.size());
+                for (String id : batch) {
+                    Object[] args = args(current, hash(id), add);
+                    byte[][] rawArgs = new byte[args.length][];
+                    for (int i = 0; i < args.length; i++) {
+                        rawArgs[i] = bytes((String) args[i]);
+                    }
+                    futures.add(commands.evalsha(script.getSha1(), ScriptOutputType.INTEGER, rawKeys, rawArgs));
+                }
+                support.await(loaded);
+                List<Long> replies = support.awaitAll(futures);
+                for (int i = 0; i < batch.size(); i++) {
+                    Long reply = replies.get(i);
+                    if (Objects.isNull(reply) || reply < 0) {
+                        stale.add(batch.get(i));
+                    } else {
+                        results.put(batch.get(i), reply);
+                    }
+                }
+            }
+        } finally {
+            support.release(rc);
+        }
+        // 执行期间层数发生变化的 id 逐个重试
+        for (String id : stale) {
+            results.put(id, add ? (add(id) ? 1L : 0L) : (mightContain(id) ? 1L : 0L));
+        }
+        return results;
+    }
+
+    private String[] initMeta(long expectedInsertions, double fpp) {
+        byte[] rawMeta = support.rawKey(metaKey);
+        List<byte[]> values = support.template().execute((RedisCallback<List<byte[]>>) connection -> {
+            connection.hSetNX(rawMeta, bytes("n"), bytes(String.valueOf(expectedInsertions)));
+            connection.hSetNX(rawMeta, bytes("p"), bytes(String.valueOf(fpp)));
+            connection.hSetNX(rawMeta, bytes("gen"), bytes("0"));
+            connection.hSetNX(rawMeta, bytes("layers"), bytes("1"));
+            connection.hSetNX(rawMeta, bytes("count"), bytes("0"));
+            return connection.hMGet(rawMeta, bytes("gen"), bytes("layers"), bytes("n"), bytes("p"));
+        });
+        String[] stored = new String[4];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = new String(values.get(i), StandardCharsets.UTF_8);
+        }
+        return stored;
+    }
+
+    private State readState() {
+        byte[] rawMeta = support.rawKey(metaKey);
+        List<byte[]> values = support.template().execute((RedisCallback<List<byte[]>>) connection ->
+                connection.hMGet(rawMeta, bytes("gen"), bytes("layers")));
+        if (Objects.isNull(values) || Objects.isNull(values.get(0)) || Objects.isNull(values.get(1))) {
+            throw new IllegalStateException("布隆过滤器 " + name + " 的元数据不存在");
+        }
+        return new State(Long.parseLong(new String(values.get(0), StandardCharsets.UTF_8)),
+                Integer.parseInt(new String(values.get(1), StandardCharsets.UTF_8)));
+    }
+
+    private void refreshState(State seen) {
+        State refreshed = readState();
+        if (state == seen) {
+            state = refreshed;
+        }
+    }
+
+    private void refreshMirror() {
+        long refreshStart = System.currentTimeMillis();
+        State current = readState();
+        byte[][] rawKeys = rawKeys(current);
+        List<byte[]> layers = support.template().execute((RedisCallback<List<byte[]>>) connection -> {
+            List<byte[]> bitmaps = new ArrayList<>(current.layers);
+            for (int i = 1; i < rawKeys.length; i++) {
+                byte[] bitmap = connection.get(rawKeys[i]);
+                bitmaps.add(Objects.isNull(bitmap) ? new byte[0] : bitmap);
+            }
+            return bitmaps;
+        });
+        state = current;
+        mirror = new Mirror(layers);
+        recentAdds.values().removeIf(addedAt -> addedAt < refreshStart);
+    }
+
+    private void upload(long gen, List<byte[]> layers) {
+        byte[] rawMeta = support.rawKey(metaKey);
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands =
+                    support.nodeCommands(rc, rc.clusterGetNodeForSlot(ClusterSlotHashUtil.calculateSlot(rawMeta)));
+            for (int i = 0; i < layers.size(); i++) {
+                byte[] rawKey = support.rawKey(layerKey(gen, i));
+                byte[] bitmap = layers.get(i);
+                List<RedisFuture<Long>> futures = new ArrayList<>();
+                for (int offset = 0; offset < bitmap.length; offset += UPLOAD_CHUNK) {
+                    futures.add(commands.setrange(rawKey, offset,
+                            Arrays.copyOfRange(bitmap, offset, Math.min(bitmap.length, offset + UPLOAD_CHUNK))));
+                }
+                support.awaitAll(futures);
+            }
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private void delete(long gen, int layers) {
+        List<Object> keys = new ArrayList<>(layers);
+        for (int i = 0; i < layers; i++) {
+            keys.add(layerKey(gen, i));
+        }
+        support.template().delete(keys);
+    }
+
+    private List<Object> keys(State current) {
+        List<Object> keys = new ArrayList<>(current.layers + 1);
+        keys.add(metaKey);
+        for (int i = 0; i < current.layers; i++) {
+            keys.add(layerKey(current.gen, i));
+        }
+        return keys;
+    }
+
+    private byte[][] rawKeys(State current) {
+        List<Object> keys = keys(current);
+        byte[][] rawKeys = new byte[keys.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            rawKeys[i] = support.rawKey(keys.get(i));
+        }
+        return rawKeys;
+    }
+
+    private String layerKey(long gen, int layer) {
+        return metaKey + ":" + gen + ":" + layer;
+    }
+
+    private Object[] args(State current, long[] hash, boolean add) {
+        List<Object> args = new ArrayList<>();
+        args.add(String.valueOf(current.gen));
+        args.add(String.valueOf(current.layers));
+        if (add) {
+            args.add(String.valueOf(capacity(current.layers - 1)));
+        }
+        for (int layer = 0; layer < current.layers; layer++) {
+            long[] offsets = offsets(layer, hash);
+            args.add(String.valueOf(offsets.length));
+            for (long offset : offsets) {
+                args.add(String.valueOf(offset));
+            }
+        }
+        return args.toArray();
+    }
+
+    /**
+     * @param id
+     * @return {{@link long[]}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:47
+     * @description: TODO 计算 Murmur3 128 位哈希的两个 64 位分量，各层以 h1 + i * h2 生成 k 个偏移量
+     */
+    private static long[] hash(String id) {
+        byte[] bytes = HASH.hashString(id, StandardCharsets.UTF_8).asBytes();
+        long hash1 = Longs.fromBytes(bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
+        long hash2 = Longs.fromBytes(bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+        return new long[]{hash1, hash2};
+    }
+
+    private long[] offsets(int layer, long[] hash) {
+        long bits = bits(layer);
+        long[] offsets = new long[hashes(layer)];
+        long combined = hash[0];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = (combined & Long.MAX_VALUE) % bits;
+            combined += hash[1];
+        }
+        return offsets;
+    }
+
+    // 第 layer 层的容量为 n * 2^layer
+    private long capacity(int layer) {
+        return expectedInsertions << Math.min(layer, 30);
+    }
+
+    // 第 layer 层的误判率为 p * 0.5^(layer + 1)，各层之和不超过 p
+    private double layerFpp(int layer) {
+        return fpp * Math.pow(0.5D, layer + 1);
+    }
+
+    private long bits(int layer) {
+        long bits = (long) Math.ceil(-capacity(layer) * Math.log(layerFpp(layer)) / (Math.log(2) * Math.log(2)));
+        if (bits > MAX_BITS) {
+            throw new IllegalStateException("布隆过滤器 " + name + " 第 " + layer + " 层超过 Redis bitmap 的最大长度");
+        }
+        return bits;
+    }
+
+    private int hashes(int layer) {
+        return Math.max(1, (int) Math.round((double) bits(layer) / capacity(layer) * Math.log(2)));
+    }
+
+    private boolean test(byte[] bitmap, int layer, long[] hash) {
+        for (long offset : offsets(layer, hash)) {
+            if (!getBit(bitmap, offset)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean set(byte[] bitmap, int layer, long[] hash) {
+        boolean changed = false;
+        for (long offset : offsets(layer, hash)) {
+            int index = (int) (offset >>> 3);
+            int mask = 0x80 >>> (int) (offset & 7);
+            if ((bitmap[index] & mask) == 0) {
+                bitmap[index] |= mask;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // Redis bitmap 的第 0 位是第一个字节的最高位，超出长度的位视为 0
+    private static boolean getBit(byte[] bitmap, long offset) {
+        long index = offset >>> 3;
+        return index < bitmap.length && (bitmap[(int) index] & (0x80 >>> (int) (offset & 7))) != 0;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class State {
+
+        private final long gen;
+
+        private final int layers;
+
+        State(long gen, int layers) {
+            this.gen = gen;
+            this.layers = layers;
+        }
+    }
+
+    private class Mirror {
+
+        private final List<byte[]> layers;
+
+        Mirror(List<byte[]> layers) {
+            this.layers = layers;
+        }
+
+        boolean contains(long[] hash) {
+            for (int i = 0; i < layers.size(); i++) {
+                if (test(layers.get(i), i, hash)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+/**
+ * ClassName: RedisBulkDeleter
+ * Description: TODO 批量删除：通配符使用 SCAN 展开（不使用阻塞的 KEYS），按 hash slot 分组，
+ * 各主节点并发发送流水线 UNLINK，返回实际删除的 key 数量
+ * date: 2026/10/18 12:10
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisBulkDeleter {
+
+    private final RedisClusterSupport support;
+
+    private final RedisKeyScanner scanner;
+
+    // 单条 UNLINK 命令包含的最大 key 数量
+    private int batchSize = 500;
+
+    // 每个节点同时在途的 UNLINK 命令数量
+    private int pipelineDepth = 16;
+
+    // 通配符扫描时，累计多少个 key 执行一次删除
+    private int scanFlushSize = 10_000;
+
+    public RedisBulkDeleter(RedisClusterSupport support, RedisKeyScanner scanner) {
+        this.support = Objects.requireNonNull(support);
+        this.scanner = Objects.requireNonNull(scanner);
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于 0");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public void setPipelineDepth(int pipelineDepth) {
+        if (pipelineDepth <= 0) {
+            throw new IllegalArgumentException("pipelineDepth 必须大于 0");
+        }
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    public void setScanFlushSize(int scanFlushSize) {
+        if (scanFlushSize <= 0) {
+            throw new IllegalArgumentException("scanFlushSize 必须大于 0");
+        }
+        this.scanFlushSize = scanFlushSize;
+    }
+
+    /**
+     * @param keys
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 12:12
+     * @description: TODO 删除给定的 key（不做通配符展开），返回实际删除的数量
+     */
+    public long delete(Collection<String> keys) {
+        return delete(keys, true);
+    }
+
+    /**
+     * @param pattern
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 12:13
+     * @description: TODO 删除匹配通配符的 key，边扫描边删除，内存占用与 scanFlushSize 成正比
+     */
+    public long deleteByPattern(String pattern) {
+        List<String> buffer = new ArrayList<>(scanFlushSize);
+        long deleted = 0;
+        try (Stream<String> keys = scanner.stream(RedisScanOptions.match(pattern))) {
+            Iterator<String> iterator = keys.iterator();
+            while (iterator.hasNext()) {
+                buffer.add(iterator.next());
+                if (buffer.size() >= scanFlushSize) {
+                    // 扫描生产者仍占用线程池，删除在当前线程中逐个节点执行，避免线程耗尽导致死锁
+                    deleted += delete(buffer, false);
+                    buffer.clear();
+                }
+            }
+        }
+        return deleted + delete(buffer);
+    }
+
+    /**
+     * @param keysOrPatterns
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 12:14
+     * @description: TODO 删除一组 key 或通配符，普通 key 直接批量删除，含通配符的使用 SCAN 展开
+     */
+    public long deleteKeysOrPatterns(Collection<String> keysOrPatterns) {
+        List<String> literals = new ArrayList<>();
+        List<String> patterns = new ArrayList<>();
+        for (String key : keysOrPatterns) {
+            if (Objects.isNull(key)) {
+                continue;
+            }
+            (isPattern(key) ? patterns : literals).add(key);
+        }
+
+        long deleted = delete(literals);
+        for (String pattern : patterns) {
+            deleted += deleteByPattern(pattern);
+        }
+        return deleted;
+    }
+
+    /**
+     * @param key
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 12:15
+     * @description: TODO 判断是否包含 glob 通配符
+     */
+    public static boolean isPattern(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '*' || c == '?' || c == '[') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long delete(Collection<String> keys, boolean parallel) {
+        if (Objects.isNull(keys) || keys.isEmpty()) {
+            return 0;
+        }
+        Collection<RedisClusterSupport.NodeGroup<String>> groups = support.groupByNode(new LinkedHashSet<>(keys), support::rawKey);
+        List<Callable<Long>> tasks = new ArrayList<>(groups.size());
+        for (RedisClusterSupport.NodeGroup<String> group : groups) {
+            tasks.add(() -> deleteOnNode(group));
+        }
+
+        long deleted = 0;
+        for (Long count : parallel ? support.invokeAll(tasks) : support.invokeSequentially(tasks)) {
+            deleted += count;
+        }
+        return deleted;
+    }
+
+    private long deleteOnNode(RedisClusterSupport.NodeGroup<String> group) {
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, group.getNode());
+            List<RedisFuture<Long>> inFlight = new ArrayList<>(pipelineDepth);
+            long deleted = 0;
+            for (List<String> slotKeys : group.getSlots().values()) {
+                // 同一条 UNLINK 中的 key 必须属于同一个 slot
+                for (List<String> batch : RedisClusterSupport.partition(slotKeys, batchSize)) {
+                    byte[][] rawKeys = new byte[batch.size()][];
+                    for (int i = 0; i < rawKeys.length; i++) {
+                        rawKeys[i] = support.rawKey(batch.get(i));
+                    }
+                    inFlight.add(commands.unlink(rawKeys));
+                    if (inFlight.size() >= pipelineDepth) {
+                        deleted += sum(support.awaitAll(inFlight));
+                        inFlight.clear();
+                    }
+                }
+            }
+            return deleted + sum(support.awaitAll(inFlight));
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private long sum(List<Long> counts) {
+        long total = 0;
+        for (Long count : counts) {
+            if (Objects.nonNull(count)) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+}
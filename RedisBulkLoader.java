@@ -0,0 +1,418 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScoredValue;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * ClassName: RedisBulkLoader
+ * Description: TODO 批量导入：从 Iterator / Stream / 文件逐条读取元素，按 batchSize 切分为大小受限的 HSET / SADD / ZADD / RPUSH，
+ * 在 key 所在节点的连接上保持 pipelineDepth 条命令在途，全部写入后再设置过期时间，并按 progressInterval 回调导入进度；
+ * 导入中途失败时为已写入的部分设置过期时间，并抛出带有已确认写入数量的 PartialLoadException
+ * date: 2026/10/18 20:20
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisBulkLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisBulkLoader.class);
+
+    /**
+     * 导入的目标类型
+     */
+    public enum Type {
+        HASH, SET, ZSET, LIST
+    }
+
+    private final RedisClusterSupport support;
+
+    // 单条命令包含的最大元素数量
+    private int batchSize = 1_000;
+
+    // 同一节点上同时在途的命令数量
+    private int pipelineDepth = 16;
+
+    // 每导入多少个元素回调一次进度
+    private long progressInterval = 100_000L;
+
+    private Consumer<LoadResult> progressListener;
+
+    // 导入结束（含中途失败）后回调目标 key，用于失效一级缓存等本地副本
+    private Consumer<String> loadListener;
+
+    public RedisBulkLoader(RedisClusterSupport support) {
+        this.support = Objects.requireNonNull(support);
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于 0");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public void setPipelineDepth(int pipelineDepth) {
+        if (pipelineDepth <= 0) {
+            throw new IllegalArgumentException("pipelineDepth 必须大于 0");
+        }
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    public void setProgressInterval(long progressInterval) {
+        if (progressInterval <= 0) {
+            throw new IllegalArgumentException("progressInterval 必须大于 0");
+        }
+        this.progressInterval = progressInterval;
+    }
+
+    public void setProgressListener(Consumer<LoadResult> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    public void setLoadListener(Consumer<String> loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    /**
+     * @param key
+     * @param entries
+     * @param ttl
+     * @param timeUnit
+     * @return {{@link LoadResult}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:21
+     * @description: TODO 导入 hash，ttl 小于等于 0 时不设置过期时间
+     */
+    public LoadResult loadHash(String key, Iterator<? extends Map.Entry<?, ?>> entries, long ttl, TimeUnit timeUnit) {
+        return load(Type.HASH, key, entries, ttl, timeUnit);
+    }
+
+    public LoadResult loadHash(String key, Stream<? extends Map.Entry<?, ?>> entries, long ttl, TimeUnit timeUnit) {
+        return load(Type.HASH, key, entries.iterator(), ttl, timeUnit);
+    }
+
+    /**
+     * @param key
+     * @param values
+     * @param ttl
+     * @param timeUnit
+     * @return {{@link LoadResult}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:22
+     * @description: TODO 导入 set，ttl 小于等于 0 时不设置过期时间
+     */
+    public LoadResult loadSet(String key, Iterator<?> values, long ttl, TimeUnit timeUnit) {
+        return load(Type.SET, key, values, ttl, timeUnit);
+    }
+
+    public LoadResult loadSet(String key, Stream<?> values, long ttl, TimeUnit timeUnit) {
+        return load(Type.SET, key, values.iterator(), ttl, timeUnit);
+    }
+
+    /**
+     * @param key
+     * @param tuples
+     * @param ttl
+     * @param timeUnit
+     * @return {{@link LoadResult}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:23
+     * @description: TODO 导入 zSet，ttl 小于等于 0 时不设置过期时间
+     */
+    public LoadResult loadZSet(String key, Iterator<? extends ZSetOperations.TypedTuple<?>> tuples, long ttl, TimeUnit timeUnit) {
+        return load(Type.ZSET, key, tuples, ttl, timeUnit);
+    }
+
+    public LoadResult loadZSet(String key, Stream<? extends ZSetOperations.TypedTuple<?>> tuples, long ttl, TimeUnit timeUnit) {
+        return load(Type.ZSET, key, tuples.iterator(), ttl, timeUnit);
+    }
+
+    /**
+     * @param key
+     * @param values
+     * @param ttl
+     * @param timeUnit
+     * @return {{@link LoadResult}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:24
+     * @description: TODO 按顺序追加到 list 尾部，同一连接上的流水线保证顺序；ttl 小于等于 0 时不设置过期时间
+     */
+    public LoadResult loadList(String key, Iterator<?> values, long ttl, TimeUnit timeUnit) {
+        return load(Type.LIST, key, values, ttl, timeUnit);
+    }
+
+    public LoadResult loadList(String key, Stream<?> values, long ttl, TimeUnit timeUnit) {
+        return load(Type.LIST, key, values.iterator(), ttl, timeUnit);
+    }
+
+    /**
+     * @param type
+     * @param key
+     * @param file
+     * @param charset
+     * @param parser
+     * @param ttl
+     * @param timeUnit
+     * @return {{@link LoadResult}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:25
+     * @description: TODO 逐行读取文件导入，parser 将一行转换为元素（HASH 为 Map.Entry，ZSET 为 TypedTuple，其余为值），返回 null 的行跳过
+     */
+    public LoadResult loadFile(Type type, String key, Path file, Charset charset, Function<String, ?> parser,
+                               long ttl, TimeUnit timeUnit) {
+        Objects.requireNonNull(parser);
+        try (Stream<String> lines = Files.lines(file, charset)) {
+            return load(type, key, lines.map(parser).filter(Objects::nonNull).iterator(), ttl, timeUnit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private LoadResult load(Type type, String key, Iterator<?> items, long ttl, TimeUnit timeUnit) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(items);
+        long startNanos = System.nanoTime();
+        byte[] rawKey = support.rawKey(key);
+        long loaded = 0;
+        long commands = 0;
+        long nextProgress = progressInterval;
+        // 已确认写入成功的元素数量
+        long[] confirmed = {0};
+
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> nodeCommands =
+                    support.nodeCommands(rc, rc.clusterGetNodeForSlot(ClusterSlotHashUtil.calculateSlot(rawKey)));
+            List<RedisFuture<?>> inFlight = new ArrayList<>(pipelineDepth);
+            List<Integer> sizes = new ArrayList<>(pipelineDepth);
+            try {
+                List<Object> batch = new ArrayList<>(batchSize);
+                while (items.hasNext()) {
+                    Object item = items.next();
+                    if (Objects.isNull(item)) {
+                        continue;
+                    }
+                    batch.add(item);
+                    if (batch.size() < batchSize) {
+                        continue;
+                    }
+                    inFlight.add(send(nodeCommands, type, rawKey, batch));
+                    sizes.add(batch.size());
+                    loaded += batch.size();
+                    commands++;
+                    batch.clear();
+                    if (inFlight.size() >= pipelineDepth) {
+                        awaitAll(inFlight, sizes, confirmed);
+                    }
+                    if (loaded >= nextProgress) {
+                        nextProgress = loaded + progressInterval;
+                        notifyProgress(new LoadResult(key, loaded, commands, System.nanoTime() - startNanos));
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    inFlight.add(send(nodeCommands, type, rawKey, batch));
+                    sizes.add(batch.size());
+                    loaded += batch.size();
+                    commands++;
+                }
+                awaitAll(inFlight, sizes, confirmed);
+
+                // 全部写入成功后再设置过期时间，避免导入过程中 key 过期造成部分数据丢失
+                if (ttl > 0 && loaded > 0) {
+                    support.await(nodeCommands.pexpire(rawKey, timeUnit.toMillis(ttl)));
+                }
+            } catch (RuntimeException e) {
+                // 读取元素或发送命令失败时仍可能有命令在途，等待其完成后再统计
+                try {
+                    awaitAll(inFlight, sizes, confirmed);
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                // 已写入的部分同样按要求的时间过期，不留下永不过期的残缺数据
+                if (ttl > 0 && confirmed[0] > 0) {
+                    try {
+                        support.await(nodeCommands.pexpire(rawKey, timeUnit.toMillis(ttl)));
+                    } catch (RuntimeException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                LoadResult partial = new LoadResult(key, confirmed[0], commands, System.nanoTime() - startNanos);
+                throw new PartialLoadException("导入 " + key + " 中途失败，已写入 " + confirmed[0] + " 个元素：" + e.getMessage(),
+                        partial, e);
+            }
+        } finally {
+            support.release(rc);
+            // 失败时已写入的部分同样改变了 key 的内容
+            notifyLoaded(key);
+        }
+        LoadResult result = new LoadResult(key, loaded, commands, System.nanoTime() - startNanos);
+        notifyProgress(result);
+        return result;
+    }
+
+    private RedisFuture<?> send(RedisClusterAsyncCommands<byte[], byte[]> commands, Type type, byte[] rawKey, List<Object> batch) {
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) support.template().getValueSerializer();
+        switch (type) {
+            case HASH:
+                RedisSerializer<Object> hashKeySerializer = (RedisSerializer<Object>) support.template().getHashKeySerializer();
+                RedisSerializer<Object> hashValueSerializer = (RedisSerializer<Object>) support.template().getHashValueSerializer();
+                Map<byte[], byte[]> fields = new LinkedHashMap<>(batch.size() * 4 / 3 + 1);
+                for (Object item : batch) {
+                    Map.Entry<?, ?> entry = (Map.Entry<?, ?>) item;
+                    fields.put(hashKeySerializer.serialize(entry.getKey()), hashValueSerializer.serialize(entry.getValue()));
+                }
+                return commands.hmset(rawKey, fields);
+            case SET:
+                return commands.sadd(rawKey, serializeAll(valueSerializer, batch));
+            case ZSET:
+                ScoredValue<byte[]>[] scoredValues = new ScoredValue[batch.size()];
+                for (int i = 0; i < scoredValues.length; i++) {
+                    ZSetOperations.TypedTuple<?> tuple = (ZSetOperations.TypedTuple<?>) batch.get(i);
+                    double score = Objects.isNull(tuple.getScore()) ? 0D : tuple.getScore();
+                    scoredValues[i] = ScoredValue.just(score, valueSerializer.serialize(tuple.getValue()));
+                }
+                return commands.zadd(rawKey, scoredValues);
+            case LIST:
+                return commands.rpush(rawKey, serializeAll(valueSerializer, batch));
+            default:
+                throw new IllegalArgumentException("不支持的类型：" + type);
+        }
+    }
+
+    private byte[][] serializeAll(RedisSerializer<Object> serializer, List<Object> values) {
+        byte[][] raw = new byte[values.size()][];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = serializer.serialize(values.get(i));
+        }
+        return raw;
+    }
+
+    // 等待所有在途命令并累加成功写入的元素数量，有命令失败时在全部等待完成后抛出第一个异常
+    private void awaitAll(List<RedisFuture<?>> inFlight, List<Integer> sizes, long[] confirmed) {
+        RuntimeException failure = null;
+        for (int i = 0; i < inFlight.size(); i++) {
+            try {
+                support.await(inFlight.get(i));
+                confirmed[0] += sizes.get(i);
+            } catch (RuntimeException e) {
+                if (Objects.isNull(failure)) {
+                    failure = e;
+                }
+            }
+        }
+        inFlight.clear();
+        sizes.clear();
+        if (Objects.nonNull(failure)) {
+            throw failure;
+        }
+    }
+
+    private void notifyLoaded(String key) {
+        Consumer<String> listener = loadListener;
+        if (Objects.isNull(listener)) {
+            return;
+        }
+        try {
+            listener.accept(key);
+        } catch (Exception e) {
+            LOGGER.warn("导入完成监听器执行失败: {}", key, e);
+        }
+    }
+
+    private void notifyProgress(LoadResult progress) {
+        Consumer<LoadResult> listener = progressListener;
+        if (Objects.isNull(listener)) {
+            return;
+        }
+        try {
+            listener.accept(progress);
+        } catch (Exception e) {
+            LOGGER.warn("导入进度监听器执行失败", e);
+        }
+    }
+
+    /**
+     * 导入中途失败，getPartial() 为已确认写入的元素数量；指定了过期时间时已写入的部分已设置过期时间
+     */
+    public static class PartialLoadException extends RedisSystemException {
+
+        private final LoadResult partial;
+
+        PartialLoadException(String message, LoadResult partial, Throwable cause) {
+            super(message, cause);
+            this.partial = partial;
+        }
+
+        public LoadResult getPartial() {
+            return partial;
+        }
+    }
+
+    /**
+     * 导入进度与结果：已写入的元素数量、发送的命令数量与耗时
+     */
+    public static class LoadResult {
+
+        private final String key;
+
+        private final long items;
+
+        private final long commands;
+
+        private final long elapsedNanos;
+
+        LoadResult(String key, long items, long commands, long elapsedNanos) {
+            this.key = key;
+            this.items = items;
+            this.commands = commands;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getItems() {
+            return items;
+        }
+
+        public long getCommands() {
+            return commands;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public double getItemsPerSecond() {
+            return elapsedNanos <= 0 ? 0D : items * 1_000_000_000D / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "LoadResult{key=" + key + ", items=" + items + ", commands=" + commands
+                    + ", elapsedMillis=" + getElapsedMillis() + ", itemsPerSecond=" + (long) getItemsPerSecond() + "}";
+        }
+    }
+
+}
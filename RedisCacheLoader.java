@@ -0,0 +1,370 @@
+package club.wadreamer.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: RedisCacheLoader
+ * Description: TODO 防缓存击穿的读取加载：同一 JVM 内并发未命中只加载一次（single-flight），跨节点以 SET NX PX 租约保证只有一个重建者，
+ * 值以 CacheEnvelope 保存逻辑过期时间与重建耗时，按 XFetch 概率提前在后台刷新；未取得租约的调用方返回旧值
+ * date: 2026/10/18 18:30
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisCacheLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisCacheLoader.class);
+
+    // 只有持有者才能释放租约，避免误删他人重新获取的租约
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n"
+                    + "    return redis.call('DEL', KEYS[1])\n"
+                    + "end\n"
+                    + "return 0", Long.class);
+
+    private static final String LEASE_SUFFIX = ":lease";
+
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+
+    private final Executor refreshExecutor;
+
+    // 本 JVM 内正在进行、未取得租约时等待其他节点重建的加载，key -> 加载结果，结果不会是 LeaseBusy
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // 本 JVM 内正在进行、未取得租约时直接返回 LeaseBusy 的加载（后台提前刷新与持有旧值的调用方），
+    // 与 inFlight 分开，没有旧值的调用方不会加入这类加载而拿到 LeaseBusy
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> refreshing = new ConcurrentHashMap<>();
+
+    // XFetch 的 beta，越大越倾向提前刷新
+    private double beta = 1.0D;
+
+    // 重建租约的有效期，应大于一次加载的最长耗时
+    private long leaseMillis = 3_000L;
+
+    // 逻辑过期后旧值在 Redis 中继续保留的时间，供未取得租约的调用方使用
+    private long staleMillis = 60_000L;
+
+    // 无旧值且未取得租约时，等待其他节点重建的最长时间
+    private long waitMillis = 1_000L;
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    private final LongAdder staleServed = new LongAdder();
+
+    public RedisCacheLoader(RedisTemplate<Object, Object> redisTemplate) {
+        this(redisTemplate, newDefaultRefreshExecutor());
+    }
+
+    public RedisCacheLoader(RedisTemplate<Object, Object> redisTemplate, Executor refreshExecutor) {
+        this.redisTemplate = Objects.requireNonNull(redisTemplate);
+        this.refreshExecutor = Objects.requireNonNull(refreshExecutor);
+    }
+
+    /**
+     * @return {{@link ExecutorService}}
+     * @author wadreamer
+     * @date: 2026/10/19 10:10
+     * @description: TODO 创建默认的提前刷新线程池：独立于集群扫描线程池，队列有界，队列满时放弃本次提前刷新（值仍在有效期内）
+     */
+    public static ExecutorService newDefaultRefreshExecutor() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(1024), r -> {
+            Thread thread = new Thread(r, "redis-cache-refresh-" + THREAD_SEQ.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public void setBeta(double beta) {
+        if (beta <= 0) {
+            throw new IllegalArgumentException("beta 必须大于 0");
+        }
+        this.beta = beta;
+    }
+
+    public void setLeaseMillis(long leaseMillis) {
+        if (leaseMillis <= 0) {
+            throw new IllegalArgumentException("leaseMillis 必须大于 0");
+        }
+        this.leaseMillis = leaseMillis;
+    }
+
+    public void setStaleMillis(long staleMillis) {
+        if (staleMillis < 0) {
+            throw new IllegalArgumentException("staleMillis 不能小于 0");
+        }
+        this.staleMillis = staleMillis;
+    }
+
+    public void setWaitMillis(long waitMillis) {
+        if (waitMillis < 0) {
+            throw new IllegalArgumentException("waitMillis 不能小于 0");
+        }
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * @param key
+     * @param ttl
+     * @param timeUnit
+     * @param loader
+     * @return {{@link T}}
+     * @author wadreamer
+     * @date: 2026/10/18 18:32
+     * @description: TODO 读取缓存，未命中或已过期时加载并写入；临近过期时按 XFetch 概率在后台提前刷新
+     */
+    public <T> T getOrLoad(String key, long ttl, TimeUnit timeUnit, Supplier<T> loader) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(loader);
+        long ttlMillis = timeUnit.toMillis(ttl);
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttl 必须大于 0");
+        }
+
+        Object cached = redisTemplate.opsForValue().get(key);
+        if (Objects.nonNull(cached) && !(cached instanceof CacheEnvelope)) {
+            // 其他方式写入的普通值，视为有效
+            return (T) cached;
+        }
+        CacheEnvelope envelope = (CacheEnvelope) cached;
+        long now = System.currentTimeMillis();
+        if (Objects.nonNull(envelope)) {
+            if (now < envelope.expireAtMillis) {
+                if (shouldRefreshEarly(envelope, now)) {
+                    earlyRefreshes.increment();
+                    try {
+                        refreshExecutor.execute(() -> {
+                            try {
+                                load(key, ttlMillis, loader, false);
+                            } catch (Exception e) {
+                                LOGGER.warn("提前刷新缓存失败: {}", key, e);
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        // 刷新线程池已满，值仍在有效期内，放弃本次提前刷新
+                    }
+                }
+                return (T) envelope.value;
+            }
+        }
+
+        CompletableFuture<Object> result = load(key, ttlMillis, loader, Objects.isNull(envelope));
+        Object value = join(result);
+        if (value == LeaseBusy.INSTANCE) {
+            // 其他节点正在重建，返回旧值
+            staleServed.increment();
+            return Objects.isNull(envelope) ? null : (T) envelope.value;
+        }
+        return (T) value;
+    }
+
+    /**
+     * @param envelope
+     * @param now
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 18:33
+     * @description: TODO XFetch：now - delta * beta * ln(rand) >= expiry 时提前刷新，重建越慢、越接近过期，刷新概率越高
+     */
+    private boolean shouldRefreshEarly(CacheEnvelope envelope, long now) {
+        double random = ThreadLocalRandom.current().nextDouble();
+        if (random <= 0D) {
+            return true;
+        }
+        return now - envelope.deltaMillis * beta * Math.log(random) >= envelope.expireAtMillis;
+    }
+
+    private CompletableFuture<Object> load(String key, long ttlMillis, Supplier<?> loader, boolean waitForOthers) {
+        ConcurrentHashMap<String, CompletableFuture<Object>> flights = waitForOthers ? inFlight : refreshing;
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(key, created);
+        if (Objects.nonNull(existing)) {
+            return existing;
+        }
+        try {
+            created.complete(loadWithLease(key, ttlMillis, loader, waitForOthers));
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+        } finally {
+            flights.remove(key, created);
+        }
+        return created;
+    }
+
+    private Object loadWithLease(String key, long ttlMillis, Supplier<?> loader, boolean waitForOthers) throws InterruptedException {
+        String leaseKey = key + LEASE_SUFFIX;
+        byte[] token = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        if (!acquireLease(leaseKey, token)) {
+            if (!waitForOthers) {
+                return LeaseBusy.INSTANCE;
+            }
+            // 没有旧值可返回，等待其他节点写入，超时后自行加载
+            Object rebuilt = awaitRebuild(key);
+            if (Objects.nonNull(rebuilt)) {
+                return rebuilt;
+            }
+            return loadAndStore(key, ttlMillis, loader);
+        }
+        try {
+            return loadAndStore(key, ttlMillis, loader);
+        } finally {
+            releaseLease(leaseKey, token);
+        }
+    }
+
+    private Object loadAndStore(String key, long ttlMillis, Supplier<?> loader) {
+        long start = System.currentTimeMillis();
+        Object value = loader.get();
+        long end = System.currentTimeMillis();
+        loads.increment();
+        if (Objects.nonNull(value)) {
+            CacheEnvelope envelope = new CacheEnvelope(value, end + ttlMillis, Math.max(1, end - start));
+            redisTemplate.opsForValue().set(key, envelope, ttlMillis + staleMillis, TimeUnit.MILLISECONDS);
+        }
+        return value;
+    }
+
+    private Object awaitRebuild(String key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        long sleep = 10;
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(sleep);
+            Object cached = redisTemplate.opsForValue().get(key);
+            if (cached instanceof CacheEnvelope) {
+                return ((CacheEnvelope) cached).value;
+            }
+            if (Objects.nonNull(cached)) {
+                return cached;
+            }
+            sleep = Math.min(sleep * 2, 100);
+        }
+        return null;
+    }
+
+    private boolean acquireLease(String leaseKey, byte[] token) {
+        byte[] rawKey = ((RedisSerializer<Object>) redisTemplate.getKeySerializer()).serialize(leaseKey);
+        Boolean acquired = redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.set(rawKey, token,
+                Expiration.milliseconds(leaseMillis), RedisStringCommands.SetOption.ifAbsent()));
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    private void releaseLease(String leaseKey, byte[] token) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE, RedisSerializer.byteArray(), new GenericToStringSerializer<>(Long.class),
+                    Collections.singletonList(leaseKey), token);
+        } catch (Exception e) {
+            // 释放失败时租约会自然过期
+            LOGGER.warn("释放加载租约失败，租约将自然过期: {}", leaseKey, e);
+        }
+    }
+
+    private Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getEarlyRefreshes() {
+        return earlyRefreshes.sum();
+    }
+
+    public long getStaleServed() {
+        return staleServed.sum();
+    }
+
+    // 未取得租约且不等待时的占位结果
+    private enum LeaseBusy {
+        INSTANCE
+    }
+
+    /**
+     * 缓存值的包装：逻辑过期时间早于 Redis 中的物理过期时间，两者之间旧值仍可读取
+     */
+    public static class CacheEnvelope implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Object value;
+
+        private long expireAtMillis;
+
+        // 最近一次重建的耗时，XFetch 以此估算提前刷新的时间
+        private long deltaMillis;
+
+        public CacheEnvelope() {
+        }
+
+        public CacheEnvelope(Object value, long expireAtMillis, long deltaMillis) {
+            this.value = value;
+            this.expireAtMillis = expireAtMillis;
+            this.deltaMillis = deltaMillis;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public void setValue(Object value) {
+            this.value = value;
+        }
+
+        public long getExpireAtMillis() {
+            return expireAtMillis;
+        }
+
+        public void setExpireAtMillis(long expireAtMillis) {
+            this.expireAtMillis = expireAtMillis;
+        }
+
+        public long getDeltaMillis() {
+            return deltaMillis;
+        }
+
+        public void setDeltaMillis(long deltaMillis) {
+            this.deltaMillis = deltaMillis;
+        }
+    }
+
+}
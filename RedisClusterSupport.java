@@ -0,0 +1,352 @@
+package club.wadreamer.utils;
+
+import com.google.common.collect.Lists;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisAdvancedClusterAsyncCommands;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisConnectionUtils;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * ClassName: RedisClusterSupport
+ * Description: TODO Redis 集群公共支撑：主节点枚举、key 序列化、按节点执行原生命令以及并发执行线程池
+ * date: 2026/10/18 10:05
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisClusterSupport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisClusterSupport.class);
+
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+
+    // 按节点并发执行命令的线程池，线程为守护线程，不阻止 JVM 退出
+    private final ExecutorService executor;
+
+    // 单条原生命令的最长等待时间（毫秒）
+    private long commandTimeoutMillis = 10_000L;
+
+    public RedisClusterSupport(RedisTemplate<Object, Object> redisTemplate) {
+        this(redisTemplate, newDefaultExecutor());
+    }
+
+    public RedisClusterSupport(RedisTemplate<Object, Object> redisTemplate, ExecutorService executor) {
+        this.redisTemplate = Objects.requireNonNull(redisTemplate);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * @return {{@link ExecutorService}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:06
+     * @description: TODO 创建默认线程池，线程数不少于 16，保证 12 主节点的集群可以同时扫描
+     */
+    public static ExecutorService newDefaultExecutor() {
+        int threads = Math.max(16, Runtime.getRuntime().availableProcessors() * 2);
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "redis-cluster-" + THREAD_SEQ.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public RedisTemplate<Object, Object> template() {
+        return redisTemplate;
+    }
+
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    public long commandTimeoutMillis() {
+        return commandTimeoutMillis;
+    }
+
+    public void setCommandTimeoutMillis(long commandTimeoutMillis) {
+        this.commandTimeoutMillis = commandTimeoutMillis;
+    }
+
+    /**
+     * @return {{@link RedisClusterConnection}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:07
+     * @description: TODO 获取集群连接，使用完毕后需调用 release 释放
+     */
+    public RedisClusterConnection openClusterConnection() {
+        RedisConnectionFactory factory = Objects.requireNonNull(redisTemplate.getConnectionFactory());
+        return factory.getClusterConnection();
+    }
+
+    /**
+     * @param rc
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 10:07
+     * @description: TODO 释放集群连接
+     */
+    public void release(RedisClusterConnection rc) {
+        if (Objects.isNull(rc)) {
+            return;
+        }
+        try {
+            RedisConnectionUtils.releaseConnection(rc, redisTemplate.getConnectionFactory());
+        } catch (Exception e) {
+            LOGGER.warn("释放 Redis 集群连接失败", e);
+        }
+    }
+
+    /**
+     * @return {{@link List< RedisClusterNode>}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:08
+     * @description: TODO 获取当前可用的主节点，按节点 id 排序以保证顺序稳定
+     */
+    public List<RedisClusterNode> masters() {
+        RedisClusterConnection rc = openClusterConnection();
+        try {
+            List<RedisClusterNode> masters = new ArrayList<>();
+            for (RedisClusterNode node : rc.clusterGetNodes()) {
+                if (node.isMaster() && !node.isMarkedAsFail()) {
+                    masters.add(node);
+                }
+            }
+            masters.sort(Comparator.comparing(RedisClusterNode::getId));
+            return masters;
+        } finally {
+            release(rc);
+        }
+    }
+
+    /**
+     * @param rc
+     * @param node
+     * @return {{@link RedisClusterAsyncCommands< byte[], byte[]>}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:09
+     * @description: TODO 获取指定节点的 Lettuce 原生异步命令，用于 SCAN 等需要定位到节点的命令
+     */
+    public RedisClusterAsyncCommands<byte[], byte[]> nodeCommands(RedisClusterConnection rc, RedisClusterNode node) {
+        RedisAdvancedClusterAsyncCommands<byte[], byte[]> commands =
+                (RedisAdvancedClusterAsyncCommands<byte[], byte[]>) rc.getNativeConnection();
+        return commands.getConnection(node.getId());
+    }
+
+    /**
+     * @param future
+     * @return {{@link T}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:10
+     * @description: TODO 在超时时间内等待原生命令结果，异常统一转换为 RedisSystemException
+     */
+    public <T> T await(RedisFuture<T> future) {
+        try {
+            return future.get(commandTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RedisSystemException("等待 Redis 命令结果时被中断", e);
+        } catch (ExecutionException e) {
+            throw new RedisSystemException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RedisSystemException("Redis 命令执行超时", e);
+        }
+    }
+
+    /**
+     * @param key
+     * @return {{@link byte[]}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:11
+     * @description: TODO 使用 redisTemplate 的 key 序列化器序列化 key
+     */
+    public byte[] rawKey(Object key) {
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) redisTemplate.getKeySerializer();
+        if (Objects.isNull(serializer) && key instanceof String) {
+            return ((String) key).getBytes(StandardCharsets.UTF_8);
+        }
+        return serializer.serialize(key);
+    }
+
+    /**
+     * @param raw
+     * @return {{@link String}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:11
+     * @description: TODO 将原始 key 反序列化为字符串
+     */
+    public String key(byte[] raw) {
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) redisTemplate.getKeySerializer();
+        if (Objects.isNull(serializer)) {
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+        return String.valueOf(serializer.deserialize(raw));
+    }
+
+    /**
+     * @param items
+     * @param rawKeyOf
+     * @return {{@link Collection< NodeGroup< T>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 12:05
+     * @description: TODO 按 hash slot 分组，再按 slot 所在的主节点归并，组内保持输入顺序
+     */
+    public <T> Collection<NodeGroup<T>> groupByNode(Collection<T> items, Function<? super T, byte[]> rawKeyOf) {
+        Map<Integer, List<T>> bySlot = new LinkedHashMap<>();
+        for (T item : items) {
+            int slot = ClusterSlotHashUtil.calculateSlot(rawKeyOf.apply(item));
+            bySlot.computeIfAbsent(slot, s -> new ArrayList<>()).add(item);
+        }
+
+        Map<String, NodeGroup<T>> byNode = new LinkedHashMap<>();
+        RedisClusterConnection rc = openClusterConnection();
+        try {
+            for (Map.Entry<Integer, List<T>> entry : bySlot.entrySet()) {
+                RedisClusterNode node = rc.clusterGetNodeForSlot(entry.getKey());
+                byNode.computeIfAbsent(node.getId(), id -> new NodeGroup<>(node)).slots.put(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            release(rc);
+        }
+        return byNode.values();
+    }
+
+    /**
+     * @param tasks
+     * @return {{@link List< R>}}
+     * @author wadreamer
+     * @date: 2026/10/18 12:06
+     * @description: TODO 在线程池中并发执行各节点任务并等待全部完成，任一任务失败时取消其余任务并抛出异常
+     */
+    public <R> List<R> invokeAll(List<Callable<R>> tasks) {
+        if (tasks.size() == 1) {
+            try {
+                return Collections.singletonList(tasks.get(0).call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RedisSystemException(e.getMessage(), e);
+            }
+        }
+
+        List<Future<R>> futures = new ArrayList<>(tasks.size());
+        for (Callable<R> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        List<R> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisSystemException("等待节点任务完成时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RedisSystemException(cause.getMessage(), cause);
+        } finally {
+            for (Future<R> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @param tasks
+     * @return {{@link List< R>}}
+     * @author wadreamer
+     * @date: 2026/10/19 09:00
+     * @description: TODO 在调用方线程中依次执行各节点任务。SCAN 会话未关闭时其生产者仍占用线程池，
+     * 此时再向同一线程池提交任务可能因线程耗尽而永远得不到执行，须改用本方法
+     */
+    public <R> List<R> invokeSequentially(List<Callable<R>> tasks) {
+        List<R> results = new ArrayList<>(tasks.size());
+        for (Callable<R> task : tasks) {
+            try {
+                results.add(task.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RedisSystemException(e.getMessage(), e);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @param futures
+     * @return {{@link List< T>}}
+     * @author wadreamer
+     * @date: 2026/10/18 12:07
+     * @description: TODO 依次等待已发出的原生异步命令（同一连接上即为流水线）并按顺序返回结果
+     */
+    public <T> List<T> awaitAll(List<RedisFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        for (RedisFuture<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * @param items
+     * @param size
+     * @return {{@link List< List< T>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 12:08
+     * @description: TODO 将列表切分为不超过 size 的批次
+     */
+    public static <T> List<List<T>> partition(List<T> items, int size) {
+        return Lists.partition(items, size);
+    }
+
+    /**
+     * ClassName: NodeGroup
+     * Description: TODO 同一主节点上的 key 分组，slots 中每个 slot 对应该 slot 下的元素
+     */
+    public static class NodeGroup<T> {
+
+        private final RedisClusterNode node;
+
+        private final Map<Integer, List<T>> slots = new LinkedHashMap<>();
+
+        NodeGroup(RedisClusterNode node) {
+            this.node = node;
+        }
+
+        public RedisClusterNode getNode() {
+            return node;
+        }
+
+        public Map<Integer, List<T>> getSlots() {
+            return slots;
+        }
+
+        public int size() {
+            int size = 0;
+            for (List<T> items : slots.values()) {
+                size += items.size();
+            }
+            return size;
+        }
+    }
+
+}
@@ -0,0 +1,410 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * ClassName: RedisCounterAggregator
+ * Description: TODO 计数器写后合并：hash field 与 zSet 成员的增量先在本地以 DoubleAdder 分段累加，
+ * 按时间间隔（最大滞后时间）或待刷新计数器数量阈值批量刷新为 HINCRBYFLOAT / ZINCRBY，关闭时保证刷新
+ * date: 2026/10/18 16:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisCounterAggregator implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisCounterAggregator.class);
+
+    // 关闭时最后一次刷新的尝试次数，失败后按次数线性退避
+    private static final int SHUTDOWN_FLUSH_ATTEMPTS = 3;
+
+    private static final long SHUTDOWN_RETRY_BACKOFF_MILLIS = 200L;
+
+    private final RedisClusterSupport support;
+
+    private final long maxStalenessMillis;
+
+    private final int maxPendingCounters;
+
+    private final ScheduledExecutorService scheduler;
+
+    // 当前累加的一代计数器，刷新时整体替换为新的一代
+    private final AtomicReference<Generation> current = new AtomicReference<>(new Generation());
+
+    private final LongAdder flushes = new LongAdder();
+
+    private final LongAdder flushedCounters = new LongAdder();
+
+    private final LongAdder failedFlushes = new LongAdder();
+
+    // 关闭时重试用尽仍未写入的计数器数量
+    private final LongAdder lostCounters = new LongAdder();
+
+    private volatile boolean closed;
+
+    // 每次刷新后接收本次写入过的 key，用于失效一级缓存等依赖计数器值的副本
+    private volatile Consumer<Set<String>> flushListener;
+
+    public RedisCounterAggregator(RedisTemplate<Object, Object> redisTemplate, long maxStalenessMillis, int maxPendingCounters) {
+        this(new RedisClusterSupport(redisTemplate), maxStalenessMillis, maxPendingCounters);
+    }
+
+    public RedisCounterAggregator(RedisClusterSupport support, long maxStalenessMillis, int maxPendingCounters) {
+        if (maxStalenessMillis <= 0 || maxPendingCounters <= 0) {
+            throw new IllegalArgumentException("maxStalenessMillis 与 maxPendingCounters 必须大于 0");
+        }
+        this.support = Objects.requireNonNull(support);
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.maxPendingCounters = maxPendingCounters;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-counter-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, maxStalenessMillis, maxStalenessMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @param delta
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 16:02
+     * @description: TODO 累加 hash field 的增量，最迟在 maxStalenessMillis 毫秒后写入 Redis
+     */
+    public void hIncr(String key, Object item, double delta) {
+        add(new CounterKey(true, key, item), delta);
+    }
+
+    /**
+     * @param key
+     * @param member
+     * @param delta
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 16:03
+     * @description: TODO 累加 zSet 成员 score 的增量，最迟在 maxStalenessMillis 毫秒后写入 Redis
+     */
+    public void zIncrementScore(String key, Object member, double delta) {
+        add(new CounterKey(false, key, member), delta);
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @return {{@link double}}
+     * @author wadreamer
+     * @date: 2026/10/18 16:04
+     * @description: TODO 本地尚未刷新的 hash field 增量，可与 Redis 中的值相加得到最新值
+     */
+    public double pendingHashDelta(String key, Object item) {
+        DoubleAdder adder = current.get().counters.get(new CounterKey(true, key, item));
+        return Objects.isNull(adder) ? 0D : adder.sum();
+    }
+
+    private void add(CounterKey counterKey, double delta) {
+        accumulate(counterKey, delta);
+        if (closed) {
+            flushQuietly();
+        }
+    }
+
+    private void accumulate(CounterKey counterKey, double delta) {
+        for (; ; ) {
+            Generation generation = current.get();
+            generation.writers.increment();
+            try {
+                if (generation != current.get()) {
+                    // 读取后恰好发生了刷新，写入新的一代
+                    continue;
+                }
+                DoubleAdder adder = generation.counters.get(counterKey);
+                if (Objects.isNull(adder)) {
+                    adder = generation.counters.computeIfAbsent(counterKey, k -> new DoubleAdder());
+                }
+                adder.add(delta);
+                if (!closed && generation.counters.size() >= maxPendingCounters
+                        && generation.flushRequested.compareAndSet(false, true)) {
+                    scheduler.execute(this::flushQuietly);
+                }
+                return;
+            } finally {
+                generation.writers.decrement();
+            }
+        }
+    }
+
+    /**
+     * @return {{@link int}}
+     * @author wadreamer
+     * @date: 2026/10/18 16:05
+     * @description: TODO 立即将本地累加的增量以流水线批量写入 Redis，返回写入的计数器数量；
+     * 只有写入失败的增量回填到下一代，已成功的不会重复累加。超时的命令无法确定是否已执行，按失败处理
+     */
+    public synchronized int flush() {
+        Generation old = current.getAndSet(new Generation());
+        // 等待替换前已进入的写线程完成累加
+        while (old.writers.sum() != 0) {
+            Thread.yield();
+        }
+        if (old.counters.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<CounterKey, Double>> deltas = new ArrayList<>(old.counters.size());
+        for (Map.Entry<CounterKey, DoubleAdder> entry : old.counters.entrySet()) {
+            double delta = entry.getValue().sum();
+            if (delta != 0D) {
+                deltas.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), delta));
+            }
+        }
+
+        FailedDeltas failed = write(deltas);
+        notifyFlushed(deltas);
+        flushedCounters.add(deltas.size() - failed.deltas.size());
+        if (failed.deltas.isEmpty()) {
+            flushes.increment();
+            return deltas.size();
+        }
+        failedFlushes.increment();
+        for (Map.Entry<CounterKey, Double> delta : failed.deltas) {
+            accumulate(delta.getKey(), delta.getValue());
+        }
+        throw new RedisSystemException(failed.deltas.size() + " 个计数器写入失败，已回填到下一次刷新: "
+                + failed.cause.getMessage(), failed.cause);
+    }
+
+    private FailedDeltas write(List<Map.Entry<CounterKey, Double>> deltas) {
+        RedisSerializer<Object> hashKeySerializer = (RedisSerializer<Object>) support.template().getHashKeySerializer();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) support.template().getValueSerializer();
+        FailedDeltas failed = new FailedDeltas();
+        // 已发出命令的增量与对应的结果，顺序一致
+        List<Map.Entry<CounterKey, Double>> sent = new ArrayList<>(deltas.size());
+        List<RedisFuture<Double>> futures = new ArrayList<>(deltas.size());
+        RedisClusterConnection rc = null;
+        try {
+            Collection<RedisClusterSupport.NodeGroup<Map.Entry<CounterKey, Double>>> groups =
+                    support.groupByNode(deltas, entry -> support.rawKey(entry.getKey().key));
+            rc = support.openClusterConnection();
+            // 所有节点的命令先全部发出，再统一等待结果，每个节点连接上即为一次流水线
+            for (RedisClusterSupport.NodeGroup<Map.Entry<CounterKey, Double>> group : groups) {
+                RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, group.getNode());
+                for (List<Map.Entry<CounterKey, Double>> slotEntries : group.getSlots().values()) {
+                    for (Map.Entry<CounterKey, Double> entry : slotEntries) {
+                        CounterKey counterKey = entry.getKey();
+                        byte[] rawKey = support.rawKey(counterKey.key);
+                        if (counterKey.hash) {
+                            futures.add(commands.hincrbyfloat(rawKey, raw(hashKeySerializer, counterKey.member), entry.getValue()));
+                        } else {
+                            futures.add(commands.zincrby(rawKey, entry.getValue(), raw(valueSerializer, counterKey.member)));
+                        }
+                        sent.add(entry);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // 发出命令前后的异常：尚未发出的增量全部视为失败
+            Set<Map.Entry<CounterKey, Double>> sentSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            sentSet.addAll(sent);
+            for (Map.Entry<CounterKey, Double> entry : deltas) {
+                if (!sentSet.contains(entry)) {
+                    failed.add(entry, e);
+                }
+            }
+        }
+        try {
+            // 逐条检查结果，只有失败的命令对应的增量需要回填
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    support.await(futures.get(i));
+                } catch (RuntimeException e) {
+                    failed.add(sent.get(i), e);
+                }
+            }
+            return failed;
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private void notifyFlushed(List<Map.Entry<CounterKey, Double>> deltas) {
+        Consumer<Set<String>> listener = flushListener;
+        if (Objects.isNull(listener) || deltas.isEmpty()) {
+            return;
+        }
+        // 失败或超时的命令也可能已在服务端执行，按全部已刷新的 key 通知
+        Set<String> keys = new LinkedHashSet<>();
+        for (Map.Entry<CounterKey, Double> delta : deltas) {
+            keys.add(delta.getKey().key);
+        }
+        try {
+            listener.accept(keys);
+        } catch (RuntimeException e) {
+            LOGGER.warn("计数器刷新通知失败", e);
+        }
+    }
+
+    private byte[] raw(RedisSerializer<Object> serializer, Object value) {
+        if (Objects.isNull(serializer)) {
+            return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        }
+        return serializer.serialize(value);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            LOGGER.warn("计数器定时刷新失败，增量将在下一次刷新时重试", e);
+        }
+    }
+
+    /**
+     * @return {{@link int}}
+     * @author wadreamer
+     * @date: 2026/10/18 16:08
+     * @description: TODO 当前等待刷新的计数器数量
+     */
+    public int pendingCounters() {
+        return current.get().counters.size();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    public long getFlushedCounters() {
+        return flushedCounters.sum();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    public long getLostCounters() {
+        return lostCounters.sum();
+    }
+
+    public long getMaxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+
+    public void setFlushListener(Consumer<Set<String>> flushListener) {
+        this.flushListener = Objects.requireNonNull(flushListener);
+    }
+
+    /**
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 16:09
+     * @description: TODO 停止定时刷新并做最后一次刷新，之后的累加会立即写入；最后一次刷新失败时重试，
+     * 重试用尽仍未写入的计数器计入 lostCounters 并抛出异常，不会静默丢失
+     */
+    @Override
+    public void destroy() {
+        closed = true;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(maxStalenessMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        RuntimeException last = null;
+        for (int attempt = 0; attempt < SHUTDOWN_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                flush();
+                return;
+            } catch (RuntimeException e) {
+                last = e;
+                try {
+                    Thread.sleep(SHUTDOWN_RETRY_BACKOFF_MILLIS * (attempt + 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        int lost = pendingCounters();
+        lostCounters.add(lost);
+        throw new IllegalStateException("关闭时 " + lost + " 个计数器的增量未能写入 Redis", last);
+    }
+
+    // 写入失败的增量及第一个失败原因
+    private static class FailedDeltas {
+
+        private final List<Map.Entry<CounterKey, Double>> deltas = new ArrayList<>();
+
+        private RuntimeException cause;
+
+        void add(Map.Entry<CounterKey, Double> delta, RuntimeException e) {
+            deltas.add(delta);
+            if (Objects.isNull(cause)) {
+                cause = e;
+            }
+        }
+    }
+
+    private static class Generation {
+
+        private final ConcurrentHashMap<CounterKey, DoubleAdder> counters = new ConcurrentHashMap<>();
+
+        // 正在向这一代写入的线程数
+        private final LongAdder writers = new LongAdder();
+
+        private final AtomicBoolean flushRequested = new AtomicBoolean();
+    }
+
+    private static class CounterKey {
+
+        private final boolean hash;
+
+        private final String key;
+
+        private final Object member;
+
+        CounterKey(boolean hash, String key, Object member) {
+            this.hash = hash;
+            this.key = Objects.requireNonNull(key);
+            this.member = Objects.requireNonNull(member);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CounterKey)) {
+                return false;
+            }
+            CounterKey other = (CounterKey) o;
+            return hash == other.hash && key.equals(other.key) && member.equals(other.member);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * key.hashCode() + member.hashCode()) * 2 + (hash ? 1 : 0);
+        }
+    }
+
+}
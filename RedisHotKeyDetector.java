@@ -0,0 +1,374 @@
+package club.wadreamer.utils;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Longs;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * ClassName: RedisHotKeyDetector
+ * Description: TODO 热点 key 探测：按采样率把访问的 key 计入 Count-Min Sketch，估算值较大的 key 进入候选集（heavy hitters），
+ * 每个时间窗口结束时输出 Top-K 报告，可通过 API、Micrometer 获取，并可将热点 key 提升到进程内一级缓存
+ * date: 2026/10/18 18:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisHotKeyDetector implements MeterBinder, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisHotKeyDetector.class);
+
+    private static final int DEPTH = 4;
+
+    // 各行下标由同一个 128 位哈希的两半组合得到（h1 + row * h2），各行下标近似独立，hashCode 相同的 key 不会在所有行上同时冲突
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final int topK;
+
+    private final int width;
+
+    private final double sampleRate;
+
+    // 候选集容量，超出时裁剪到 topK * 2
+    private final int candidateCapacity;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final List<Consumer<HotKeyReport>> listeners = new CopyOnWriteArrayList<>();
+
+    private final List<MultiGauge> gauges = new CopyOnWriteArrayList<>();
+
+    private volatile Window window;
+
+    private volatile HotKeyReport lastReport;
+
+    // 最近一个窗口的热点 key，供一级缓存准入判断
+    private volatile Set<String> hotKeys = Collections.emptySet();
+
+    private volatile long minHotCount = 1;
+
+    public RedisHotKeyDetector(int topK, long windowMillis) {
+        this(topK, windowMillis, 0.1D, 4096);
+    }
+
+    public RedisHotKeyDetector(int topK, long windowMillis, double sampleRate, int sketchWidth) {
+        if (topK <= 0 || windowMillis <= 0 || sketchWidth <= 0 || sampleRate <= 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("topK、windowMillis、sketchWidth 必须大于 0，sampleRate 必须在 (0, 1] 之间");
+        }
+        this.topK = topK;
+        // 宽度取 2 的幂，便于用位运算取模
+        this.width = Integer.highestOneBit(Math.max(64, sketchWidth - 1) << 1);
+        this.sampleRate = sampleRate;
+        this.candidateCapacity = topK * 8;
+        this.window = new Window(System.currentTimeMillis());
+        this.lastReport = new HotKeyReport(window.startMillis, window.startMillis, 0, Collections.emptyList());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-hot-key-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::rotateQuietly, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param minHotCount
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 18:02
+     * @description: TODO 窗口内估算访问次数不低于该值的 key 才视为热点，避免低流量时把普通 key 也当作热点
+     */
+    public void setMinHotCount(long minHotCount) {
+        this.minHotCount = Math.max(1, minHotCount);
+    }
+
+    /**
+     * @param listener
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 18:03
+     * @description: TODO 注册窗口报告的监听器，在窗口线程中回调
+     */
+    public void addListener(Consumer<HotKeyReport> listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * @param nearCache
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 18:04
+     * @description: TODO 一级缓存只接纳热点 key，非热点 key 直接读取 Redis，热点随窗口报告自动更新
+     */
+    public void promoteInto(RedisNearCache nearCache) {
+        nearCache.setAdmissionFilter(this::isHot);
+    }
+
+    /**
+     * @param key
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 18:05
+     * @description: TODO 记录一次 key 访问，按采样率决定是否计数
+     */
+    public void record(String key) {
+        if (Objects.isNull(key) || (sampleRate < 1D && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        Window current = window;
+        long estimate = current.add(key);
+        if (estimate >= current.admitThreshold) {
+            current.candidates.merge(key, estimate, Math::max);
+            if (current.candidates.size() > candidateCapacity) {
+                current.prune();
+            }
+        }
+    }
+
+    public boolean isHot(String key) {
+        return hotKeys.contains(key);
+    }
+
+    /**
+     * @return {{@link HotKeyReport}}
+     * @author wadreamer
+     * @date: 2026/10/18 18:06
+     * @description: TODO 最近一个完整窗口的 Top-K 报告
+     */
+    public HotKeyReport lastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @return {{@link HotKeyReport}}
+     * @author wadreamer
+     * @date: 2026/10/18 18:07
+     * @description: TODO 当前窗口截至目前的 Top-K 估算
+     */
+    public HotKeyReport currentTopK() {
+        return window.report(System.currentTimeMillis());
+    }
+
+    /**
+     * @return {{@link HotKeyReport}}
+     * @author wadreamer
+     * @date: 2026/10/18 18:08
+     * @description: TODO 结束当前窗口并开始新窗口，输出报告、更新热点集合与指标
+     */
+    public synchronized HotKeyReport rotate() {
+        long now = System.currentTimeMillis();
+        Window finished = window;
+        window = new Window(now);
+        HotKeyReport report = finished.report(now);
+        lastReport = report;
+
+        Set<String> hot = new HashSet<>(report.getHotKeys().size() * 4 / 3 + 1);
+        for (HotKey hotKey : report.getHotKeys()) {
+            if (hotKey.getCount() >= minHotCount) {
+                hot.add(hotKey.getKey());
+            }
+        }
+        hotKeys = Collections.unmodifiableSet(hot);
+
+        List<MultiGauge.Row<?>> rows = report.getHotKeys().stream()
+                .map(hotKey -> MultiGauge.Row.of(Tags.of("key", hotKey.getKey()), hotKey.getCount()))
+                .collect(Collectors.toList());
+        for (MultiGauge gauge : gauges) {
+            gauge.register(rows, true);
+        }
+        for (Consumer<HotKeyReport> listener : listeners) {
+            try {
+                listener.accept(report);
+            } catch (Exception e) {
+                LOGGER.warn("热点 key 报告监听器执行失败", e);
+            }
+        }
+        return report;
+    }
+
+    private void rotateQuietly() {
+        try {
+            rotate();
+        } catch (Exception e) {
+            LOGGER.warn("热点 key 统计窗口轮换失败", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauges.add(MultiGauge.builder("redis.hotkey.count")
+                .description("上一个窗口中 Top-K 热点 key 的估算访问次数")
+                .register(registry));
+        Gauge.builder("redis.hotkey.window.total", this, d -> d.lastReport.getTotal())
+                .description("上一个窗口的估算访问总次数")
+                .register(registry);
+        Gauge.builder("redis.hotkey.top.share", this, d -> d.lastReport.topShare())
+                .description("上一个窗口中访问最多的 key 占总访问量的比例")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private class Window {
+
+        private final long startMillis;
+
+        // DEPTH 行计数器连续存放
+        private final AtomicLongArray counters = new AtomicLongArray(DEPTH * width);
+
+        private final LongAdder total = new LongAdder();
+
+        private final ConcurrentHashMap<String, Long> candidates = new ConcurrentHashMap<>();
+
+        private final ReentrantLock pruneLock = new ReentrantLock();
+
+        // 估算值低于该阈值的 key 不再进入候选集
+        private volatile long admitThreshold = 1;
+
+        Window(long startMillis) {
+            this.startMillis = startMillis;
+        }
+
+        long add(String key) {
+            total.increment();
+            byte[] bytes = HASH.hashString(key, StandardCharsets.UTF_8).asBytes();
+            long hash1 = Longs.fromBytes(bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
+            long hash2 = Longs.fromBytes(bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = row * width + (int) ((hash1 + row * hash2) & (width - 1));
+                estimate = Math.min(estimate, counters.incrementAndGet(index));
+            }
+            return estimate;
+        }
+
+        void prune() {
+            // 裁剪由一个线程完成，其他线程继续计数
+            if (!pruneLock.tryLock()) {
+                return;
+            }
+            try {
+                List<Map.Entry<String, Long>> sorted = new ArrayList<>(candidates.entrySet());
+                if (sorted.size() <= candidateCapacity) {
+                    return;
+                }
+                sorted.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+                int keep = topK * 2;
+                for (int i = keep; i < sorted.size(); i++) {
+                    candidates.remove(sorted.get(i).getKey(), sorted.get(i).getValue());
+                }
+                admitThreshold = Math.max(admitThreshold, sorted.get(keep - 1).getValue());
+            } finally {
+                pruneLock.unlock();
+            }
+        }
+
+        HotKeyReport report(long endMillis) {
+            long sampled = total.sum();
+            List<Map.Entry<String, Long>> sorted = new ArrayList<>(candidates.entrySet());
+            sorted.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+            List<HotKey> top = new ArrayList<>(Math.min(topK, sorted.size()));
+            for (int i = 0; i < sorted.size() && i < topK; i++) {
+                long count = sorted.get(i).getValue();
+                top.add(new HotKey(sorted.get(i).getKey(), Math.round(count / sampleRate),
+                        sampled == 0 ? 0D : (double) count / sampled));
+            }
+            return new HotKeyReport(startMillis, endMillis, Math.round(sampled / sampleRate), top);
+        }
+    }
+
+    public static class HotKey {
+
+        private final String key;
+
+        // 按采样率还原后的估算访问次数，Count-Min Sketch 只会高估
+        private final long count;
+
+        private final double share;
+
+        public HotKey(String key, long count, double share) {
+            this.key = key;
+            this.count = count;
+            this.share = share;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getShare() {
+            return share;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + count;
+        }
+    }
+
+    public static class HotKeyReport {
+
+        private final long startMillis;
+
+        private final long endMillis;
+
+        private final long total;
+
+        private final List<HotKey> hotKeys;
+
+        public HotKeyReport(long startMillis, long endMillis, long total, List<HotKey> hotKeys) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.total = total;
+            this.hotKeys = Collections.unmodifiableList(hotKeys);
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<HotKey> getHotKeys() {
+            return hotKeys;
+        }
+
+        double topShare() {
+            return hotKeys.isEmpty() ? 0D : hotKeys.get(0).getShare();
+        }
+
+        @Override
+        public String toString() {
+            return "HotKeyReport{total=" + total + ", hotKeys=" + hotKeys + "}";
+        }
+    }
+
+}
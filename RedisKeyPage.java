@@ -0,0 +1,38 @@
+package club.wadreamer.utils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ClassName: RedisKeyPage
+ * Description: TODO key 分页结果，nextToken 为空表示已经没有下一页
+ * date: 2026/10/18 11:10
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisKeyPage {
+
+    private final List<String> keys;
+
+    private final String nextToken;
+
+    public RedisKeyPage(List<String> keys, String nextToken) {
+        this.keys = Collections.unmodifiableList(keys);
+        this.nextToken = nextToken;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasNext() {
+        return Objects.nonNull(nextToken);
+    }
+
+}
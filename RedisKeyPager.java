@@ -0,0 +1,362 @@
+package club.wadreamer.utils;
+
+import com.google.common.hash.Hashing;
+import io.lettuce.core.KeyScanArgs;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.data.redis.connection.DefaultTuple;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * ClassName: RedisKeyPager
+ * Description: TODO 基于续传令牌的 key 分页：令牌记录各节点的 SCAN 游标位置，以及最后一批结果中超出本页、尚未返回的 key，
+ * 下一页先返回这些 key 再从游标继续扫描，不依赖同一游标重复扫描得到相同的结果，令牌长度随 COUNT 提示增大；每页只做一页的工作量；
+ * 可选在服务端生成短期快照（zSet），保证跨页顺序稳定
+ * date: 2026/10/18 11:15
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisKeyPager {
+
+    private static final String CURSOR_TOKEN = "c";
+
+    private static final String SNAPSHOT_TOKEN = "s";
+
+    private static final String FINISHED = "-";
+
+    private static final String SNAPSHOT_PREFIX = "keypage:snapshot:";
+
+    private static final int SNAPSHOT_BATCH = 1000;
+
+    private final RedisClusterSupport support;
+
+    private final RedisKeyScanner scanner;
+
+    public RedisKeyPager(RedisClusterSupport support, RedisKeyScanner scanner) {
+        this.support = Objects.requireNonNull(support);
+        this.scanner = Objects.requireNonNull(scanner);
+    }
+
+    /**
+     * @param options
+     * @param size
+     * @param token
+     * @return {{@link RedisKeyPage}}
+     * @author wadreamer
+     * @date: 2026/10/18 11:16
+     * @description: TODO 游标分页，token 为空时从头开始；按节点 id 顺序依次续扫，不保证跨页期间新写入 key 的可见性
+     */
+    public RedisKeyPage page(RedisScanOptions options, int size, String token) {
+        checkSize(size);
+        String fingerprint = fingerprint(options);
+        List<RedisClusterNode> nodes = support.masters();
+        LinkedHashMap<String, NodePosition> positions = initialPositions(nodes);
+        ArrayDeque<byte[]> pending = new ArrayDeque<>();
+        if (Objects.nonNull(token)) {
+            decodeCursorToken(token, fingerprint, positions, pending);
+        }
+
+        List<String> keys = new ArrayList<>(size);
+        // 先返回上一页剩余的 key
+        while (keys.size() < size && !pending.isEmpty()) {
+            keys.add(support.key(pending.poll()));
+        }
+        if (keys.size() == size) {
+            return new RedisKeyPage(keys, hasMore(positions) || !pending.isEmpty()
+                    ? encodeCursorToken(fingerprint, positions, pending) : null);
+        }
+
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            KeyScanArgs args = scanArgs(options);
+            for (RedisClusterNode node : nodes) {
+                NodePosition position = positions.get(node.getId());
+                if (position.finished) {
+                    continue;
+                }
+                RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, node);
+                while (true) {
+                    KeyScanCursor<byte[]> reply = support.await(commands.scan(ScanCursor.of(position.cursor), args));
+                    List<byte[]> batch = reply.getKeys();
+                    if (reply.isFinished()) {
+                        position.finished = true;
+                    } else {
+                        position.cursor = reply.getCursor();
+                    }
+                    int need = size - keys.size();
+                    if (batch.size() > need) {
+                        // 本批次只消费一部分，剩余的 key 放入令牌，游标已前进到下一批
+                        addKeys(keys, batch, 0, need);
+                        pending.addAll(batch.subList(need, batch.size()));
+                        return new RedisKeyPage(keys, encodeCursorToken(fingerprint, positions, pending));
+                    }
+                    addKeys(keys, batch, 0, batch.size());
+                    if (keys.size() == size) {
+                        return new RedisKeyPage(keys, hasMore(positions) ? encodeCursorToken(fingerprint, positions, pending) : null);
+                    }
+                    if (position.finished) {
+                        break;
+                    }
+                }
+            }
+            return new RedisKeyPage(keys, null);
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    /**
+     * @param options
+     * @param offset
+     * @param size
+     * @return {{@link List< String>}}
+     * @author wadreamer
+     * @date: 2026/10/19 09:10
+     * @description: TODO 偏移量分页：按节点 id 顺序依次扫描，跳过前 offset 个 key 后返回至多 size 个；
+     * 顺序与游标分页一致，集群无写入时同一页多次查询结果相同，但每页都要从头扫描 offset 个 key
+     */
+    public List<String> offsetPage(RedisScanOptions options, long offset, int size) {
+        checkSize(size);
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset 不能小于 0");
+        }
+        List<String> keys = new ArrayList<>(size);
+        long skip = offset;
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            KeyScanArgs args = scanArgs(options);
+            for (RedisClusterNode node : support.masters()) {
+                RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, node);
+                ScanCursor cursor = ScanCursor.INITIAL;
+                do {
+                    KeyScanCursor<byte[]> reply = support.await(commands.scan(cursor, args));
+                    List<byte[]> batch = reply.getKeys();
+                    int from = (int) Math.min(skip, batch.size());
+                    skip -= from;
+                    int to = Math.min(batch.size(), from + size - keys.size());
+                    addKeys(keys, batch, from, to);
+                    if (keys.size() == size) {
+                        return keys;
+                    }
+                    cursor = reply;
+                } while (!cursor.isFinished());
+            }
+            return keys;
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    /**
+     * @param options
+     * @param size
+     * @param token
+     * @param snapshotSeconds
+     * @return {{@link RedisKeyPage}}
+     * @author wadreamer
+     * @date: 2026/10/18 11:18
+     * @description: TODO 快照分页：首页将匹配的 key 写入服务端短期 zSet 快照（按字典序），后续页按下标读取，顺序稳定
+     */
+    public RedisKeyPage snapshotPage(RedisScanOptions options, int size, String token, long snapshotSeconds) {
+        checkSize(size);
+        String fingerprint = fingerprint(options);
+        String snapshotId;
+        long offset;
+        if (Objects.isNull(token)) {
+            snapshotId = createSnapshot(options, snapshotSeconds);
+            offset = 0;
+        } else {
+            String[] parts = decode(token).split(";");
+            if (parts.length != 4 || !SNAPSHOT_TOKEN.equals(parts[0]) || !fingerprint.equals(parts[1])) {
+                throw new IllegalArgumentException("分页令牌与查询条件不匹配");
+            }
+            snapshotId = parts[2];
+            offset = Long.parseLong(parts[3]);
+        }
+
+        byte[] snapshotKey = support.rawKey(SNAPSHOT_PREFIX + snapshotId);
+        RedisTemplate<Object, Object> template = support.template();
+        Set<byte[]> members = template.execute((RedisCallback<Set<byte[]>>) connection -> {
+            if (offset > 0 && !Boolean.TRUE.equals(connection.exists(snapshotKey))) {
+                throw new IllegalArgumentException("分页快照已过期，请从第一页重新查询");
+            }
+            return connection.zRange(snapshotKey, offset, offset + size);
+        });
+
+        List<String> keys = new ArrayList<>(size);
+        Iterator<byte[]> iterator = Objects.isNull(members) ? Collections.emptyIterator() : members.iterator();
+        while (iterator.hasNext() && keys.size() < size) {
+            keys.add(new String(iterator.next(), StandardCharsets.UTF_8));
+        }
+        // 多取一个元素用于判断是否还有下一页
+        boolean more = iterator.hasNext();
+        String next = more ? encode(SNAPSHOT_TOKEN + ";" + fingerprint + ";" + snapshotId + ";" + (offset + size)) : null;
+        return new RedisKeyPage(keys, next);
+    }
+
+    private String createSnapshot(RedisScanOptions options, long snapshotSeconds) {
+        if (snapshotSeconds <= 0) {
+            throw new IllegalArgumentException("快照有效期必须大于 0");
+        }
+        String snapshotId = UUID.randomUUID().toString().replace("-", "");
+        byte[] snapshotKey = support.rawKey(SNAPSHOT_PREFIX + snapshotId);
+        RedisTemplate<Object, Object> template = support.template();
+
+        Set<RedisZSetCommands.Tuple> batch = new HashSet<>();
+        scanner.scan(options, key -> {
+            // score 均为 0，zSet 按成员字典序排序
+            batch.add(new DefaultTuple(key.getBytes(StandardCharsets.UTF_8), 0D));
+            if (batch.size() >= SNAPSHOT_BATCH) {
+                writeSnapshotBatch(template, snapshotKey, batch, snapshotSeconds);
+                batch.clear();
+            }
+        });
+        writeSnapshotBatch(template, snapshotKey, batch, snapshotSeconds);
+        return snapshotId;
+    }
+
+    private void writeSnapshotBatch(RedisTemplate<Object, Object> template, byte[] snapshotKey,
+                                    Set<RedisZSetCommands.Tuple> batch, long snapshotSeconds) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        template.execute((RedisCallback<Object>) connection -> {
+            connection.openPipeline();
+            connection.zAdd(snapshotKey, batch);
+            connection.expire(snapshotKey, snapshotSeconds);
+            return connection.closePipeline();
+        });
+    }
+
+    private KeyScanArgs scanArgs(RedisScanOptions options) {
+        KeyScanArgs args = new KeyScanArgs();
+        args.match(options.getPattern());
+        args.limit(options.getCount());
+        if (Objects.nonNull(options.getType())) {
+            args.type(options.getType().code());
+        }
+        return args;
+    }
+
+    private void addKeys(List<String> keys, List<byte[]> batch, int from, int to) {
+        for (int i = from; i < to; i++) {
+            keys.add(support.key(batch.get(i)));
+        }
+    }
+
+    private boolean hasMore(Map<String, NodePosition> positions) {
+        for (NodePosition position : positions.values()) {
+            if (!position.finished) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private LinkedHashMap<String, NodePosition> initialPositions(List<RedisClusterNode> nodes) {
+        LinkedHashMap<String, NodePosition> positions = new LinkedHashMap<>();
+        for (RedisClusterNode node : nodes) {
+            positions.put(node.getId(), new NodePosition(ScanCursor.INITIAL.getCursor(), false));
+        }
+        return positions;
+    }
+
+    private String encodeCursorToken(String fingerprint, Map<String, NodePosition> positions, Collection<byte[]> pending) {
+        StringBuilder builder = new StringBuilder(CURSOR_TOKEN).append(';').append(fingerprint).append(';');
+        boolean first = true;
+        for (Map.Entry<String, NodePosition> entry : positions.entrySet()) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            NodePosition position = entry.getValue();
+            builder.append(entry.getKey()).append('=').append(position.finished ? FINISHED : position.cursor);
+        }
+        builder.append(';');
+        first = true;
+        for (byte[] key : pending) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            // key 可能包含分隔符，单独编码
+            builder.append(Base64.getUrlEncoder().withoutPadding().encodeToString(key));
+        }
+        return encode(builder.toString());
+    }
+
+    private void decodeCursorToken(String token, String fingerprint, LinkedHashMap<String, NodePosition> positions,
+                                   Collection<byte[]> pending) {
+        String[] parts = decode(token).split(";", -1);
+        if (parts.length != 4 || !CURSOR_TOKEN.equals(parts[0]) || !fingerprint.equals(parts[1])) {
+            throw new IllegalArgumentException("分页令牌与查询条件不匹配");
+        }
+        Map<String, NodePosition> decoded = new HashMap<>();
+        for (String item : parts[2].split(",")) {
+            int eq = item.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("分页令牌格式错误");
+            }
+            String cursor = item.substring(eq + 1);
+            decoded.put(item.substring(0, eq), new NodePosition(cursor, FINISHED.equals(cursor)));
+        }
+        if (!decoded.keySet().equals(positions.keySet())) {
+            throw new IllegalStateException("集群拓扑已变化，分页令牌已失效，请从第一页重新查询");
+        }
+        positions.putAll(decoded);
+        if (!parts[3].isEmpty()) {
+            for (String key : parts[3].split(",")) {
+                pending.add(decode64(key));
+            }
+        }
+    }
+
+    private String fingerprint(RedisScanOptions options) {
+        String type = Objects.isNull(options.getType()) ? "" : options.getType().code();
+        return Hashing.murmur3_128().hashString(options.getPattern() + "|" + type, StandardCharsets.UTF_8).toString();
+    }
+
+    private void checkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size 必须大于 0");
+        }
+    }
+
+    private static String encode(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String token) {
+        return new String(decode64(token), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] decode64(String value) {
+        try {
+            return Base64.getUrlDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("分页令牌格式错误", e);
+        }
+    }
+
+    private static class NodePosition {
+
+        private String cursor;
+
+        private boolean finished;
+
+        NodePosition(String cursor, boolean finished) {
+            this.cursor = cursor;
+            this.finished = finished;
+        }
+    }
+
+}
@@ -0,0 +1,366 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.KeyScanArgs;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ClassName: RedisKeyScanner
+ * Description: TODO 集群 key 扫描引擎，每个主节点一个 SCAN 游标并发扫描，结果经有界队列流式返回
+ * date: 2026/10/18 10:30
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisKeyScanner {
+
+    private final RedisClusterSupport support;
+
+    public RedisKeyScanner(RedisClusterSupport support) {
+        this.support = Objects.requireNonNull(support);
+    }
+
+    /**
+     * @param options
+     * @return {{@link ScanSession}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:31
+     * @description: TODO 开启一次扫描，调用方需在使用完毕后关闭（支持 try-with-resources）
+     */
+    public ScanSession open(RedisScanOptions options) {
+        ScanSession session = new ScanSession(options, support.masters());
+        session.start();
+        return session;
+    }
+
+    /**
+     * @param options
+     * @param consumer
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:32
+     * @description: TODO 扫描匹配的 key 并逐个回调，回调在调用方线程中执行，返回回调的 key 数量
+     */
+    public long scan(RedisScanOptions options, Consumer<String> consumer) {
+        try (ScanSession session = open(options)) {
+            while (session.hasNext()) {
+                consumer.accept(session.next());
+            }
+            return session.emitted();
+        }
+    }
+
+    /**
+     * @param options
+     * @return {{@link Stream< String>}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:33
+     * @description: TODO 以 Stream 形式返回匹配的 key，Stream 关闭时停止所有节点的扫描
+     */
+    public Stream<String> stream(RedisScanOptions options) {
+        ScanSession session = open(options);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(session, Spliterator.NONNULL), false)
+                .onClose(session::close);
+    }
+
+    /**
+     * @param options
+     * @return {{@link List< String>}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:34
+     * @description: TODO 将匹配的 key 收集为列表，仅适用于结果集较小或设置了 limit 的场景
+     */
+    public List<String> list(RedisScanOptions options) {
+        List<String> result = new ArrayList<>();
+        scan(options, result::add);
+        return result;
+    }
+
+    /**
+     * ClassName: ScanSession
+     * Description: TODO 一次并发扫描会话，各节点扫描线程为生产者，调用方线程通过迭代器消费
+     */
+    public class ScanSession implements Iterator<String>, AutoCloseable {
+
+        private final RedisScanOptions options;
+
+        private final List<RedisClusterNode> nodes;
+
+        // 按 SCAN 批次缓冲，队列满时节点扫描线程阻塞，形成背压
+        private final BlockingQueue<List<String>> queue;
+
+        private final AtomicLong remaining;
+
+        private final AtomicInteger activeNodes;
+
+        private final Map<String, NodeProgress> progress = new LinkedHashMap<>();
+
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        // 仅由消费方 close() 或扫描失败置位，置位后生产者丢弃未入队的批次
+        private volatile boolean closed;
+
+        // 已达到 key 总数上限，各节点停止发起新的 SCAN，但已预留名额的批次仍会入队
+        private volatile boolean limitReached;
+
+        private volatile Throwable failure;
+
+        private List<String> current = Collections.emptyList();
+
+        private int position;
+
+        private long emitted;
+
+        private boolean finished;
+
+        private ScanSession(RedisScanOptions options, List<RedisClusterNode> nodes) {
+            this.options = options;
+            this.nodes = nodes;
+            this.queue = new ArrayBlockingQueue<>(options.getBufferBatches());
+            this.remaining = new AtomicLong(options.getLimit());
+            this.activeNodes = new AtomicInteger(nodes.size());
+            for (RedisClusterNode node : nodes) {
+                progress.put(node.getId(), new NodeProgress(node));
+            }
+        }
+
+        private void start() {
+            for (RedisClusterNode node : nodes) {
+                NodeProgress nodeProgress = progress.get(node.getId());
+                futures.add(support.executor().submit(() -> scanNode(node, nodeProgress)));
+            }
+        }
+
+        private void scanNode(RedisClusterNode node, NodeProgress nodeProgress) {
+            RedisClusterConnection rc = null;
+            try {
+                rc = support.openClusterConnection();
+                RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, node);
+                KeyScanArgs args = new KeyScanArgs();
+                args.match(options.getPattern());
+                args.limit(options.getCount());
+                if (Objects.nonNull(options.getType())) {
+                    args.type(options.getType().code());
+                }
+
+                ScanCursor cursor = ScanCursor.INITIAL;
+                while (!closed && !limitReached) {
+                    KeyScanCursor<byte[]> reply = support.await(commands.scan(cursor, args));
+                    nodeProgress.advance(reply.getCursor(), reply.getKeys().size());
+
+                    if (!reply.getKeys().isEmpty()) {
+                        int granted = reserve(reply.getKeys().size());
+                        List<String> batch = new ArrayList<>(granted);
+                        for (int i = 0; i < granted; i++) {
+                            batch.add(support.key(reply.getKeys().get(i)));
+                        }
+                        if (!batch.isEmpty() && !offer(batch)) {
+                            break;
+                        }
+                        if (granted < reply.getKeys().size()) {
+                            // 已达到 key 总数上限，停止全部节点继续扫描
+                            limitReached = true;
+                            break;
+                        }
+                    }
+
+                    if (reply.isFinished()) {
+                        nodeProgress.state = NodeState.FINISHED;
+                        return;
+                    }
+                    cursor = reply;
+                }
+                nodeProgress.state = NodeState.CANCELLED;
+            } catch (Throwable e) {
+                if (closed) {
+                    nodeProgress.state = NodeState.CANCELLED;
+                } else {
+                    nodeProgress.state = NodeState.FAILED;
+                    failure = e;
+                    closed = true;
+                }
+            } finally {
+                support.release(rc);
+                activeNodes.decrementAndGet();
+            }
+        }
+
+        private int reserve(int wanted) {
+            for (; ; ) {
+                long left = remaining.get();
+                if (left <= 0) {
+                    return 0;
+                }
+                long granted = Math.min(left, wanted);
+                if (remaining.compareAndSet(left, left - granted)) {
+                    return (int) granted;
+                }
+            }
+        }
+
+        private boolean offer(List<String> batch) throws InterruptedException {
+            while (!closed) {
+                if (queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (position >= current.size()) {
+                if (finished) {
+                    return false;
+                }
+                List<String> batch = poll();
+                if (Objects.isNull(batch)) {
+                    finished = true;
+                    if (Objects.nonNull(failure)) {
+                        throw new RedisSystemException("集群 SCAN 失败: " + failure.getMessage(), failure);
+                    }
+                    return false;
+                }
+                current = batch;
+                position = 0;
+            }
+            return true;
+        }
+
+        private List<String> poll() {
+            try {
+                for (; ; ) {
+                    List<String> batch = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (Objects.nonNull(batch)) {
+                        return batch;
+                    }
+                    if (Objects.nonNull(failure)) {
+                        return null;
+                    }
+                    if (activeNodes.get() == 0) {
+                        // 生产者先入队再递减计数，计数归零后队列中剩余的批次仍需消费完
+                        return queue.poll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new RedisSystemException("等待 SCAN 结果时被中断", e);
+            }
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            emitted++;
+            return current.get(position++);
+        }
+
+        /**
+         * @return {{@link long}}
+         * @author wadreamer
+         * @date: 2026/10/18 10:40
+         * @description: TODO 已返回给调用方的 key 数量
+         */
+        public long emitted() {
+            return emitted;
+        }
+
+        /**
+         * @return {{@link List< NodeProgress>}}
+         * @author wadreamer
+         * @date: 2026/10/18 10:41
+         * @description: TODO 各节点的扫描进度
+         */
+        public List<NodeProgress> progress() {
+            return new ArrayList<>(progress.values());
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            queue.clear();
+        }
+    }
+
+    public enum NodeState {
+        RUNNING, FINISHED, CANCELLED, FAILED
+    }
+
+    /**
+     * ClassName: NodeProgress
+     * Description: TODO 单个节点的扫描进度：当前游标、SCAN 次数、已扫描 key 数量与状态
+     */
+    public static class NodeProgress {
+
+        private final String nodeId;
+
+        private final String address;
+
+        private volatile String cursor = ScanCursor.INITIAL.getCursor();
+
+        private final AtomicLong rounds = new AtomicLong();
+
+        private final AtomicLong scannedKeys = new AtomicLong();
+
+        private volatile NodeState state = NodeState.RUNNING;
+
+        NodeProgress(RedisClusterNode node) {
+            this.nodeId = node.getId();
+            this.address = node.asString();
+        }
+
+        void advance(String cursor, int keys) {
+            this.cursor = cursor;
+            rounds.incrementAndGet();
+            scannedKeys.addAndGet(keys);
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public String getCursor() {
+            return cursor;
+        }
+
+        public long getRounds() {
+            return rounds.get();
+        }
+
+        public long getScannedKeys() {
+            return scannedKeys.get();
+        }
+
+        public NodeState getState() {
+            return state;
+        }
+
+        @Override
+        public String toString() {
+            return address + "[" + state + ", cursor=" + cursor + ", rounds=" + rounds + ", keys=" + scannedKeys + "]";
+        }
+    }
+
+}
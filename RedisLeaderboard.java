@@ -0,0 +1,484 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ClassName: RedisLeaderboard
+ * Description: TODO 排行榜：基于 RedisUtils 的 zSet 操作，提供 score + member 游标分页（不使用深分页 offset）、
+ * 本地缓存并增量更新的 Top-N 快照、一次流水线批量查询多个成员的排名，以及按天分桶、按周 / 最近 N 天用 zUnionAndStore 合并的榜单。
+ * 所有 key 使用 board:{name} 作为 hash tag，保证在同一个 slot，集群下也可以执行 ZUNIONSTORE
+ * date: 2026/10/18 19:45
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisLeaderboard {
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final RedisUtils redisUtils;
+
+    private final RedisClusterSupport support;
+
+    private final String name;
+
+    private final String keyPrefix;
+
+    private final ZoneId zoneId;
+
+    // 本地缓存的 Top-N 数量与最长缓存时间
+    private final int topN;
+
+    private final long topRefreshMillis;
+
+    // 按天分桶的保留天数，超过后由过期时间自动删除
+    private int retentionDays = 35;
+
+    private final ConcurrentHashMap<String, TopSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public RedisLeaderboard(RedisUtils redisUtils, RedisClusterSupport support, String name, int topN, long topRefreshMillis) {
+        this(redisUtils, support, name, topN, topRefreshMillis, ZoneId.systemDefault());
+    }
+
+    public RedisLeaderboard(RedisUtils redisUtils, RedisClusterSupport support, String name, int topN, long topRefreshMillis,
+                            ZoneId zoneId) {
+        if (topN <= 0 || topRefreshMillis <= 0) {
+            throw new IllegalArgumentException("topN 与 topRefreshMillis 必须大于 0");
+        }
+        this.redisUtils = Objects.requireNonNull(redisUtils);
+        this.support = Objects.requireNonNull(support);
+        this.name = Objects.requireNonNull(name);
+        this.keyPrefix = "board:{" + name + "}:";
+        this.topN = topN;
+        this.topRefreshMillis = topRefreshMillis;
+        this.zoneId = Objects.requireNonNull(zoneId);
+    }
+
+    public void setRetentionDays(int retentionDays) {
+        if (retentionDays <= 0) {
+            throw new IllegalArgumentException("retentionDays 必须大于 0");
+        }
+        this.retentionDays = retentionDays;
+    }
+
+    // =================================== 榜单 key ===================================
+
+    public String totalKey() {
+        return keyPrefix + "all";
+    }
+
+    public String dailyKey(LocalDate day) {
+        return keyPrefix + "d:" + DAY.format(day);
+    }
+
+    public String weeklyKey(LocalDate anyDayOfWeek) {
+        return keyPrefix + "w:" + anyDayOfWeek.get(IsoFields.WEEK_BASED_YEAR) + "-" + anyDayOfWeek.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+
+    public String lastDaysKey(int days) {
+        return keyPrefix + "last:" + days;
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(zoneId);
+    }
+
+    // =================================== 写入 ===================================
+
+    /**
+     * @param member
+     * @param delta
+     * @return {{@link Double}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:47
+     * @description: TODO 增加成员分数，在一次流水线中写入当天的分桶与总榜，并增量更新本地 Top-N 快照，返回总榜中的新分数。
+     * 每次写入都将分桶的过期时间设置为固定的时间点（分桶日期 + retentionDays 天的零点），重复设置结果相同，
+     * 不依赖“第一次写入”的判断，设置过期时间的命令失败时也会在下一次写入时补上
+     */
+    public Double incrementScore(String member, double delta) {
+        LocalDate today = today();
+        String dailyKey = dailyKey(today);
+        byte[] rawDaily = support.rawKey(dailyKey);
+        byte[] rawTotal = support.rawKey(totalKey());
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) support.template().getValueSerializer();
+        byte[] rawMember = Objects.isNull(serializer) ? member.getBytes(StandardCharsets.UTF_8) : serializer.serialize(member);
+        long expireAtMillis = today.plusDays(retentionDays).atStartOfDay(zoneId).toInstant().toEpochMilli();
+        // 所有 key 使用相同的 hash tag，位于同一节点
+        RedisClusterSupport.NodeGroup<String> group = support.groupByNode(Collections.singletonList(dailyKey), support::rawKey)
+                .iterator().next();
+        Double daily;
+        Double total;
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, group.getNode());
+            RedisFuture<Double> dailyFuture = commands.zincrby(rawDaily, delta, rawMember);
+            RedisFuture<Boolean> expireFuture = commands.pexpireat(rawDaily, expireAtMillis);
+            RedisFuture<Double> totalFuture = commands.zincrby(rawTotal, delta, rawMember);
+            daily = support.await(dailyFuture);
+            support.await(expireFuture);
+            total = support.await(totalFuture);
+        } finally {
+            support.release(rc);
+        }
+        applyIncrement(dailyKey, member, daily);
+        applyIncrement(totalKey(), member, total);
+        return total;
+    }
+
+    /**
+     * @param day
+     * @return {{@link String}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:48
+     * @description: TODO 用 zUnionAndStore 合并 day 所在自然周（周一至周日，截至今天）的分桶为周榜，返回周榜 key
+     */
+    public String mergeWeek(LocalDate day) {
+        LocalDate monday = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate end = day.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+        LocalDate today = today();
+        List<String> keys = new ArrayList<>(7);
+        for (LocalDate d = monday; !d.isAfter(end) && !d.isAfter(today); d = d.plusDays(1)) {
+            keys.add(dailyKey(d));
+        }
+        return merge(keys, weeklyKey(day));
+    }
+
+    /**
+     * @param days
+     * @return {{@link String}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:49
+     * @description: TODO 合并最近 days 天（含今天）的分桶为滚动榜单，返回榜单 key
+     */
+    public String mergeLastDays(int days) {
+        if (days <= 0 || days > retentionDays) {
+            throw new IllegalArgumentException("days 必须在 1 ~ retentionDays 之间");
+        }
+        LocalDate today = today();
+        List<String> keys = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            keys.add(dailyKey(today.minusDays(i)));
+        }
+        return merge(keys, lastDaysKey(days));
+    }
+
+    private String merge(List<String> keys, String destKey) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("没有可合并的分桶：" + destKey);
+        }
+        redisUtils.zUnionAndStore(keys.get(0), keys.subList(1, keys.size()), destKey);
+        redisUtils.expire(destKey, TimeUnit.DAYS.toSeconds(retentionDays));
+        snapshots.remove(destKey);
+        return destKey;
+    }
+
+    // =================================== 读取 ===================================
+
+    /**
+     * @param boardKey
+     * @param size
+     * @param cursor
+     * @return {{@link Page}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:50
+     * @description: TODO 按分数从高到低分页，cursor 为上一页返回的游标（第一页传 null）。
+     * 游标记录上一页最后一个成员及其分数，下一页从该分数开始查询，只需跳过同分成员，代价与页码无关
+     */
+    public Page page(String boardKey, int size, String cursor) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size 必须大于 0");
+        }
+        Cursor from = Cursor.decode(cursor);
+        if (Objects.isNull(from)) {
+            List<ZSetOperations.TypedTuple<Object>> entries = toList(
+                    redisUtils.zReverseRangeByScoreWithScores(boardKey, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, size));
+            return page(entries, size, null);
+        }
+
+        // 多取一条：同分成员未变化时，第一条应为游标中的成员
+        List<ZSetOperations.TypedTuple<Object>> entries = toList(redisUtils.zReverseRangeByScoreWithScores(
+                boardKey, Double.NEGATIVE_INFINITY, from.score, from.tieSkip - 1, size + 1));
+        if (!entries.isEmpty() && from.member.equals(String.valueOf(entries.get(0).getValue()))) {
+            entries.remove(0);
+        } else {
+            // 同分成员发生了变化，在同分成员中重新定位游标
+            int position = tiePosition(boardKey, from);
+            entries = toList(redisUtils.zReverseRangeByScoreWithScores(
+                    boardKey, Double.NEGATIVE_INFINITY, from.score, position, size));
+            from = new Cursor(from.score, from.member, position);
+        }
+        return page(entries, size, from);
+    }
+
+    private int tiePosition(String boardKey, Cursor from) {
+        List<Object> ties = new ArrayList<>(Optional.ofNullable(
+                redisUtils.zReverseRangeByScore(boardKey, from.score, from.score)).orElse(Collections.emptySet()));
+        for (int i = 0; i < ties.size(); i++) {
+            if (from.member.equals(String.valueOf(ties.get(i)))) {
+                return i + 1;
+            }
+        }
+        return Math.min(from.tieSkip, ties.size());
+    }
+
+    private Page page(List<ZSetOperations.TypedTuple<Object>> entries, int size, Cursor from) {
+        if (entries.size() > size) {
+            entries = entries.subList(0, size);
+        }
+        String next = null;
+        if (entries.size() == size) {
+            ZSetOperations.TypedTuple<Object> last = entries.get(entries.size() - 1);
+            double score = last.getScore();
+            int tieSkip = 0;
+            for (int i = entries.size() - 1; i >= 0 && entries.get(i).getScore() == score; i--) {
+                tieSkip++;
+            }
+            if (tieSkip == entries.size() && Objects.nonNull(from) && from.score == score) {
+                // 整页都与上一游标同分，累加已跳过的同分成员数
+                tieSkip += from.tieSkip;
+            }
+            next = new Cursor(score, String.valueOf(last.getValue()), tieSkip).encode();
+        }
+        return new Page(entries, next);
+    }
+
+    /**
+     * @param boardKey
+     * @param n
+     * @return {{@link List< ZSetOperations.TypedTuple< Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:51
+     * @description: TODO 前 n 名（n 不超过 topN 时读取本地快照），快照过期时由一个线程刷新，其余线程继续使用旧快照
+     */
+    public List<ZSetOperations.TypedTuple<Object>> top(String boardKey, int n) {
+        if (n > topN) {
+            return toList(redisUtils.zReverseRangeWithScores(boardKey, 0, n - 1));
+        }
+        TopSnapshot snapshot = snapshots.computeIfAbsent(boardKey, k -> new TopSnapshot());
+        List<ZSetOperations.TypedTuple<Object>> entries = snapshot.entries;
+        if (Objects.isNull(entries) || snapshot.isStale(topRefreshMillis)) {
+            entries = snapshot.refresh(boardKey, Objects.isNull(entries));
+        }
+        return entries.subList(0, Math.min(n, entries.size()));
+    }
+
+    /**
+     * @param boardKey
+     * @param members
+     * @return {{@link Map< String, Rank>}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:52
+     * @description: TODO 在一次流水线中查询多个成员的名次（从 1 开始，按分数从高到低）与分数，不在榜单中的成员名次为 0
+     */
+    public Map<String, Rank> ranks(String boardKey, Collection<String> members) {
+        LinkedHashMap<String, Rank> result = new LinkedHashMap<>(members.size() * 4 / 3 + 1);
+        if (members.isEmpty()) {
+            return result;
+        }
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) support.template().getValueSerializer();
+        byte[] rawKey = support.rawKey(boardKey);
+        RedisClusterSupport.NodeGroup<String> group = support.groupByNode(Collections.singletonList(boardKey), support::rawKey)
+                .iterator().next();
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, group.getNode());
+            List<String> ordered = new ArrayList<>(new LinkedHashSet<>(members));
+            List<RedisFuture<Long>> rankFutures = new ArrayList<>(ordered.size());
+            List<RedisFuture<Double>> scoreFutures = new ArrayList<>(ordered.size());
+            for (String member : ordered) {
+                byte[] rawMember = Objects.isNull(serializer) ? member.getBytes(StandardCharsets.UTF_8) : serializer.serialize(member);
+                rankFutures.add(commands.zrevrank(rawKey, rawMember));
+                scoreFutures.add(commands.zscore(rawKey, rawMember));
+            }
+            List<Long> ranks = support.awaitAll(rankFutures);
+            List<Double> scores = support.awaitAll(scoreFutures);
+            for (int i = 0; i < ordered.size(); i++) {
+                Long rank = ranks.get(i);
+                result.put(ordered.get(i), new Rank(Objects.isNull(rank) ? 0 : rank + 1, scores.get(i)));
+            }
+            return result;
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private void applyIncrement(String boardKey, String member, Double score) {
+        TopSnapshot snapshot = snapshots.get(boardKey);
+        if (Objects.nonNull(snapshot) && Objects.nonNull(score)) {
+            snapshot.apply(member, score);
+        }
+    }
+
+    private static List<ZSetOperations.TypedTuple<Object>> toList(Set<ZSetOperations.TypedTuple<Object>> tuples) {
+        return Objects.isNull(tuples) ? new ArrayList<>() : new ArrayList<>(tuples);
+    }
+
+    private class TopSnapshot {
+
+        private final ReentrantLock refreshLock = new ReentrantLock();
+
+        private volatile List<ZSetOperations.TypedTuple<Object>> entries;
+
+        private volatile long loadedAtMillis;
+
+        // 成员分数下降并可能掉出 Top-N 时，无法在本地得知下一名，需要整体刷新
+        private volatile boolean invalid;
+
+        boolean isStale(long refreshMillis) {
+            return invalid || System.currentTimeMillis() - loadedAtMillis >= refreshMillis;
+        }
+
+        List<ZSetOperations.TypedTuple<Object>> refresh(String boardKey, boolean wait) {
+            if (wait) {
+                refreshLock.lock();
+            } else if (!refreshLock.tryLock()) {
+                return entries;
+            }
+            try {
+                if (Objects.nonNull(entries) && !isStale(topRefreshMillis)) {
+                    return entries;
+                }
+                invalid = false;
+                entries = Collections.unmodifiableList(toList(redisUtils.zReverseRangeWithScores(boardKey, 0, topN - 1)));
+                loadedAtMillis = System.currentTimeMillis();
+                return entries;
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+
+        void apply(String member, double score) {
+            List<ZSetOperations.TypedTuple<Object>> current = entries;
+            if (Objects.isNull(current)) {
+                return;
+            }
+            List<ZSetOperations.TypedTuple<Object>> updated = new ArrayList<>(current.size() + 1);
+            boolean present = false;
+            for (ZSetOperations.TypedTuple<Object> entry : current) {
+                if (member.equals(String.valueOf(entry.getValue()))) {
+                    present = true;
+                } else {
+                    updated.add(entry);
+                }
+            }
+            double min = current.isEmpty() ? Double.NEGATIVE_INFINITY : current.get(current.size() - 1).getScore();
+            boolean full = current.size() >= topN;
+            if (!present && full && score <= min) {
+                return;
+            }
+            if (present && full && score < min) {
+                invalid = true;
+                return;
+            }
+            updated.add(new DefaultTypedTuple<>(member, score));
+            updated.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+            if (updated.size() > topN) {
+                updated = updated.subList(0, topN);
+            }
+            entries = Collections.unmodifiableList(new ArrayList<>(updated));
+        }
+    }
+
+    private static class Cursor {
+
+        private final double score;
+
+        private final String member;
+
+        // 已返回的与 score 同分的成员数量
+        private final int tieSkip;
+
+        Cursor(double score, String member, int tieSkip) {
+            this.score = score;
+            this.member = member;
+            this.tieSkip = tieSkip;
+        }
+
+        String encode() {
+            String raw = Double.toString(score) + ";" + tieSkip + ";" + member;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            if (Objects.isNull(token) || token.isEmpty()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split(";", 3);
+                return new Cursor(Double.parseDouble(parts[0]), parts[2], Math.max(1, Integer.parseInt(parts[1])));
+            } catch (Exception e) {
+                throw new IllegalArgumentException("无效的排行榜游标：" + token, e);
+            }
+        }
+    }
+
+    public static class Page {
+
+        private final List<ZSetOperations.TypedTuple<Object>> entries;
+
+        // 下一页的游标，为 null 表示没有更多数据
+        private final String nextCursor;
+
+        public Page(List<ZSetOperations.TypedTuple<Object>> entries, String nextCursor) {
+            this.entries = entries;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<ZSetOperations.TypedTuple<Object>> getEntries() {
+            return entries;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public boolean hasNext() {
+            return Objects.nonNull(nextCursor);
+        }
+    }
+
+    public static class Rank {
+
+        // 名次从 1 开始，0 表示不在榜单中
+        private final long rank;
+
+        private final Double score;
+
+        public Rank(long rank, Double score) {
+            this.rank = rank;
+            this.score = score;
+        }
+
+        public long getRank() {
+            return rank;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return "Rank{rank=" + rank + ", score=" + score + "}";
+        }
+    }
+
+}
@@ -0,0 +1,333 @@
+package club.wadreamer.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ClassName: RedisLocks
+ * Description: TODO 分布式锁：SET NX PX 获取并在同一脚本中 INCR 生成单调递增的 fencing token，按持有者令牌以 Lua 脚本释放并发布释放消息，
+ * 看门狗定期续期；等待方订阅释放消息被唤醒，不轮询 Redis。锁 key 与计数器 key 使用相同的 hash tag，保证在同一个 slot
+ * date: 2026/10/18 19:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisLocks implements MessageListener, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisLocks.class);
+
+    public static final String DEFAULT_CHANNEL = "redis-lock:released";
+
+    // 获取成功返回 fencing token（大于 0），失败返回锁剩余时间的相反数，锁恰好消失时返回 -1
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then\n"
+                    + "    return redis.call('INCR', KEYS[2])\n"
+                    + "end\n"
+                    + "local ttl = redis.call('PTTL', KEYS[1])\n"
+                    + "if ttl > 0 then\n"
+                    + "    return -ttl\n"
+                    + "end\n"
+                    + "return -1", Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n"
+                    + "    redis.call('DEL', KEYS[1])\n"
+                    + "    redis.call('PUBLISH', ARGV[2], ARGV[3])\n"
+                    + "    return 1\n"
+                    + "end\n"
+                    + "return 0", Long.class);
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n"
+                    + "    return redis.call('PEXPIRE', KEYS[1], ARGV[2])\n"
+                    + "end\n"
+                    + "return 0", Long.class);
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+
+    private final String channel;
+
+    // 锁的租约时间，看门狗每隔 leaseMillis / 3 续期一次
+    private final long leaseMillis;
+
+    private final ScheduledExecutorService watchdog;
+
+    // 按锁名称等待释放消息的线程
+    private final ConcurrentHashMap<String, Waiters> waiters = new ConcurrentHashMap<>();
+
+    private volatile boolean subscribed;
+
+    // 未订阅释放消息时，等待方的最长休眠时间
+    private long fallbackWaitMillis = 50L;
+
+    public RedisLocks(RedisTemplate<Object, Object> redisTemplate, long leaseMillis) {
+        this(redisTemplate, DEFAULT_CHANNEL, leaseMillis);
+    }
+
+    public RedisLocks(RedisTemplate<Object, Object> redisTemplate, String channel, long leaseMillis) {
+        if (leaseMillis < 30) {
+            throw new IllegalArgumentException("leaseMillis 不能小于 30");
+        }
+        this.redisTemplate = Objects.requireNonNull(redisTemplate);
+        this.channel = Objects.requireNonNull(channel);
+        this.leaseMillis = leaseMillis;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void setFallbackWaitMillis(long fallbackWaitMillis) {
+        if (fallbackWaitMillis <= 0) {
+            throw new IllegalArgumentException("fallbackWaitMillis 必须大于 0");
+        }
+        this.fallbackWaitMillis = fallbackWaitMillis;
+    }
+
+    /**
+     * @param container
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 19:02
+     * @description: TODO 订阅锁释放消息，订阅后等待方由消息唤醒，未订阅时按 fallbackWaitMillis 间隔重试
+     */
+    public void subscribe(RedisMessageListenerContainer container) {
+        container.addMessageListener(this, new ChannelTopic(channel));
+        subscribed = true;
+    }
+
+    /**
+     * @param name
+     * @return {{@link Lock}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:03
+     * @description: TODO 尝试获取锁一次，失败时返回 null
+     */
+    public Lock tryLock(String name) {
+        String token = UUID.randomUUID().toString();
+        long result = acquire(name, token);
+        return result > 0 ? held(name, token, result) : null;
+    }
+
+    /**
+     * @param name
+     * @param waitTime
+     * @param timeUnit
+     * @return {{@link Lock}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:04
+     * @description: TODO 在等待时间内获取锁，超时返回 null；等待期间由释放消息唤醒，不轮询
+     */
+    public Lock tryLock(String name, long waitTime, TimeUnit timeUnit) throws InterruptedException {
+        long deadline = System.nanoTime() + timeUnit.toNanos(waitTime);
+        String token = UUID.randomUUID().toString();
+        Waiters waiting = waiters.computeIfAbsent(name, k -> new Waiters());
+        waiting.count.incrementAndGet();
+        try {
+            for (; ; ) {
+                // 先读取唤醒代数再尝试获取，避免错过两者之间的释放消息
+                long generation = waiting.generation;
+                long result = acquire(name, token);
+                if (result > 0) {
+                    return held(name, token, result);
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                long ttlMillis = Math.max(1, -result);
+                long waitMillis = subscribed ? ttlMillis : Math.min(ttlMillis, fallbackWaitMillis);
+                waiting.await(generation, Math.min(remainingNanos, TimeUnit.MILLISECONDS.toNanos(waitMillis)));
+            }
+        } finally {
+            if (waiting.count.decrementAndGet() == 0) {
+                waiters.remove(name, waiting);
+            }
+        }
+    }
+
+    /**
+     * @param name
+     * @return {{@link Lock}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:05
+     * @description: TODO 阻塞直到获取锁
+     */
+    public Lock lock(String name) throws InterruptedException {
+        return tryLock(name, Long.MAX_VALUE / 2, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Waiters waiting = waiters.get(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (Objects.nonNull(waiting)) {
+            waiting.signal();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        watchdog.shutdownNow();
+    }
+
+    private long acquire(String name, String token) {
+        Long result = redisTemplate.execute(ACQUIRE, RedisSerializer.string(), new GenericToStringSerializer<>(Long.class),
+                keys(name), token, String.valueOf(leaseMillis));
+        return Objects.isNull(result) ? -1 : result;
+    }
+
+    private Lock held(String name, String token, long fencingToken) {
+        Lock lock = new Lock(name, token, fencingToken);
+        long period = Math.max(10, leaseMillis / 3);
+        lock.renewal = watchdog.scheduleAtFixedRate(lock::renew, period, period, TimeUnit.MILLISECONDS);
+        return lock;
+    }
+
+    private static List<String> keys(String name) {
+        String tag = "lock:{" + name + "}";
+        return Arrays.asList(tag, tag + ":fence");
+    }
+
+    private static class Waiters {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition released = lock.newCondition();
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        // 每收到一次释放消息加一
+        private volatile long generation;
+
+        void await(long generation, long nanos) throws InterruptedException {
+            lock.lock();
+            try {
+                while (this.generation == generation && nanos > 0) {
+                    nanos = released.awaitNanos(nanos);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void signal() {
+            lock.lock();
+            try {
+                generation++;
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 已获取的锁，使用完毕后调用 unlock（或 try-with-resources 自动释放）
+     */
+    public class Lock implements AutoCloseable {
+
+        private final String name;
+
+        private final String token;
+
+        private final long fencingToken;
+
+        private volatile ScheduledFuture<?> renewal;
+
+        private volatile boolean held = true;
+
+        Lock(String name, String token, long fencingToken) {
+            this.name = name;
+            this.token = token;
+            this.fencingToken = fencingToken;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return {{@link long}}
+         * @author wadreamer
+         * @date: 2026/10/18 19:07
+         * @description: TODO 单调递增的 fencing token，写入下游存储时携带，下游拒绝比已见过的更小的 token
+         */
+        public long getFencingToken() {
+            return fencingToken;
+        }
+
+        /**
+         * @return {{@link boolean}}
+         * @author wadreamer
+         * @date: 2026/10/18 19:08
+         * @description: TODO 是否仍持有锁，续期失败（例如长时间 GC 后锁已过期）时为 false
+         */
+        public boolean isHeld() {
+            return held;
+        }
+
+        void renew() {
+            try {
+                Long renewed = redisTemplate.execute(RENEW, RedisSerializer.string(), new GenericToStringSerializer<>(Long.class),
+                        keys(name), token, String.valueOf(leaseMillis));
+                if (!Objects.equals(renewed, 1L)) {
+                    lost();
+                }
+            } catch (Exception e) {
+                // 网络抖动时保留持有状态，下一次续期再确认，锁最迟在租约到期时失效
+                LOGGER.warn("锁续期失败，下一次续期时再确认: {}", name, e);
+            }
+        }
+
+        private void lost() {
+            held = false;
+            ScheduledFuture<?> future = renewal;
+            if (Objects.nonNull(future)) {
+                future.cancel(false);
+            }
+        }
+
+        /**
+         * @return {{@link boolean}}
+         * @author wadreamer
+         * @date: 2026/10/18 19:09
+         * @description: TODO 释放锁，只有持有者令牌匹配时才删除，并通知等待方
+         */
+        public boolean unlock() {
+            if (!held) {
+                return false;
+            }
+            lost();
+            Long released = redisTemplate.execute(RELEASE, RedisSerializer.string(), new GenericToStringSerializer<>(Long.class),
+                    keys(name), token, channel, name);
+            return Objects.equals(released, 1L);
+        }
+
+        @Override
+        public void close() {
+            unlock();
+        }
+    }
+
+}
@@ -0,0 +1,520 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * ClassName: RedisLongIdSet
+ * Description: TODO 数值 id 集合：id 按高位分块，每块的低位以压缩的 Roaring bitmap 保存在独立的 hash 中（字段 b 为 bitmap，v 为版本），
+ * 索引 hash 记录各块的元素数量。相比 sSet 保存序列化的 Long 对象，内存与传输量可减少一个数量级以上。
+ * 修改为读取 - 本地计算 - Lua 脚本按版本比较写入（CAS），冲突时重试；交集、并集在 JVM 中按块计算，交集只读取所有 key 都有的块。
+ * 同一集合的所有 key 使用相同的 hash tag，位于同一节点
+ * date: 2026/10/18 21:40
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisLongIdSet {
+
+    private static final byte[] VERSION = bytes("v");
+
+    private static final byte[] BITMAP = bytes("b");
+
+    // KEYS[1] 为块，KEYS[2] 为索引；ARGV 依次为期望版本、新 bitmap、新元素数量、块号、新版本。元素数量为 0 时删除块；
+    // 索引设置了过期时间时，写入的块使用索引的剩余时间，之后新建的块与集合一起过期
+    private static final RedisScript<Long> COMPARE_AND_SET = new DefaultRedisScript<>(
+            "local v = redis.call('HGET', KEYS[1], 'v')\n"
+                    + "if (v or '') ~= ARGV[1] then\n"
+                    + "    return 0\n"
+                    + "end\n"
+                    + "if ARGV[3] == '0' then\n"
+                    + "    redis.call('DEL', KEYS[1])\n"
+                    + "    redis.call('HDEL', KEYS[2], ARGV[4])\n"
+                    + "else\n"
+                    + "    redis.call('HMSET', KEYS[1], 'b', ARGV[2], 'v', ARGV[5])\n"
+                    + "    redis.call('HSET', KEYS[2], ARGV[4], ARGV[3])\n"
+                    + "    local ttl = redis.call('PTTL', KEYS[2])\n"
+                    + "    if ttl > 0 then\n"
+                    + "        redis.call('PEXPIRE', KEYS[1], ttl)\n"
+                    + "    end\n"
+                    + "end\n"
+                    + "return 1", Long.class);
+
+    private final RedisClusterSupport support;
+
+    // 每块覆盖 2^chunkBits 个连续 id
+    private int chunkBits = 20;
+
+    // CAS 冲突时的最大重试次数
+    private int maxRetries = 16;
+
+    public RedisLongIdSet(RedisClusterSupport support) {
+        this.support = Objects.requireNonNull(support);
+    }
+
+    /**
+     * @param chunkBits
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 21:41
+     * @description: TODO 设置分块位数，已写入的集合必须使用相同的值读取
+     */
+    public void setChunkBits(int chunkBits) {
+        if (chunkBits < 16 || chunkBits > 32) {
+            throw new IllegalArgumentException("chunkBits 必须在 16 到 32 之间");
+        }
+        this.chunkBits = chunkBits;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        if (maxRetries <= 0) {
+            throw new IllegalArgumentException("maxRetries 必须大于 0");
+        }
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * @param key
+     * @param ids
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:42
+     * @description: TODO 添加 id，返回新增的数量
+     */
+    public long add(String key, long... ids) {
+        return update(key, ids, true);
+    }
+
+    /**
+     * @param key
+     * @param ids
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:43
+     * @description: TODO 移除 id，返回实际移除的数量，块为空时删除该块
+     */
+    public long remove(String key, long... ids) {
+        return update(key, ids, false);
+    }
+
+    /**
+     * @param key
+     * @param id
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:44
+     * @description: TODO 判断 id 是否存在，只读取 id 所在的块
+     */
+    public boolean contains(String key, long id) {
+        long chunk = chunk(id);
+        Map<Long, Chunk> chunks = read(key, Collections.singleton(chunk));
+        Chunk found = chunks.get(chunk);
+        return Objects.nonNull(found) && found.bitmap.contains(low(id));
+    }
+
+    /**
+     * @param key
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:45
+     * @description: TODO 元素数量，只读取索引，不读取 bitmap
+     */
+    public long cardinality(String key) {
+        long total = 0;
+        for (long count : index(key).values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @param key
+     * @return {{@link Ids}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:46
+     * @description: TODO 读取整个集合，在所在节点上流水线读取各块
+     */
+    public Ids get(String key) {
+        Ids ids = new Ids(chunkBits);
+        for (Map.Entry<Long, Chunk> entry : read(key, index(key).keySet()).entrySet()) {
+            ids.chunks.put(entry.getKey(), entry.getValue().bitmap);
+        }
+        return ids;
+    }
+
+    /**
+     * @param keys
+     * @return {{@link Ids}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:47
+     * @description: TODO 多个集合的交集，先比较索引，只读取所有集合都有的块
+     */
+    public Ids intersect(Collection<String> keys) {
+        Ids result = null;
+        Set<Long> common = null;
+        for (String key : keys) {
+            Set<Long> chunks = index(key).keySet();
+            if (Objects.isNull(common)) {
+                common = new TreeSet<>(chunks);
+            } else {
+                common.retainAll(chunks);
+            }
+        }
+        if (Objects.isNull(common) || common.isEmpty()) {
+            return new Ids(chunkBits);
+        }
+        for (String key : keys) {
+            Ids ids = new Ids(chunkBits);
+            for (Map.Entry<Long, Chunk> entry : read(key, common).entrySet()) {
+                ids.chunks.put(entry.getKey(), entry.getValue().bitmap);
+            }
+            result = Objects.isNull(result) ? ids : result.and(ids);
+            common.retainAll(result.chunks.keySet());
+            if (common.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param keys
+     * @return {{@link Ids}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:48
+     * @description: TODO 多个集合的并集
+     */
+    public Ids union(Collection<String> keys) {
+        Ids result = new Ids(chunkBits);
+        for (String key : keys) {
+            result = result.or(get(key));
+        }
+        return result;
+    }
+
+    /**
+     * @param key
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 21:49
+     * @description: TODO 删除整个集合
+     */
+    public void delete(String key) {
+        List<Object> keys = new ArrayList<>();
+        for (Long chunk : index(key).keySet()) {
+            keys.add(chunkKey(key, chunk));
+        }
+        keys.add(indexKey(key));
+        support.template().delete(keys);
+    }
+
+    /**
+     * @param key
+     * @param time
+     * @param timeUnit
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 21:50
+     * @description: TODO 为整个集合（索引与所有块）设置过期时间；之后写入的块在脚本中沿用索引的剩余时间
+     */
+    public void expire(String key, long time, TimeUnit timeUnit) {
+        long millis = timeUnit.toMillis(time);
+        List<byte[]> rawKeys = new ArrayList<>();
+        rawKeys.add(support.rawKey(indexKey(key)));
+        for (Long chunk : index(key).keySet()) {
+            rawKeys.add(support.rawKey(chunkKey(key, chunk)));
+        }
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands = commands(rc, key);
+            List<RedisFuture<Boolean>> futures = new ArrayList<>(rawKeys.size());
+            for (byte[] rawKey : rawKeys) {
+                futures.add(commands.pexpire(rawKey, millis));
+            }
+            support.awaitAll(futures);
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private long update(String key, long[] ids, boolean add) {
+        Map<Long, RoaringBitmap> pending = group(ids);
+        long changed = 0;
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            if (attempt >= maxRetries) {
+                throw new IllegalStateException("集合 " + key + " 并发修改冲突，重试 " + maxRetries + " 次后仍未成功");
+            }
+            Map<Long, Chunk> current = read(key, pending.keySet());
+            Map<Long, RoaringBitmap> conflicted = new TreeMap<>();
+            RedisClusterConnection rc = support.openClusterConnection();
+            try {
+                RedisClusterAsyncCommands<byte[], byte[]> commands = commands(rc, key);
+                // 先在同一连接上加载脚本，后续 EVALSHA 按顺序执行，不会出现 NOSCRIPT
+                RedisFuture<String> loaded = commands.scriptLoad(COMPARE_AND_SET.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+                List<Long> sent = new ArrayList<>();
+                List<Long> deltas = new ArrayList<>();
+                List<RedisFuture<Long>> futures = new ArrayList<>();
+                byte[] rawIndex = support.rawKey(indexKey(key));
+                for (Map.Entry<Long, RoaringBitmap> entry : pending.entrySet()) {
+                    Chunk chunk = current.get(entry.getKey());
+                    RoaringBitmap next = Objects.isNull(chunk) ? new RoaringBitmap() : chunk.bitmap.clone();
+                    long before = next.getLongCardinality();
+                    if (add) {
+                        next.or(entry.getValue());
+                    } else {
+                        next.andNot(entry.getValue());
+                    }
+                    long after = next.getLongCardinality();
+                    if (after == before) {
+                        continue;
+                    }
+                    byte[][] rawKeys = {support.rawKey(chunkKey(key, entry.getKey())), rawIndex};
+                    byte[][] args = {
+                            Objects.isNull(chunk) ? new byte[0] : chunk.version,
+                            after == 0 ? new byte[0] : serialize(next),
+                            bytes(String.valueOf(after)),
+                            bytes(String.valueOf(entry.getKey())),
+                            bytes(UUID.randomUUID().toString())};
+                    sent.add(entry.getKey());
+                    deltas.add(Math.abs(after - before));
+                    futures.add(commands.evalsha(COMPARE_AND_SET.getSha1(), ScriptOutputType.INTEGER, rawKeys, args));
+                }
+                support.await(loaded);
+                List<Long> replies = support.awaitAll(futures);
+                for (int i = 0; i < sent.size(); i++) {
+                    if (Objects.equals(replies.get(i), 1L)) {
+                        changed += deltas.get(i);
+                    } else {
+                        conflicted.put(sent.get(i), pending.get(sent.get(i)));
+                    }
+                }
+            } finally {
+                support.release(rc);
+            }
+            pending = conflicted;
+        }
+        return changed;
+    }
+
+    private Map<Long, Chunk> read(String key, Collection<Long> chunks) {
+        Map<Long, Chunk> result = new TreeMap<>();
+        if (chunks.isEmpty()) {
+            return result;
+        }
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands = commands(rc, key);
+            List<Long> ordered = new ArrayList<>(chunks);
+            List<RedisFuture<List<KeyValue<byte[], byte[]>>>> futures = new ArrayList<>(ordered.size());
+            for (Long chunk : ordered) {
+                futures.add(commands.hmget(support.rawKey(chunkKey(key, chunk)), VERSION, BITMAP));
+            }
+            List<List<KeyValue<byte[], byte[]>>> replies = support.awaitAll(futures);
+            for (int i = 0; i < ordered.size(); i++) {
+                List<KeyValue<byte[], byte[]>> fields = replies.get(i);
+                byte[] version = fields.get(0).getValueOrElse(null);
+                byte[] bitmap = fields.get(1).getValueOrElse(null);
+                if (Objects.nonNull(version) && Objects.nonNull(bitmap)) {
+                    result.put(ordered.get(i), new Chunk(version, deserialize(bitmap)));
+                }
+            }
+            return result;
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    // 块号 -> 元素数量
+    private Map<Long, Long> index(String key) {
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            Map<byte[], byte[]> entries = support.await(commands(rc, key).hgetall(support.rawKey(indexKey(key))));
+            Map<Long, Long> index = new TreeMap<>();
+            for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+                index.put(Long.parseLong(new String(entry.getKey(), StandardCharsets.UTF_8)),
+                        Long.parseLong(new String(entry.getValue(), StandardCharsets.UTF_8)));
+            }
+            return index;
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private RedisClusterAsyncCommands<byte[], byte[]> commands(RedisClusterConnection rc, String key) {
+        int slot = ClusterSlotHashUtil.calculateSlot(support.rawKey(indexKey(key)));
+        return support.nodeCommands(rc, rc.clusterGetNodeForSlot(slot));
+    }
+
+    private Map<Long, RoaringBitmap> group(long[] ids) {
+        Map<Long, RoaringBitmap> grouped = new TreeMap<>();
+        for (long id : ids) {
+            grouped.computeIfAbsent(chunk(id), c -> new RoaringBitmap()).add(low(id));
+        }
+        return grouped;
+    }
+
+    private long chunk(long id) {
+        return id >>> chunkBits;
+    }
+
+    private int low(long id) {
+        return (int) (id & ((1L << chunkBits) - 1));
+    }
+
+    private static String indexKey(String key) {
+        return "ids:{" + key + "}";
+    }
+
+    private static String chunkKey(String key, long chunk) {
+        return "ids:{" + key + "}:" + chunk;
+    }
+
+    private static byte[] serialize(RoaringBitmap bitmap) {
+        bitmap.runOptimize();
+        ByteBuffer buffer = ByteBuffer.allocate(bitmap.serializedSizeInBytes());
+        bitmap.serialize(buffer);
+        return buffer.array();
+    }
+
+    private static RoaringBitmap deserialize(byte[] raw) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        try {
+            bitmap.deserialize(ByteBuffer.wrap(raw));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bitmap;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class Chunk {
+
+        private final byte[] version;
+
+        private final RoaringBitmap bitmap;
+
+        Chunk(byte[] version, RoaringBitmap bitmap) {
+            this.version = version;
+            this.bitmap = bitmap;
+        }
+    }
+
+    /**
+     * 内存中的 id 集合，按块保存 Roaring bitmap，交集、并集、差集逐块计算
+     */
+    public static class Ids {
+
+        private final int chunkBits;
+
+        private final TreeMap<Long, RoaringBitmap> chunks = new TreeMap<>();
+
+        Ids(int chunkBits) {
+            this.chunkBits = chunkBits;
+        }
+
+        public boolean contains(long id) {
+            RoaringBitmap bitmap = chunks.get(id >>> chunkBits);
+            return Objects.nonNull(bitmap) && bitmap.contains((int) (id & ((1L << chunkBits) - 1)));
+        }
+
+        public long cardinality() {
+            long total = 0;
+            for (RoaringBitmap bitmap : chunks.values()) {
+                total += bitmap.getLongCardinality();
+            }
+            return total;
+        }
+
+        public boolean isEmpty() {
+            return chunks.isEmpty();
+        }
+
+        public Ids and(Ids other) {
+            Ids result = new Ids(chunkBits);
+            for (Map.Entry<Long, RoaringBitmap> entry : chunks.entrySet()) {
+                RoaringBitmap bitmap = other.chunks.get(entry.getKey());
+                if (Objects.nonNull(bitmap)) {
+                    result.putIfNotEmpty(entry.getKey(), RoaringBitmap.and(entry.getValue(), bitmap));
+                }
+            }
+            return result;
+        }
+
+        public Ids or(Ids other) {
+            Ids result = new Ids(chunkBits);
+            for (Map.Entry<Long, RoaringBitmap> entry : chunks.entrySet()) {
+                result.chunks.put(entry.getKey(), entry.getValue().clone());
+            }
+            for (Map.Entry<Long, RoaringBitmap> entry : other.chunks.entrySet()) {
+                RoaringBitmap bitmap = result.chunks.get(entry.getKey());
+                if (Objects.isNull(bitmap)) {
+                    result.chunks.put(entry.getKey(), entry.getValue().clone());
+                } else {
+                    bitmap.or(entry.getValue());
+                }
+            }
+            return result;
+        }
+
+        public Ids andNot(Ids other) {
+            Ids result = new Ids(chunkBits);
+            for (Map.Entry<Long, RoaringBitmap> entry : chunks.entrySet()) {
+                RoaringBitmap bitmap = other.chunks.get(entry.getKey());
+                result.putIfNotEmpty(entry.getKey(),
+                        Objects.isNull(bitmap) ? entry.getValue().clone() : RoaringBitmap.andNot(entry.getValue(), bitmap));
+            }
+            return result;
+        }
+
+        /**
+         * @return {{@link LongStream}}
+         * @author wadreamer
+         * @date: 2026/10/18 21:51
+         * @description: TODO 按从小到大的顺序遍历所有 id
+         */
+        public LongStream stream() {
+            return chunks.entrySet().stream().flatMapToLong(entry -> {
+                long base = entry.getKey() << chunkBits;
+                return entry.getValue().stream().mapToLong(low -> base | Integer.toUnsignedLong(low));
+            });
+        }
+
+        public long[] toArray() {
+            return stream().toArray();
+        }
+
+        // 序列化后的字节数，用于估算内存与传输量
+        public long serializedSizeInBytes() {
+            long total = 0;
+            for (RoaringBitmap bitmap : chunks.values()) {
+                total += bitmap.serializedSizeInBytes();
+            }
+            return total;
+        }
+
+        private void putIfNotEmpty(long chunk, RoaringBitmap bitmap) {
+            if (!bitmap.isEmpty()) {
+                chunks.put(chunk, bitmap);
+            }
+        }
+    }
+
+}
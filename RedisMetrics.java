@@ -0,0 +1,475 @@
+package club.wadreamer.utils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClassName: RedisMetrics
+ * Description: TODO RedisUtils 的调用指标：按命令族统计调用次数、耗时分布、按异常类型的错误数与读写字节数，
+ * 通过 Micrometer（MeterBinder）与 JMX（MXBean）暴露。记录路径只做 LongAdder 累加，不分配对象
+ * date: 2026/10/18 17:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisMetrics implements MeterBinder, RedisMetricsMXBean {
+
+    public enum Family {
+        KEY("key"), VALUE_GET("value.get"), VALUE_SET("value.set"), HASH("hash"),
+        SET("set"), ZSET("zset"), LIST("list"), SCAN("scan");
+
+        private final String tag;
+
+        Family(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    // 耗时直方图：每个 2 的幂区间再分为 4 个子桶，相对误差不超过 25%
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private final String name;
+
+    private final FamilyStats[] stats;
+
+    // 当前线程正在执行的命令族，供 MeteredSerializer 归属读写字节数，-1 表示无
+    private final ThreadLocal<int[]> currentFamily = ThreadLocal.withInitial(() -> new int[]{-1});
+
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    private volatile boolean enabled = true;
+
+    private volatile boolean payloadTracking;
+
+    public RedisMetrics() {
+        this("redisUtils");
+    }
+
+    public RedisMetrics(String name) {
+        this.name = Objects.requireNonNull(name);
+        this.stats = new FamilyStats[Family.values().length];
+        for (Family family : Family.values()) {
+            stats[family.ordinal()] = new FamilyStats(family);
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param family
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 17:02
+     * @description: TODO 开始一次调用，返回开始时间，需与 stop 成对使用
+     */
+    public long start(Family family) {
+        if (!enabled) {
+            return 0L;
+        }
+        if (payloadTracking) {
+            currentFamily.get()[0] = family.ordinal();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * @param family
+     * @param start
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 17:03
+     * @description: TODO 结束一次调用，记录调用次数与耗时
+     */
+    public void stop(Family family, long start) {
+        if (start == 0L) {
+            return;
+        }
+        stats[family.ordinal()].record(System.nanoTime() - start);
+        if (payloadTracking) {
+            currentFamily.get()[0] = -1;
+        }
+    }
+
+    /**
+     * @param family
+     * @param e
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 17:04
+     * @description: TODO 记录一次失败的调用，按异常类型计数并保留最近一次的错误信息
+     */
+    public void error(Family family, Throwable e) {
+        if (!enabled) {
+            return;
+        }
+        stats[family.ordinal()].error(e);
+    }
+
+    /**
+     * @param family
+     * @param bytes
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 17:05
+     * @description: TODO 记录读写的字节数
+     */
+    public void payload(Family family, int bytes) {
+        if (enabled && bytes > 0) {
+            stats[family.ordinal()].payloadBytes.add(bytes);
+        }
+    }
+
+    /**
+     * @param template
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 17:06
+     * @description: TODO 包装模板的 value 与 hash value 序列化器，按当前命令族统计读写字节数
+     */
+    public void instrument(RedisTemplate<?, ?> template) {
+        if (!(template.getValueSerializer() instanceof MeteredSerializer)) {
+            template.setValueSerializer(new MeteredSerializer(template.getValueSerializer()));
+        }
+        if (!(template.getHashValueSerializer() instanceof MeteredSerializer)) {
+            template.setHashValueSerializer(new MeteredSerializer(template.getHashValueSerializer()));
+        }
+        template.afterPropertiesSet();
+        payloadTracking = true;
+    }
+
+    private void payload(int bytes) {
+        int family = currentFamily.get()[0];
+        payload(family < 0 ? Family.KEY : Family.values()[family], bytes);
+    }
+
+    public FamilySnapshot snapshot(Family family) {
+        return stats[family.ordinal()].snapshot();
+    }
+
+    @Override
+    public List<FamilySnapshot> getFamilies() {
+        List<FamilySnapshot> snapshots = new ArrayList<>(stats.length);
+        for (FamilyStats familyStats : stats) {
+            snapshots.add(familyStats.snapshot());
+        }
+        return snapshots;
+    }
+
+    @Override
+    public void reset() {
+        for (FamilyStats familyStats : stats) {
+            familyStats.reset();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        for (FamilyStats familyStats : stats) {
+            String family = familyStats.family.getTag();
+            FunctionTimer.builder("redis.utils.calls", familyStats,
+                    s -> s.calls.sum(), s -> s.totalNanos.sum(), TimeUnit.NANOSECONDS)
+                    .tag("name", name).tag("family", family)
+                    .description("RedisUtils 调用次数与总耗时")
+                    .register(registry);
+            Gauge.builder("redis.utils.latency.max", familyStats, s -> s.maxNanos.get() / 1_000_000D)
+                    .tag("name", name).tag("family", family).baseUnit("milliseconds")
+                    .register(registry);
+            for (double quantile : QUANTILES) {
+                Gauge.builder("redis.utils.latency", familyStats, s -> s.percentileNanos(quantile) / 1_000_000D)
+                        .tag("name", name).tag("family", family).tag("quantile", String.valueOf(quantile))
+                        .baseUnit("milliseconds")
+                        .register(registry);
+            }
+            FunctionCounter.builder("redis.utils.payload", familyStats, s -> s.payloadBytes.sum())
+                    .tag("name", name).tag("family", family).baseUnit("bytes")
+                    .register(registry);
+            for (Map.Entry<Class<?>, LongAdder> error : familyStats.errorsByType.entrySet()) {
+                registerError(registry, familyStats, error.getKey(), error.getValue());
+            }
+        }
+    }
+
+    private void registerError(MeterRegistry registry, FamilyStats familyStats, Class<?> type, LongAdder counter) {
+        FunctionCounter.builder("redis.utils.errors", counter, LongAdder::sum)
+                .tag("name", name).tag("family", familyStats.family.getTag()).tag("exception", type.getSimpleName())
+                .register(registry);
+    }
+
+    /**
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 17:08
+     * @description: TODO 注册到平台 MBeanServer，ObjectName 为 club.wadreamer.utils:type=RedisMetrics,name=<name>
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("club.wadreamer.utils:type=RedisMetrics,name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("注册 RedisMetrics MBean 失败：" + e.getMessage(), e);
+        }
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos < (1L << SUB_BUCKET_BITS)) {
+            return (int) Math.max(nanos, 0L);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return (exponent << SUB_BUCKET_BITS) + sub;
+    }
+
+    private static long bucketUpperBound(int bucket) {
+        if (bucket < (1 << SUB_BUCKET_BITS)) {
+            return bucket;
+        }
+        int exponent = bucket >>> SUB_BUCKET_BITS;
+        int sub = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((1L << SUB_BUCKET_BITS) + sub + 1) * width - 1;
+    }
+
+    private class FamilyStats {
+
+        private final Family family;
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        private final LongAdder errors = new LongAdder();
+
+        private final ConcurrentHashMap<Class<?>, LongAdder> errorsByType = new ConcurrentHashMap<>();
+
+        private final LongAdder payloadBytes = new LongAdder();
+
+        private volatile String lastError;
+
+        FamilyStats(Family family) {
+            this.family = family;
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram[bucketOf(nanos)].increment();
+        }
+
+        void error(Throwable e) {
+            errors.increment();
+            LongAdder counter = errorsByType.get(e.getClass());
+            if (Objects.isNull(counter)) {
+                counter = errorsByType.computeIfAbsent(e.getClass(), k -> new LongAdder());
+                // 新出现的异常类型，补注册到已绑定的 MeterRegistry
+                for (MeterRegistry registry : registries) {
+                    registerError(registry, this, e.getClass(), counter);
+                }
+            }
+            counter.increment();
+            lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+
+        long percentileNanos(double quantile) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0L;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+
+        FamilySnapshot snapshot() {
+            Map<String, Long> byType = new TreeMap<>();
+            for (Map.Entry<Class<?>, LongAdder> entry : errorsByType.entrySet()) {
+                byType.merge(entry.getKey().getSimpleName(), entry.getValue().sum(), Long::sum);
+            }
+            long count = calls.sum();
+            return new FamilySnapshot(family.getTag(), count, errors.sum(), byType,
+                    count == 0 ? 0D : totalNanos.sum() / 1_000D / count,
+                    percentileNanos(0.5) / 1_000D, percentileNanos(0.95) / 1_000D, percentileNanos(0.99) / 1_000D,
+                    maxNanos.get() / 1_000D, payloadBytes.sum(), lastError);
+        }
+
+        void reset() {
+            calls.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (LongAdder bucket : histogram) {
+                bucket.reset();
+            }
+            errors.reset();
+            for (LongAdder counter : errorsByType.values()) {
+                counter.reset();
+            }
+            payloadBytes.reset();
+            lastError = null;
+        }
+    }
+
+    public static class FamilySnapshot {
+
+        private final String family;
+
+        private final long calls;
+
+        private final long errors;
+
+        private final Map<String, Long> errorsByType;
+
+        private final double meanMicros;
+
+        private final double p50Micros;
+
+        private final double p95Micros;
+
+        private final double p99Micros;
+
+        private final double maxMicros;
+
+        private final long payloadBytes;
+
+        private final String lastError;
+
+        public FamilySnapshot(String family, long calls, long errors, Map<String, Long> errorsByType, double meanMicros,
+                              double p50Micros, double p95Micros, double p99Micros, double maxMicros,
+                              long payloadBytes, String lastError) {
+            this.family = family;
+            this.calls = calls;
+            this.errors = errors;
+            this.errorsByType = errorsByType;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p95Micros = p95Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+            this.payloadBytes = payloadBytes;
+            this.lastError = lastError;
+        }
+
+        public String getFamily() {
+            return family;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public Map<String, Long> getErrorsByType() {
+            return errorsByType;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        public double getP50Micros() {
+            return p50Micros;
+        }
+
+        public double getP95Micros() {
+            return p95Micros;
+        }
+
+        public double getP99Micros() {
+            return p99Micros;
+        }
+
+        public double getMaxMicros() {
+            return maxMicros;
+        }
+
+        public long getPayloadBytes() {
+            return payloadBytes;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        @Override
+        public String toString() {
+            return family + "{calls=" + calls + ", errors=" + errors + ", p99=" + p99Micros + "us}";
+        }
+    }
+
+    private class MeteredSerializer implements RedisSerializer<Object> {
+
+        private final RedisSerializer<Object> delegate;
+
+        MeteredSerializer(RedisSerializer<?> delegate) {
+            this.delegate = (RedisSerializer<Object>) Objects.requireNonNull(delegate, "serializer 不能为空");
+        }
+
+        @Override
+        public byte[] serialize(Object value) throws SerializationException {
+            byte[] bytes = delegate.serialize(value);
+            if (Objects.nonNull(bytes)) {
+                payload(bytes.length);
+            }
+            return bytes;
+        }
+
+        @Override
+        public Object deserialize(byte[] bytes) throws SerializationException {
+            if (Objects.nonNull(bytes)) {
+                payload(bytes.length);
+            }
+            return delegate.deserialize(bytes);
+        }
+    }
+
+}
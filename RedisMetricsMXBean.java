@@ -0,0 +1,19 @@
+package club.wadreamer.utils;
+
+import java.util.List;
+
+/**
+ * ClassName: RedisMetricsMXBean
+ * Description: TODO RedisMetrics 通过 JMX 暴露的接口，每个命令族一条快照
+ * date: 2026/10/18 17:10
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public interface RedisMetricsMXBean {
+
+    List<RedisMetrics.FamilySnapshot> getFamilies();
+
+    void reset();
+
+}
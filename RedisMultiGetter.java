@@ -0,0 +1,144 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * ClassName: RedisMultiGetter
+ * Description: TODO 批量获取：按 hash slot 分组，各主节点并发发送流水线 MGET，结果按输入顺序返回，未命中显式为 null
+ * date: 2026/10/18 14:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisMultiGetter {
+
+    private final RedisClusterSupport support;
+
+    // 单条 MGET 命令包含的最大 key 数量
+    private int maxBatchSize = 200;
+
+    // 每个节点同时在途的 MGET 命令数量
+    private int pipelineDepth = 32;
+
+    public RedisMultiGetter(RedisClusterSupport support) {
+        this.support = Objects.requireNonNull(support);
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize 必须大于 0");
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void setPipelineDepth(int pipelineDepth) {
+        if (pipelineDepth <= 0) {
+            throw new IllegalArgumentException("pipelineDepth 必须大于 0");
+        }
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    /**
+     * @param keys
+     * @return {{@link List< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 14:02
+     * @description: TODO 按输入顺序返回值，与 keys 一一对应，未命中的位置为 null
+     */
+    public List<Object> getAll(List<String> keys) {
+        Map<String, Object> values = getAsMap(keys);
+        List<Object> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(Objects.isNull(key) ? null : values.get(key));
+        }
+        return result;
+    }
+
+    /**
+     * @param keys
+     * @return {{@link Map< String, Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 14:03
+     * @description: TODO 返回按输入顺序排列的 key -> value，未命中的 key 对应 null
+     */
+    public Map<String, Object> getAsMap(Collection<String> keys) {
+        LinkedHashSet<String> distinct = new LinkedHashSet<>(keys);
+        distinct.remove(null);
+        LinkedHashMap<String, Object> result = new LinkedHashMap<>(distinct.size() * 4 / 3 + 1);
+        if (distinct.isEmpty()) {
+            return result;
+        }
+
+        Collection<RedisClusterSupport.NodeGroup<String>> groups = support.groupByNode(distinct, support::rawKey);
+        List<Callable<Map<String, Object>>> tasks = new ArrayList<>(groups.size());
+        for (RedisClusterSupport.NodeGroup<String> group : groups) {
+            tasks.add(() -> getOnNode(group));
+        }
+        // 各节点的 key 互不重叠，先合并为一个 map，再按输入顺序取值
+        Map<String, Object> merged = new HashMap<>(distinct.size() * 4 / 3 + 1);
+        for (Map<String, Object> partial : support.invokeAll(tasks)) {
+            merged.putAll(partial);
+        }
+        for (String key : distinct) {
+            result.put(key, merged.get(key));
+        }
+        return result;
+    }
+
+    private Map<String, Object> getOnNode(RedisClusterSupport.NodeGroup<String> group) {
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) support.template().getValueSerializer();
+        Map<String, Object> values = new HashMap<>(group.size() * 4 / 3 + 1);
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, group.getNode());
+            List<List<String>> batches = new ArrayList<>(pipelineDepth);
+            List<RedisFuture<List<KeyValue<byte[], byte[]>>>> inFlight = new ArrayList<>(pipelineDepth);
+            for (List<String> slotKeys : group.getSlots().values()) {
+                // 同一条 MGET 中的 key 必须属于同一个 slot
+                for (List<String> batch : RedisClusterSupport.partition(slotKeys, maxBatchSize)) {
+                    byte[][] rawKeys = new byte[batch.size()][];
+                    for (int i = 0; i < rawKeys.length; i++) {
+                        rawKeys[i] = support.rawKey(batch.get(i));
+                    }
+                    batches.add(batch);
+                    inFlight.add(commands.mget(rawKeys));
+                    if (inFlight.size() >= pipelineDepth) {
+                        collect(values, batches, inFlight, serializer);
+                    }
+                }
+            }
+            collect(values, batches, inFlight, serializer);
+            return values;
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private void collect(Map<String, Object> values, List<List<String>> batches,
+                         List<RedisFuture<List<KeyValue<byte[], byte[]>>>> inFlight, RedisSerializer<Object> serializer) {
+        List<List<KeyValue<byte[], byte[]>>> replies = support.awaitAll(inFlight);
+        for (int i = 0; i < replies.size(); i++) {
+            List<String> batch = batches.get(i);
+            List<KeyValue<byte[], byte[]>> reply = replies.get(i);
+            // MGET 的返回顺序与请求的 key 顺序一致
+            for (int j = 0; j < batch.size(); j++) {
+                KeyValue<byte[], byte[]> keyValue = reply.get(j);
+                Object value = null;
+                if (keyValue.hasValue()) {
+                    value = Objects.isNull(serializer) ? keyValue.getValue() : serializer.deserialize(keyValue.getValue());
+                }
+                values.put(batch.get(j), value);
+            }
+        }
+        batches.clear();
+        inFlight.clear();
+    }
+
+}
@@ -0,0 +1,568 @@
+package club.wadreamer.utils;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * ClassName: RedisNearCache
+ * Description: TODO 进程内一级缓存（near cache），位于 RedisUtils 的 get / hGet 之前；
+ * 按条目数和字节数淘汰，条目 TTL 不超过 Redis 中 key 的剩余 TTL，通过 pub/sub 频道在各应用节点间失效
+ * date: 2026/10/18 13:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisNearCache implements MessageListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisNearCache.class);
+
+    public static final String DEFAULT_CHANNEL = "near-cache:invalidate";
+
+    // 每个条目的固定开销估算（对象头、引用等）
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private static final String KEY_MESSAGE = "k:";
+
+    private static final String PATTERN_MESSAGE = "p:";
+
+    private static final String ALL_MESSAGE = "*";
+
+    private static final int VERSION_STRIPES = 1 << 12;
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+
+    private final String channel;
+
+    private final Ticker ticker;
+
+    private final long maxTtlNanos;
+
+    private final int minEntryWeight;
+
+    private final Cache<NearKey, NearEntry> cache;
+
+    // hash 类型 key 到其已缓存 field 的索引，用于按 key 整体失效
+    private final ConcurrentMap<String, Set<NearKey>> hashIndex = new ConcurrentHashMap<>();
+
+    // 按 key 分段的失效版本，单个 key 失效只影响同一分段内正在进行的加载
+    private final AtomicLongArray keyVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    // 按通配符或全部失效时递增，影响所有正在进行的加载
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    private final AtomicLong weight = new AtomicLong();
+
+    // 准入判断，为空时所有读取的 key 都写入本地缓存
+    private volatile Predicate<String> admissionFilter;
+
+    public RedisNearCache(RedisTemplate<Object, Object> redisTemplate, long maximumSize, long maximumWeightBytes,
+                          long maxTtl, TimeUnit timeUnit) {
+        this(redisTemplate, DEFAULT_CHANNEL, maximumSize, maximumWeightBytes, maxTtl, timeUnit, Ticker.systemTicker());
+    }
+
+    public RedisNearCache(RedisTemplate<Object, Object> redisTemplate, String channel, long maximumSize,
+                          long maximumWeightBytes, long maxTtl, TimeUnit timeUnit, Ticker ticker) {
+        if (maximumSize <= 0 || maximumWeightBytes <= 0 || maxTtl <= 0) {
+            throw new IllegalArgumentException("maximumSize、maximumWeightBytes 与 maxTtl 必须大于 0");
+        }
+        this.redisTemplate = Objects.requireNonNull(redisTemplate);
+        this.channel = Objects.requireNonNull(channel);
+        this.ticker = Objects.requireNonNull(ticker);
+        this.maxTtlNanos = timeUnit.toNanos(maxTtl);
+        // 每个条目的权重至少为 maximumWeight / maximumSize，从而同时限制条目数和总字节数
+        this.minEntryWeight = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maximumWeightBytes / maximumSize));
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((NearKey k, NearEntry e) -> Math.max(minEntryWeight, e.weight))
+                .expireAfterWrite(maxTtl, timeUnit)
+                .ticker(ticker)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    /**
+     * @param admissionFilter
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 18:10
+     * @description: TODO 设置准入判断，只有满足条件的 key 才会写入本地缓存（例如只缓存热点 key），传入 null 表示全部接纳
+     */
+    public void setAdmissionFilter(Predicate<String> admissionFilter) {
+        this.admissionFilter = admissionFilter;
+    }
+
+    /**
+     * @param container
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 13:05
+     * @description: TODO 订阅失效频道，所有应用节点都需要注册，才能保持各节点缓存一致
+     */
+    public void subscribe(RedisMessageListenerContainer container) {
+        container.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * @param key
+     * @return {{@link Object}}
+     * @author wadreamer
+     * @date: 2026/10/18 13:06
+     * @description: TODO 读取 string 类型缓存，未命中时在一次流水线中读取值与剩余 TTL 并写入本地缓存
+     */
+    public Object get(String key) {
+        Object cached = getIfPresent(key);
+        return Objects.nonNull(cached) ? cached : load(key);
+    }
+
+    /**
+     * @param key
+     * @return {{@link Object}}
+     * @author wadreamer
+     * @date: 2026/10/19 11:00
+     * @description: TODO 只查询本地缓存，未命中返回 null，不访问 Redis
+     */
+    public Object getIfPresent(String key) {
+        NearEntry entry = lookup(new NearKey(key, null));
+        return Objects.isNull(entry) ? null : entry.value;
+    }
+
+    /**
+     * @param key
+     * @return {{@link Object}}
+     * @author wadreamer
+     * @date: 2026/10/19 11:01
+     * @description: TODO 跳过本地查询，直接从 Redis 读取值与剩余 TTL 并写入本地缓存，用于 getIfPresent 未命中之后
+     */
+    public Object load(String key) {
+        NearKey nearKey = new NearKey(key, null);
+        if (!admitted(key)) {
+            return redisTemplate.opsForValue().get(key);
+        }
+
+        long version = version(key);
+        byte[] rawKey = rawKey(key);
+        List<Object> replies = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            connection.get(rawKey);
+            connection.pTtl(rawKey);
+            return connection.closePipeline();
+        });
+        return admit(nearKey, replies, version, (RedisSerializer<Object>) redisTemplate.getValueSerializer());
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @return {{@link Object}}
+     * @author wadreamer
+     * @date: 2026/10/18 13:07
+     * @description: TODO 读取 hash 类型缓存中的 field，未命中时在一次流水线中读取值与 key 的剩余 TTL
+     */
+    public Object hGet(String key, Object item) {
+        Object cached = hGetIfPresent(key, item);
+        return Objects.nonNull(cached) ? cached : hLoad(key, item);
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @return {{@link Object}}
+     * @author wadreamer
+     * @date: 2026/10/19 11:02
+     * @description: TODO 只查询本地缓存中的 hash field，未命中返回 null，不访问 Redis
+     */
+    public Object hGetIfPresent(String key, Object item) {
+        NearEntry entry = lookup(new NearKey(key, item));
+        return Objects.isNull(entry) ? null : entry.value;
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @return {{@link Object}}
+     * @author wadreamer
+     * @date: 2026/10/19 11:03
+     * @description: TODO 跳过本地查询，直接从 Redis 读取 field 与 key 的剩余 TTL 并写入本地缓存，用于 hGetIfPresent 未命中之后
+     */
+    public Object hLoad(String key, Object item) {
+        NearKey nearKey = new NearKey(key, item);
+        if (!admitted(key)) {
+            return redisTemplate.opsForHash().get(key, item);
+        }
+
+        long version = version(key);
+        byte[] rawKey = rawKey(key);
+        byte[] rawItem = ((RedisSerializer<Object>) redisTemplate.getHashKeySerializer()).serialize(item);
+        List<Object> replies = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            connection.hGet(rawKey, rawItem);
+            connection.pTtl(rawKey);
+            return connection.closePipeline();
+        });
+        return admit(nearKey, replies, version, (RedisSerializer<Object>) redisTemplate.getHashValueSerializer());
+    }
+
+    /**
+     * @param key
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 13:08
+     * @description: TODO 失效本地缓存中的 key（含其全部 hash field），并通知其他节点
+     */
+    public void invalidate(String key) {
+        invalidateLocal(key);
+        publish(KEY_MESSAGE + key);
+    }
+
+    /**
+     * @param pattern
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 13:09
+     * @description: TODO 失效匹配通配符的 key，并通知其他节点
+     */
+    public void invalidatePattern(String pattern) {
+        invalidatePatternLocal(pattern);
+        publish(PATTERN_MESSAGE + pattern);
+    }
+
+    /**
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 13:09
+     * @description: TODO 清空所有节点的本地缓存
+     */
+    public void invalidateAll() {
+        invalidateAllLocal();
+        publish(ALL_MESSAGE);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (body.startsWith(KEY_MESSAGE)) {
+            invalidateLocal(body.substring(KEY_MESSAGE.length()));
+        } else if (body.startsWith(PATTERN_MESSAGE)) {
+            invalidatePatternLocal(body.substring(PATTERN_MESSAGE.length()));
+        } else if (ALL_MESSAGE.equals(body)) {
+            invalidateAllLocal();
+        }
+    }
+
+    /**
+     * @return {{@link NearCacheStats}}
+     * @author wadreamer
+     * @date: 2026/10/18 13:10
+     * @description: TODO 命中、未命中、淘汰、过期、失效次数以及当前条目数和字节数
+     */
+    public NearCacheStats stats() {
+        return new NearCacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                invalidations.sum(), cache.size(), weight.get());
+    }
+
+    private boolean admitted(String key) {
+        Predicate<String> filter = admissionFilter;
+        return Objects.isNull(filter) || filter.test(key);
+    }
+
+    private NearEntry lookup(NearKey nearKey) {
+        NearEntry entry = cache.getIfPresent(nearKey);
+        if (Objects.nonNull(entry)) {
+            if (ticker.read() - entry.expireAtNanos < 0) {
+                hits.increment();
+                return entry;
+            }
+            cache.invalidate(nearKey);
+        }
+        misses.increment();
+        return null;
+    }
+
+    // 两个版本都只增不减，和不变即说明读取期间没有发生相关的失效
+    private long version(String key) {
+        return globalVersion.get() + keyVersions.get(stripe(key));
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private Object admit(NearKey nearKey, List<Object> replies, long version, RedisSerializer<Object> serializer) {
+        if (Objects.isNull(replies) || replies.size() < 2 || Objects.isNull(replies.get(0))) {
+            return null;
+        }
+        byte[] raw = (byte[]) replies.get(0);
+        Object value = Objects.isNull(serializer) ? raw : serializer.deserialize(raw);
+        long pttl = Objects.isNull(replies.get(1)) ? -1 : (Long) replies.get(1);
+        // -1 表示 key 未设置过期时间，-2 表示 key 在两条命令之间已被删除
+        if (pttl == -2 || Objects.isNull(value)) {
+            return value;
+        }
+        long ttlNanos = pttl > 0 ? Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(pttl)) : maxTtlNanos;
+
+        if (version(nearKey.key) == version) {
+            int entryWeight = ENTRY_OVERHEAD + raw.length + nearKey.key.length();
+            NearEntry entry = new NearEntry(value, ticker.read() + ttlNanos, entryWeight);
+            cache.put(nearKey, entry);
+            weight.addAndGet(entryWeight);
+            if (Objects.nonNull(nearKey.item)) {
+                hashIndex.computeIfAbsent(nearKey.key, k -> ConcurrentHashMap.newKeySet()).add(nearKey);
+            }
+            // 失效先递增版本再清除条目：检查之后、写入之前完成的失效不会清除刚写入的旧值，写入后再检查一次，版本变化则撤回
+            if (version(nearKey.key) != version) {
+                cache.asMap().remove(nearKey, entry);
+            }
+        }
+        return value;
+    }
+
+    private void onRemoval(RemovalNotification<NearKey, NearEntry> notification) {
+        NearEntry entry = notification.getValue();
+        if (Objects.nonNull(entry)) {
+            weight.addAndGet(-entry.weight);
+        }
+        if (notification.getCause() == RemovalCause.SIZE) {
+            evictions.increment();
+        } else if (notification.getCause() == RemovalCause.EXPIRED) {
+            expirations.increment();
+        }
+        NearKey nearKey = notification.getKey();
+        if (Objects.nonNull(nearKey) && Objects.nonNull(nearKey.item) && notification.getCause() != RemovalCause.REPLACED) {
+            Set<NearKey> fields = hashIndex.get(nearKey.key);
+            if (Objects.nonNull(fields)) {
+                fields.remove(nearKey);
+                if (fields.isEmpty()) {
+                    hashIndex.remove(nearKey.key, fields);
+                }
+            }
+        }
+    }
+
+    private void invalidateLocal(String key) {
+        keyVersions.incrementAndGet(stripe(key));
+        invalidations.increment();
+        cache.invalidate(new NearKey(key, null));
+        Set<NearKey> fields = hashIndex.remove(key);
+        if (Objects.nonNull(fields)) {
+            cache.invalidateAll(fields);
+        }
+    }
+
+    private void invalidatePatternLocal(String pattern) {
+        globalVersion.incrementAndGet();
+        invalidations.increment();
+        Pattern regex = globToRegex(pattern);
+        List<NearKey> matched = new ArrayList<>();
+        for (NearKey nearKey : cache.asMap().keySet()) {
+            if (regex.matcher(nearKey.key).matches()) {
+                matched.add(nearKey);
+            }
+        }
+        cache.invalidateAll(matched);
+    }
+
+    private void invalidateAllLocal() {
+        globalVersion.incrementAndGet();
+        invalidations.increment();
+        cache.invalidateAll();
+        hashIndex.clear();
+    }
+
+    private void publish(String message) {
+        byte[] rawChannel = channel.getBytes(StandardCharsets.UTF_8);
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(rawChannel, body));
+        } catch (Exception e) {
+            LOGGER.warn("发布一级缓存失效通知失败，其他节点的一级缓存将在过期后刷新: {}", message, e);
+        }
+    }
+
+    private byte[] rawKey(String key) {
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) redisTemplate.getKeySerializer();
+        return Objects.isNull(serializer) ? key.getBytes(StandardCharsets.UTF_8) : serializer.serialize(key);
+    }
+
+    /**
+     * @param glob
+     * @return {{@link Pattern}}
+     * @author wadreamer
+     * @date: 2026/10/18 13:12
+     * @description: TODO 将 Redis glob 通配符转换为正则表达式
+     */
+    static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        boolean inClass = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '\\' && i + 1 < glob.length()) {
+                regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+            } else if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                }
+                regex.append(c);
+            } else if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else if (c == '[') {
+                inClass = true;
+                regex.append('[');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static class NearKey {
+
+        private final String key;
+
+        private final Object item;
+
+        NearKey(String key, Object item) {
+            this.key = key;
+            this.item = item;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof NearKey)) {
+                return false;
+            }
+            NearKey other = (NearKey) o;
+            return key.equals(other.key) && Objects.equals(item, other.item);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + Objects.hashCode(item);
+        }
+    }
+
+    private static class NearEntry {
+
+        private final Object value;
+
+        private final long expireAtNanos;
+
+        private final int weight;
+
+        NearEntry(Object value, long expireAtNanos, int weight) {
+            this.value = value;
+            this.expireAtNanos = expireAtNanos;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * ClassName: NearCacheStats
+     * Description: TODO 本地缓存统计快照
+     */
+    public static class NearCacheStats {
+
+        private final long hits;
+
+        private final long misses;
+
+        private final long evictions;
+
+        private final long expirations;
+
+        private final long invalidations;
+
+        private final long size;
+
+        private final long weightBytes;
+
+        NearCacheStats(long hits, long misses, long evictions, long expirations, long invalidations, long size, long weightBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+            this.size = size;
+            this.weightBytes = weightBytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 1.0D : (double) hits / total;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getWeightBytes() {
+            return weightBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "NearCacheStats{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                    + ", expirations=" + expirations + ", invalidations=" + invalidations
+                    + ", size=" + size + ", weightBytes=" + weightBytes + "}";
+        }
+    }
+
+}
@@ -0,0 +1,384 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClassName: RedisRateLimiter
+ * Description: TODO 限流器：滑动日志、滑动窗口计数、令牌桶三种算法，每次判断都是一个原子的 Lua 脚本（一次往返，无竞态），
+ * 时间取自 Redis 服务端，避免应用节点间的时钟偏差；支持一次判断多个 key（按节点流水线），
+ * 并在本地记录被拒绝客户端的解禁时间，解禁前直接拒绝而不访问 Redis
+ * date: 2026/10/18 19:30
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisRateLimiter {
+
+    public enum Algorithm {
+        SLIDING_LOG, SLIDING_WINDOW_COUNTER, TOKEN_BUCKET
+    }
+
+    // 脚本公共部分：ARGV[1] 窗口毫秒数，ARGV[2] 窗口内允许的次数，ARGV[3] 本次申请的次数；返回 {是否允许, 剩余次数, 重试等待毫秒数}
+    private static final String NOW = "redis.replicate_commands()\n"
+            + "local time = redis.call('TIME')\n"
+            + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n"
+            + "local window = tonumber(ARGV[1])\n"
+            + "local limit = tonumber(ARGV[2])\n"
+            + "local permits = tonumber(ARGV[3])\n";
+
+    // 滑动日志：zSet 记录每次请求的时间，精确但内存与 limit 成正比；ARGV[4] 为本次请求的唯一标识
+    static final RedisScript<List> SLIDING_LOG = new DefaultRedisScript<>(NOW
+            + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)\n"
+            + "local count = redis.call('ZCARD', KEYS[1])\n"
+            + "if count + permits <= limit then\n"
+            + "    for i = 1, permits do\n"
+            + "        redis.call('ZADD', KEYS[1], now, ARGV[4] .. ':' .. i)\n"
+            + "    end\n"
+            + "    redis.call('PEXPIRE', KEYS[1], window)\n"
+            + "    return {1, limit - count - permits, 0}\n"
+            + "end\n"
+            + "local retry = window\n"
+            + "local oldest = redis.call('ZRANGE', KEYS[1], 0, permits - 1, 'WITHSCORES')\n"
+            + "if #oldest >= 2 and count + permits - limit <= #oldest / 2 then\n"
+            + "    retry = tonumber(oldest[(count + permits - limit) * 2]) + window - now\n"
+            + "end\n"
+            + "return {0, math.max(0, limit - count), math.max(1, retry)}", List.class);
+
+    // 滑动窗口计数：hash 中保存当前与上一个固定窗口的计数，按上一窗口剩余比例加权估算，内存固定
+    static final RedisScript<List> SLIDING_WINDOW_COUNTER = new DefaultRedisScript<>(NOW
+            + "local current = math.floor(now / window)\n"
+            + "local elapsed = now - current * window\n"
+            + "local counts = redis.call('HMGET', KEYS[1], current, current - 1)\n"
+            + "local c = tonumber(counts[1]) or 0\n"
+            + "local p = tonumber(counts[2]) or 0\n"
+            + "local estimate = p * (window - elapsed) / window + c\n"
+            + "if estimate + permits <= limit then\n"
+            + "    redis.call('HINCRBY', KEYS[1], current, permits)\n"
+            + "    redis.call('HDEL', KEYS[1], current - 2)\n"
+            + "    redis.call('PEXPIRE', KEYS[1], window * 2)\n"
+            + "    return {1, math.floor(limit - estimate - permits), 0}\n"
+            + "end\n"
+            + "local retry = window - elapsed\n"
+            + "if p > 0 and limit - c - permits >= 0 then\n"
+            + "    retry = math.ceil(window - (limit - c - permits) * window / p) - elapsed\n"
+            + "end\n"
+            + "return {0, math.max(0, math.floor(limit - estimate)), math.max(1, retry)}", List.class);
+
+    // 令牌桶：容量为 limit，每 window 毫秒补充 limit 个令牌，允许突发
+    static final RedisScript<List> TOKEN_BUCKET = new DefaultRedisScript<>(NOW
+            + "local rate = limit / window\n"
+            + "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n"
+            + "local tokens = tonumber(bucket[1]) or limit\n"
+            + "local ts = tonumber(bucket[2]) or now\n"
+            + "tokens = math.min(limit, tokens + math.max(0, now - ts) * rate)\n"
+            + "local allowed = 0\n"
+            + "local retry = 0\n"
+            + "if tokens >= permits then\n"
+            + "    tokens = tokens - permits\n"
+            + "    allowed = 1\n"
+            + "else\n"
+            + "    retry = math.ceil((permits - tokens) / rate)\n"
+            + "end\n"
+            + "redis.call('HMSET', KEYS[1], 'tokens', tokens, 'ts', now)\n"
+            + "redis.call('PEXPIRE', KEYS[1], window + 1000)\n"
+            + "return {allowed, math.floor(tokens), retry}", List.class);
+
+    private final RedisClusterSupport support;
+
+    private final Algorithm algorithm;
+
+    private final RedisScript<List> script;
+
+    private final long windowMillis;
+
+    private final long limit;
+
+    private final String keyPrefix;
+
+    // 被拒绝的 key -> 被拒绝的申请次数与本地解禁时间，解禁前申请同样或更多次数时直接拒绝
+    private final ConcurrentHashMap<String, Deny> denyUntil = new ConcurrentHashMap<>();
+
+    private int maxLocalEntries = 100_000;
+
+    private final LongAdder allowed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder localRejected = new LongAdder();
+
+    public RedisRateLimiter(RedisClusterSupport support, Algorithm algorithm, long limit, long window, TimeUnit timeUnit) {
+        this(support, algorithm, limit, window, timeUnit, "rate:");
+    }
+
+    public RedisRateLimiter(RedisClusterSupport support, Algorithm algorithm, long limit, long window, TimeUnit timeUnit,
+                            String keyPrefix) {
+        if (limit <= 0 || window <= 0) {
+            throw new IllegalArgumentException("limit 与 window 必须大于 0");
+        }
+        this.support = Objects.requireNonNull(support);
+        this.algorithm = Objects.requireNonNull(algorithm);
+        this.limit = limit;
+        this.windowMillis = timeUnit.toMillis(window);
+        this.keyPrefix = Objects.requireNonNull(keyPrefix);
+        switch (algorithm) {
+            case SLIDING_LOG:
+                this.script = SLIDING_LOG;
+                break;
+            case SLIDING_WINDOW_COUNTER:
+                this.script = SLIDING_WINDOW_COUNTER;
+                break;
+            default:
+                this.script = TOKEN_BUCKET;
+        }
+    }
+
+    public void setMaxLocalEntries(int maxLocalEntries) {
+        if (maxLocalEntries < 0) {
+            throw new IllegalArgumentException("maxLocalEntries 不能小于 0");
+        }
+        this.maxLocalEntries = maxLocalEntries;
+    }
+
+    /**
+     * @param key
+     * @return {{@link Decision}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:32
+     * @description: TODO 申请一次
+     */
+    public Decision tryAcquire(String key) {
+        return tryAcquire(key, 1);
+    }
+
+    /**
+     * @param key
+     * @param permits
+     * @return {{@link Decision}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:33
+     * @description: TODO 申请 permits 次，一次脚本调用完成判断与记录
+     */
+    public Decision tryAcquire(String key, int permits) {
+        checkPermits(permits);
+        Decision local = localDecision(key, permits);
+        if (Objects.nonNull(local)) {
+            return local;
+        }
+        List<Object> reply = support.template().execute(script, RedisSerializer.string(),
+                new GenericToStringSerializer<>(Long.class), Collections.singletonList(keyPrefix + key), args(permits));
+        return remember(key, permits, decision(reply));
+    }
+
+    /**
+     * @param keys
+     * @return {{@link Map< String, Decision>}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:34
+     * @description: TODO 一次判断多个 key（例如同时限制用户、IP、接口），按节点流水线执行，返回按输入顺序排列的结果
+     */
+    public Map<String, Decision> tryAcquireAll(Collection<String> keys) {
+        LinkedHashMap<String, Decision> result = new LinkedHashMap<>(keys.size() * 4 / 3 + 1);
+        List<String> remote = new ArrayList<>(keys.size());
+        for (String key : new LinkedHashSet<>(keys)) {
+            Decision local = localDecision(key, 1);
+            result.put(key, local);
+            if (Objects.isNull(local)) {
+                remote.add(key);
+            }
+        }
+        if (remote.isEmpty()) {
+            return result;
+        }
+
+        Collection<RedisClusterSupport.NodeGroup<String>> groups = support.groupByNode(remote, key -> support.rawKey(keyPrefix + key));
+        List<Callable<Map<String, Decision>>> tasks = new ArrayList<>(groups.size());
+        for (RedisClusterSupport.NodeGroup<String> group : groups) {
+            tasks.add(() -> acquireOnNode(group));
+        }
+        for (Map<String, Decision> partial : support.invokeAll(tasks)) {
+            for (Map.Entry<String, Decision> entry : partial.entrySet()) {
+                result.put(entry.getKey(), remember(entry.getKey(), 1, entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Decision> acquireOnNode(RedisClusterSupport.NodeGroup<String> group) {
+        byte[][] args = new byte[4][];
+        Object[] stringArgs = args(1);
+        for (int i = 0; i < args.length; i++) {
+            args[i] = String.valueOf(stringArgs[i]).getBytes(StandardCharsets.UTF_8);
+        }
+        Map<String, Decision> decisions = new LinkedHashMap<>(group.size() * 4 / 3 + 1);
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, group.getNode());
+            // 先在同一连接上加载脚本，后续 EVALSHA 按顺序执行，不会出现 NOSCRIPT
+            RedisFuture<String> loaded = commands.scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+            List<String> ordered = new ArrayList<>(group.size());
+            List<RedisFuture<List<Object>>> futures = new ArrayList<>(group.size());
+            for (List<String> slotKeys : group.getSlots().values()) {
+                for (String key : slotKeys) {
+                    byte[][] rawKeys = {support.rawKey(keyPrefix + key)};
+                    ordered.add(key);
+                    futures.add(commands.evalsha(script.getSha1(), ScriptOutputType.MULTI, rawKeys, args));
+                }
+            }
+            support.await(loaded);
+            List<List<Object>> replies = support.awaitAll(futures);
+            for (int i = 0; i < ordered.size(); i++) {
+                decisions.put(ordered.get(i), decision(replies.get(i)));
+            }
+            return decisions;
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private Object[] args(int permits) {
+        // 滑动日志的成员需要唯一，其他算法忽略该参数
+        String id = Long.toHexString(System.nanoTime()) + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return new Object[]{String.valueOf(windowMillis), String.valueOf(limit), String.valueOf(permits), id};
+    }
+
+    private Decision decision(List<Object> reply) {
+        if (Objects.isNull(reply) || reply.size() < 3) {
+            throw new IllegalStateException("限流脚本返回值异常：" + reply);
+        }
+        return new Decision(toLong(reply.get(0)) == 1L, toLong(reply.get(1)), toLong(reply.get(2)), false);
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    private Decision localDecision(String key, int permits) {
+        Deny deny = denyUntil.get(key);
+        if (Objects.isNull(deny)) {
+            return null;
+        }
+        long wait = deny.until - System.currentTimeMillis();
+        if (wait <= 0) {
+            denyUntil.remove(key, deny);
+            return null;
+        }
+        // 拒绝的是更多的次数时，本次较少的次数仍可能被允许，需要访问 Redis
+        if (permits < deny.permits) {
+            return null;
+        }
+        localRejected.increment();
+        rejected.increment();
+        return new Decision(false, 0, wait, true);
+    }
+
+    private Decision remember(String key, int permits, Decision decision) {
+        if (decision.isAllowed()) {
+            allowed.increment();
+            return decision;
+        }
+        rejected.increment();
+        // 滑动日志、令牌桶的重试等待时间是精确值，等待期间申请同样或更多次数一定仍被拒绝；
+        // 滑动窗口计数的等待时间按上一窗口请求均匀分布估算，实际可能提前放行，本地拒绝只是近似
+        if (maxLocalEntries > 0 && decision.getRetryAfterMillis() > 0) {
+            if (denyUntil.size() >= maxLocalEntries) {
+                long now = System.currentTimeMillis();
+                denyUntil.values().removeIf(deny -> deny.until <= now);
+            }
+            if (denyUntil.size() < maxLocalEntries) {
+                denyUntil.put(key, new Deny(permits, System.currentTimeMillis() + decision.getRetryAfterMillis()));
+            }
+        }
+        return decision;
+    }
+
+    private void checkPermits(int permits) {
+        if (permits <= 0 || permits > limit) {
+            throw new IllegalArgumentException("permits 必须在 1 ~ limit 之间");
+        }
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getLocalRejected() {
+        return localRejected.sum();
+    }
+
+    private static class Deny {
+
+        private final int permits;
+
+        private final long until;
+
+        Deny(int permits, long until) {
+            this.permits = permits;
+            this.until = until;
+        }
+    }
+
+    public static class Decision {
+
+        private final boolean allowed;
+
+        private final long remaining;
+
+        private final long retryAfterMillis;
+
+        // 是否由本地解禁时间直接判定，未访问 Redis
+        private final boolean local;
+
+        public Decision(boolean allowed, long remaining, long retryAfterMillis, boolean local) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterMillis = retryAfterMillis;
+            this.local = local;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public long getRemaining() {
+            return remaining;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+
+        public boolean isLocal() {
+            return local;
+        }
+
+        @Override
+        public String toString() {
+            return "Decision{allowed=" + allowed + ", remaining=" + remaining + ", retryAfterMillis=" + retryAfterMillis
+                    + ", local=" + local + "}";
+        }
+    }
+
+}
@@ -0,0 +1,744 @@
+package club.wadreamer.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisConnectionException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * ClassName: RedisResilience
+ * Description: TODO Redis 降级保护：按主节点维护熔断器，每次调用有独立的截止时间，并以信号量限制每个节点同时执行的命令数（舱壁）。
+ * 熔断打开、舱壁已满或调用失败时，读操作返回本地有界缓存中最近一次成功读写的值；写操作只有在被拒绝（熔断打开、舱壁已满）
+ * 或遇到超时、连接失败等暂时性错误时按策略排队或丢弃，命令本身的错误（如 WRONGTYPE、序列化失败）直接抛出。
+ * 熔断恢复后按顺序重放排队的写操作，同一 key 之后有更新的写入成功时不再重放；熔断状态与状态切换次数通过 Micrometer 暴露
+ * date: 2026/10/18 21:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisResilience implements MeterBinder, DisposableBean {
+
+    private static final AtomicInteger THREAD_SEQ = new AtomicInteger();
+
+    private static final int SLOTS = 16384;
+
+    /**
+     * 熔断器状态，gauge 的取值为 ordinal
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * 熔断打开或写入失败时写操作的处理方式
+     */
+    public enum WritePolicy {
+        // 放入节点的有界队列，熔断恢复后重放，队列满时丢弃最早的写操作
+        QUEUE,
+        // 直接丢弃，返回 false
+        DROP
+    }
+
+    private final RedisClusterSupport support;
+
+    // 执行带截止时间的命令，并发数由各节点的舱壁限制
+    private final ExecutorService executor;
+
+    private final ConcurrentHashMap<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    // slot 所在节点的缓存，定期清空以感知主从切换与 slot 迁移
+    private final AtomicReferenceArray<String> slotNodes = new AtomicReferenceArray<>(SLOTS);
+
+    private volatile long slotNodesLoadedAt = System.currentTimeMillis();
+
+    // 最近一次成功读写的值，熔断期间作为读操作的降级结果
+    private final Cache<Object, Object> lastKnownGood;
+
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    // 单次调用的截止时间
+    private long deadlineMillis = 200L;
+
+    // 统计窗口长度，窗口内调用数达到 minimumCalls 且失败率达到 failureRateThreshold 时打开熔断
+    private long windowMillis = 10_000L;
+
+    private int minimumCalls = 20;
+
+    private double failureRateThreshold = 0.5D;
+
+    // 熔断打开后经过 openMillis 进入半开状态，放行 halfOpenCalls 次试探调用，全部成功后关闭
+    private long openMillis = 5_000L;
+
+    private int halfOpenCalls = 5;
+
+    // 每个节点同时执行的命令数上限
+    private int bulkheadSize = 64;
+
+    private WritePolicy writePolicy = WritePolicy.QUEUE;
+
+    // 每个节点排队等待重放的写操作上限
+    private int maxQueuedWrites = 10_000;
+
+    private long topologyRefreshMillis = 30_000L;
+
+    // 写操作的序号，用于判断排队的写操作是否已被同一 key 上更新的写入取代
+    private final AtomicLong writeSeq = new AtomicLong();
+
+    // 每个缓存 key 最新一次排队等待重放的写操作，更早排队的同 key 写操作已被取代
+    private final ConcurrentHashMap<Object, QueuedWrite> queuedByKey = new ConcurrentHashMap<>();
+
+    private final LongAdder fallbackHits = new LongAdder();
+
+    private final LongAdder fallbackMisses = new LongAdder();
+
+    public RedisResilience(RedisClusterSupport support, int lastKnownGoodSize, long lastKnownGoodMillis) {
+        if (lastKnownGoodSize < 0 || lastKnownGoodMillis <= 0) {
+            throw new IllegalArgumentException("lastKnownGoodSize 不能小于 0，lastKnownGoodMillis 必须大于 0");
+        }
+        this.support = Objects.requireNonNull(support);
+        this.lastKnownGood = CacheBuilder.newBuilder()
+                .maximumSize(lastKnownGoodSize)
+                .expireAfterWrite(lastKnownGoodMillis, TimeUnit.MILLISECONDS)
+                .build();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "redis-resilience-" + THREAD_SEQ.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void setDeadlineMillis(long deadlineMillis) {
+        if (deadlineMillis <= 0) {
+            throw new IllegalArgumentException("deadlineMillis 必须大于 0");
+        }
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public void setWindowMillis(long windowMillis) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("windowMillis 必须大于 0");
+        }
+        this.windowMillis = windowMillis;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        if (minimumCalls <= 0) {
+            throw new IllegalArgumentException("minimumCalls 必须大于 0");
+        }
+        this.minimumCalls = minimumCalls;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        if (failureRateThreshold <= 0D || failureRateThreshold > 1D) {
+            throw new IllegalArgumentException("failureRateThreshold 必须在 (0, 1] 之间");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public void setOpenMillis(long openMillis) {
+        if (openMillis <= 0) {
+            throw new IllegalArgumentException("openMillis 必须大于 0");
+        }
+        this.openMillis = openMillis;
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+        if (halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("halfOpenCalls 必须大于 0");
+        }
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * @param bulkheadSize
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 21:01
+     * @description: TODO 设置每个节点的舱壁大小，只对之后新建的节点熔断器生效，应在使用前设置
+     */
+    public void setBulkheadSize(int bulkheadSize) {
+        if (bulkheadSize <= 0) {
+            throw new IllegalArgumentException("bulkheadSize 必须大于 0");
+        }
+        this.bulkheadSize = bulkheadSize;
+    }
+
+    public void setWritePolicy(WritePolicy writePolicy) {
+        this.writePolicy = Objects.requireNonNull(writePolicy);
+    }
+
+    public void setMaxQueuedWrites(int maxQueuedWrites) {
+        if (maxQueuedWrites < 0) {
+            throw new IllegalArgumentException("maxQueuedWrites 不能小于 0");
+        }
+        this.maxQueuedWrites = maxQueuedWrites;
+    }
+
+    public void setTopologyRefreshMillis(long topologyRefreshMillis) {
+        if (topologyRefreshMillis <= 0) {
+            throw new IllegalArgumentException("topologyRefreshMillis 必须大于 0");
+        }
+        this.topologyRefreshMillis = topologyRefreshMillis;
+    }
+
+    /**
+     * @param key
+     * @param command
+     * @return {{@link Object}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:02
+     * @description: TODO 受保护地读取 string 类型的值，失败或熔断时返回最近一次成功读写的值，没有时返回 null
+     */
+    public Object readValue(String key, Supplier<Object> command) {
+        return read(key, key, command);
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @param command
+     * @return {{@link Object}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:03
+     * @description: TODO 受保护地读取 hash 中的一项，失败或熔断时返回最近一次成功读写的值，没有时返回 null
+     */
+    public Object readHash(String key, String item, Supplier<Object> command) {
+        return read(key, Arrays.asList(key, item), command);
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @param command
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:04
+     * @description: TODO 受保护地写入 string 类型的值，成功或已排队等待重放时返回 true，命令本身的错误直接抛出
+     */
+    public boolean writeValue(String key, Object value, Runnable command) {
+        return write(key, key, value, command);
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @param value
+     * @param command
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:05
+     * @description: TODO 受保护地写入 hash 中的一项，成功或已排队等待重放时返回 true，命令本身的错误直接抛出
+     */
+    public boolean writeHash(String key, String item, Object value, Runnable command) {
+        return write(key, Arrays.asList(key, item), value, command);
+    }
+
+    public State getState(String node) {
+        Breaker breaker = breakers.get(node);
+        return Objects.isNull(breaker) ? State.CLOSED : breaker.state;
+    }
+
+    public Map<String, State> getStates() {
+        Map<String, State> states = new TreeMap<>();
+        for (Breaker breaker : breakers.values()) {
+            states.put(breaker.node, breaker.state);
+        }
+        return states;
+    }
+
+    public long getFallbackHits() {
+        return fallbackHits.sum();
+    }
+
+    public long getFallbackMisses() {
+        return fallbackMisses.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        FunctionCounter.builder("redis.resilience.fallback", fallbackHits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("降级读取命中本地最近值的次数")
+                .register(registry);
+        FunctionCounter.builder("redis.resilience.fallback", fallbackMisses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("降级读取没有本地最近值的次数")
+                .register(registry);
+        for (Breaker breaker : breakers.values()) {
+            breaker.register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Object read(String key, Object cacheKey, Supplier<Object> command) {
+        Breaker breaker = breaker(key);
+        if (breaker.tryAcquire()) {
+            try {
+                Object value = breaker.call(command::get);
+                if (Objects.nonNull(value)) {
+                    lastKnownGood.put(cacheKey, value);
+                } else {
+                    lastKnownGood.invalidate(cacheKey);
+                }
+                return value;
+            } catch (RuntimeException e) {
+                // 失败已计入熔断器，返回降级结果
+            }
+        }
+        Object fallback = lastKnownGood.getIfPresent(cacheKey);
+        (Objects.nonNull(fallback) ? fallbackHits : fallbackMisses).increment();
+        return fallback;
+    }
+
+    private boolean write(String key, Object cacheKey, Object value, Runnable command) {
+        long seq = writeSeq.incrementAndGet();
+        Breaker breaker = breaker(key);
+        if (breaker.tryAcquire()) {
+            try {
+                breaker.call(() -> {
+                    command.run();
+                    return null;
+                });
+                remember(cacheKey, value);
+                supersede(cacheKey, seq);
+                return true;
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    // 命令本身的错误，重放也不会成功
+                    throw e;
+                }
+                // 超时的写操作可能已经执行；排队后若同一 key 有更新的写入成功，则不再重放，避免覆盖为旧值
+            }
+        }
+        if (writePolicy == WritePolicy.DROP || maxQueuedWrites == 0) {
+            breaker.droppedWrites.increment();
+            return false;
+        }
+        breaker.enqueue(register(new QueuedWrite(cacheKey, seq, command)));
+        remember(cacheKey, value);
+        return true;
+    }
+
+    // 同一 key 只保留序号最大的排队写操作，其余标记为已取代
+    private QueuedWrite register(QueuedWrite write) {
+        queuedByKey.compute(write.cacheKey, (k, previous) -> {
+            if (Objects.isNull(previous)) {
+                return write;
+            }
+            if (previous.seq > write.seq) {
+                write.superseded = true;
+                return previous;
+            }
+            previous.superseded = true;
+            return write;
+        });
+        return write;
+    }
+
+    // 序号为 seq 的写入已成功，取代同一 key 上更早排队的写操作
+    private void supersede(Object cacheKey, long seq) {
+        QueuedWrite queued = queuedByKey.get(cacheKey);
+        if (Objects.nonNull(queued) && queued.seq < seq) {
+            queued.superseded = true;
+            queuedByKey.remove(cacheKey, queued);
+        }
+    }
+
+    private void forget(QueuedWrite write) {
+        queuedByKey.remove(write.cacheKey, write);
+    }
+
+    // 超时、被拒绝、中断与连接失败是暂时性错误，与命令内容无关，稍后重放可能成功
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof RejectedExecutionException
+                    || cause instanceof InterruptedException || cause instanceof QueryTimeoutException
+                    || cause instanceof RedisCommandTimeoutException || cause instanceof RedisConnectionFailureException
+                    || cause instanceof RedisConnectionException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void remember(Object cacheKey, Object value) {
+        if (Objects.nonNull(value)) {
+            lastKnownGood.put(cacheKey, value);
+        } else {
+            lastKnownGood.invalidate(cacheKey);
+        }
+    }
+
+    private Breaker breaker(String key) {
+        String node = node(key);
+        Breaker breaker = breakers.get(node);
+        if (Objects.nonNull(breaker)) {
+            return breaker;
+        }
+        return breakers.computeIfAbsent(node, n -> {
+            Breaker created = new Breaker(n, bulkheadSize);
+            for (MeterRegistry registry : registries) {
+                created.register(registry);
+            }
+            return created;
+        });
+    }
+
+    private String node(String key) {
+        long now = System.currentTimeMillis();
+        if (now - slotNodesLoadedAt >= topologyRefreshMillis) {
+            slotNodesLoadedAt = now;
+            for (int i = 0; i < SLOTS; i++) {
+                slotNodes.set(i, null);
+            }
+        }
+        int slot = ClusterSlotHashUtil.calculateSlot(support.rawKey(key));
+        String node = slotNodes.get(slot);
+        if (Objects.nonNull(node)) {
+            return node;
+        }
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterNode clusterNode = rc.clusterGetNodeForSlot(slot);
+            node = clusterNode.getHost() + ":" + clusterNode.getPort();
+        } finally {
+            support.release(rc);
+        }
+        slotNodes.set(slot, node);
+        return node;
+    }
+
+    private class Breaker {
+
+        private final String node;
+
+        private final Semaphore bulkhead;
+
+        private volatile State state = State.CLOSED;
+
+        private long openedAt;
+
+        private long windowStart = System.currentTimeMillis();
+
+        private int calls;
+
+        private int failures;
+
+        // 半开状态剩余的试探调用数与已成功数
+        private int trialPermits;
+
+        private int trialSuccesses;
+
+        private final ArrayDeque<QueuedWrite> queuedWrites = new ArrayDeque<>();
+
+        private boolean draining;
+
+        private final EnumMap<State, LongAdder> transitions = new EnumMap<>(State.class);
+
+        private final LongAdder rejected = new LongAdder();
+
+        private final LongAdder bulkheadRejected = new LongAdder();
+
+        private final LongAdder timeouts = new LongAdder();
+
+        private final LongAdder droppedWrites = new LongAdder();
+
+        private final LongAdder replayedWrites = new LongAdder();
+
+        // 重放时因命令本身的错误而跳过的写操作
+        private final LongAdder failedWrites = new LongAdder();
+
+        // 重放前已被同一 key 上更新的写入取代而跳过的写操作
+        private final LongAdder supersededWrites = new LongAdder();
+
+        Breaker(String node, int bulkheadSize) {
+            this.node = node;
+            this.bulkhead = new Semaphore(bulkheadSize);
+            for (State target : State.values()) {
+                transitions.put(target, new LongAdder());
+            }
+        }
+
+        void register(MeterRegistry registry) {
+            Gauge.builder("redis.resilience.state", this, b -> b.state.ordinal())
+                    .tag("node", node)
+                    .description("熔断器状态：0 关闭，1 打开，2 半开")
+                    .register(registry);
+            for (Map.Entry<State, LongAdder> entry : transitions.entrySet()) {
+                FunctionCounter.builder("redis.resilience.transitions", entry.getValue(), LongAdder::sum)
+                        .tag("node", node).tag("to", entry.getKey().name().toLowerCase())
+                        .register(registry);
+            }
+            FunctionCounter.builder("redis.resilience.rejected", rejected, LongAdder::sum)
+                    .tag("node", node).tag("reason", "open").register(registry);
+            FunctionCounter.builder("redis.resilience.rejected", bulkheadRejected, LongAdder::sum)
+                    .tag("node", node).tag("reason", "bulkhead").register(registry);
+            FunctionCounter.builder("redis.resilience.timeouts", timeouts, LongAdder::sum)
+                    .tag("node", node).register(registry);
+            FunctionCounter.builder("redis.resilience.writes.dropped", droppedWrites, LongAdder::sum)
+                    .tag("node", node).register(registry);
+            FunctionCounter.builder("redis.resilience.writes.replayed", replayedWrites, LongAdder::sum)
+                    .tag("node", node).register(registry);
+            FunctionCounter.builder("redis.resilience.writes.failed", failedWrites, LongAdder::sum)
+                    .tag("node", node).register(registry);
+            FunctionCounter.builder("redis.resilience.writes.superseded", supersededWrites, LongAdder::sum)
+                    .tag("node", node).register(registry);
+            Gauge.builder("redis.resilience.writes.queued", this, Breaker::queuedSize)
+                    .tag("node", node).register(registry);
+        }
+
+        // 熔断器放行且舱壁有空位时返回 true，并占用一个舱壁位置
+        boolean tryAcquire() {
+            if (!allow()) {
+                rejected.increment();
+                return false;
+            }
+            if (!bulkhead.tryAcquire()) {
+                bulkheadRejected.increment();
+                releaseTrial();
+                return false;
+            }
+            return true;
+        }
+
+        <T> T call(Callable<T> command) {
+            // 任务开始执行与超时取消二者只有一方能抢到，抢到的一方负责释放舱壁名额
+            AtomicBoolean started = new AtomicBoolean();
+            Future<T> future;
+            try {
+                future = executor.submit(() -> {
+                    if (!started.compareAndSet(false, true)) {
+                        throw new CancellationException("Redis 命令在开始前已超时取消");
+                    }
+                    try {
+                        return command.call();
+                    } finally {
+                        // 命令真正结束后才释放舱壁，超时未返回的命令继续占用名额
+                        bulkhead.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                bulkhead.release();
+                onFailure();
+                throw e;
+            }
+            try {
+                T result = future.get(deadlineMillis, TimeUnit.MILLISECONDS);
+                onSuccess();
+                return result;
+            } catch (TimeoutException e) {
+                cancel(future, started);
+                timeouts.increment();
+                onFailure();
+                throw new IllegalStateException("Redis 命令超过截止时间 " + deadlineMillis + "ms", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(future, started);
+                onFailure();
+                throw new IllegalStateException("等待 Redis 命令结果时被中断", e);
+            } catch (ExecutionException e) {
+                onFailure();
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+            }
+        }
+
+        private void cancel(Future<?> future, AtomicBoolean started) {
+            future.cancel(true);
+            if (started.compareAndSet(false, true)) {
+                // 任务仍在线程池队列中，之后也不会再执行，名额由取消方释放
+                bulkhead.release();
+            }
+        }
+
+        synchronized boolean allow() {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN) {
+                if (System.currentTimeMillis() - openedAt < openMillis) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                trialPermits = halfOpenCalls;
+                trialSuccesses = 0;
+            }
+            if (trialPermits <= 0) {
+                return false;
+            }
+            trialPermits--;
+            return true;
+        }
+
+        synchronized void releaseTrial() {
+            if (state == State.HALF_OPEN) {
+                trialPermits++;
+            }
+        }
+
+        synchronized void onSuccess() {
+            if (state == State.HALF_OPEN) {
+                if (++trialSuccesses >= halfOpenCalls) {
+                    transition(State.CLOSED);
+                    resetWindow(System.currentTimeMillis());
+                    drain();
+                }
+                return;
+            }
+            record(false);
+        }
+
+        synchronized void onFailure() {
+            if (state == State.HALF_OPEN) {
+                open();
+                return;
+            }
+            if (state == State.CLOSED) {
+                record(true);
+            }
+        }
+
+        private void record(boolean failed) {
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= windowMillis) {
+                resetWindow(now);
+            }
+            calls++;
+            if (failed) {
+                failures++;
+            }
+            if (calls >= minimumCalls && failures >= calls * failureRateThreshold) {
+                open();
+            }
+        }
+
+        private void open() {
+            transition(State.OPEN);
+            openedAt = System.currentTimeMillis();
+        }
+
+        private void resetWindow(long now) {
+            windowStart = now;
+            calls = 0;
+            failures = 0;
+        }
+
+        private void transition(State target) {
+            if (state != target) {
+                state = target;
+                transitions.get(target).increment();
+            }
+        }
+
+        synchronized void enqueue(QueuedWrite write) {
+            if (queuedWrites.size() >= maxQueuedWrites) {
+                forget(queuedWrites.pollFirst());
+                droppedWrites.increment();
+            }
+            queuedWrites.addLast(write);
+            if (state == State.CLOSED) {
+                // 单次调用失败但熔断未打开，立即尝试重放
+                drain();
+            }
+        }
+
+        synchronized int queuedSize() {
+            return queuedWrites.size();
+        }
+
+        // 在后台按入队顺序重放：已被取代的跳过；命令本身的错误计数后跳过，不阻塞后续写操作；
+        // 暂时性错误时放回队首并停止，等待下一次熔断关闭
+        private void drain() {
+            if (draining || queuedWrites.isEmpty()) {
+                return;
+            }
+            draining = true;
+            try {
+                executor.execute(this::replay);
+            } catch (RejectedExecutionException e) {
+                draining = false;
+            }
+        }
+
+        private void replay() {
+            for (; ; ) {
+                QueuedWrite write;
+                synchronized (this) {
+                    write = state == State.CLOSED ? queuedWrites.pollFirst() : null;
+                    if (Objects.isNull(write)) {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (write.superseded) {
+                    supersededWrites.increment();
+                    forget(write);
+                    continue;
+                }
+                try {
+                    write.command.run();
+                    replayedWrites.increment();
+                    forget(write);
+                    onSuccess();
+                } catch (RuntimeException e) {
+                    if (!isTransient(e)) {
+                        failedWrites.increment();
+                        forget(write);
+                        continue;
+                    }
+                    synchronized (this) {
+                        queuedWrites.addFirst(write);
+                        draining = false;
+                    }
+                    onFailure();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class QueuedWrite {
+
+        private final Object cacheKey;
+
+        private final long seq;
+
+        private final Runnable command;
+
+        private volatile boolean superseded;
+
+        QueuedWrite(Object cacheKey, long seq, Runnable command) {
+            this.cacheKey = cacheKey;
+            this.seq = seq;
+            this.command = command;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package club.wadreamer.utils;
+
+import org.springframework.data.redis.connection.DataType;
+
+import java.util.Objects;
+
+/**
+ * ClassName: RedisScanOptions
+ * Description: TODO 集群 SCAN 参数：匹配模式、COUNT 提示、TYPE 过滤、返回 key 总数上限与缓冲批次数
+ * date: 2026/10/18 10:20
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisScanOptions {
+
+    // 每次 SCAN 的 COUNT 提示，默认 1000
+    private long count = 1000L;
+
+    private String pattern;
+
+    // 为空时不过滤类型，否则只返回该类型的 key（需要 Redis 6.0+）
+    private DataType type;
+
+    // 返回 key 的总数上限
+    private long limit = Long.MAX_VALUE;
+
+    // 生产者与消费者之间最多缓冲的 SCAN 批次数，超出后节点扫描线程会阻塞等待
+    private int bufferBatches = 64;
+
+    private RedisScanOptions(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * @param pattern
+     * @return {{@link RedisScanOptions}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:21
+     * @description: TODO 以匹配模式创建扫描参数
+     */
+    public static RedisScanOptions match(String pattern) {
+        return new RedisScanOptions(Objects.requireNonNull(pattern));
+    }
+
+    public RedisScanOptions count(long count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count 必须大于 0");
+        }
+        this.count = count;
+        return this;
+    }
+
+    public RedisScanOptions type(DataType type) {
+        this.type = type;
+        return this;
+    }
+
+    public RedisScanOptions limit(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit 不能小于 0");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public RedisScanOptions bufferBatches(int bufferBatches) {
+        if (bufferBatches <= 0) {
+            throw new IllegalArgumentException("bufferBatches 必须大于 0");
+        }
+        this.bufferBatches = bufferBatches;
+        return this;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public DataType getType() {
+        return type;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public int getBufferBatches() {
+        return bufferBatches;
+    }
+
+}
@@ -0,0 +1,444 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.script.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClassName: RedisScriptRegistry
+ * Description: TODO Lua 脚本注册表：启动时从 classpath 加载脚本，并在后台线程中以指数退避重试，直到在每个主节点上 SCRIPT LOAD 预加载成功；
+ * 执行时只发送 EVALSHA，遇到 NOSCRIPT（节点重启、故障转移、SCRIPT FLUSH 或预加载尚未完成）时把该脚本加载到 key 所在节点后重试一次，
+ * 结果按调用方指定的类型解码。内置计数器上限、比较并设置、自增并设置过期时间、推入并裁剪等常用原子操作
+ * date: 2026/10/18 22:30
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisScriptRegistry implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisScriptRegistry.class);
+
+    // 后台预加载失败后的首次重试间隔与最大重试间隔
+    private static final long PRELOAD_INITIAL_BACKOFF_MILLIS = 1_000L;
+
+    private static final long PRELOAD_MAX_BACKOFF_MILLIS = 60_000L;
+
+    // 默认的 classpath 脚本位置，文件名（不含 .lua）即脚本名
+    public static final String DEFAULT_LOCATION = "classpath*:lua/*.lua";
+
+    // KEYS[1] 自增 ARGV[1]，key 没有过期时间时设置 ARGV[2] 毫秒的过期时间（不大于 0 时不设置），返回自增后的值
+    public static final String INCR_WITH_TTL = "incr_with_ttl";
+
+    // KEYS[1] 自增 ARGV[1]，结果超过上限 ARGV[2] 时不修改并返回 -1，否则返回自增后的值；ARGV[3] 同 INCR_WITH_TTL
+    public static final String CAPPED_INCR = "capped_incr";
+
+    // KEYS[1] 的当前值等于 ARGV[1] 时设置为 ARGV[2] 并返回 1，否则返回 0；ARGV[3] 为 1 时表示期望 key 不存在，
+    // ARGV[4] 为新值的过期毫秒数（不大于 0 时不设置）
+    public static final String COMPARE_AND_SET = "compare_and_set";
+
+    // 向 KEYS[1] 左侧推入 ARGV[3..n]，只保留最新的 ARGV[1] 个元素，ARGV[2] 为过期毫秒数（不大于 0 时不设置），返回裁剪后的长度
+    public static final String PUSH_AND_TRIM = "push_and_trim";
+
+    private static final Map<String, String> BUILTIN = new LinkedHashMap<>();
+
+    static {
+        BUILTIN.put(INCR_WITH_TTL, "local n = redis.call('INCRBY', KEYS[1], ARGV[1])\n"
+                + "local ttl = tonumber(ARGV[2])\n"
+                + "if ttl > 0 and redis.call('PTTL', KEYS[1]) == -1 then\n"
+                + "    redis.call('PEXPIRE', KEYS[1], ttl)\n"
+                + "end\n"
+                + "return n");
+        BUILTIN.put(CAPPED_INCR, "local current = tonumber(redis.call('GET', KEYS[1]) or '0')\n"
+                + "local n = current + tonumber(ARGV[1])\n"
+                + "if n > tonumber(ARGV[2]) then\n"
+                + "    return -1\n"
+                + "end\n"
+                + "redis.call('INCRBY', KEYS[1], ARGV[1])\n"
+                + "local ttl = tonumber(ARGV[3])\n"
+                + "if ttl > 0 and redis.call('PTTL', KEYS[1]) == -1 then\n"
+                + "    redis.call('PEXPIRE', KEYS[1], ttl)\n"
+                + "end\n"
+                + "return n");
+        BUILTIN.put(COMPARE_AND_SET, "local current = redis.call('GET', KEYS[1])\n"
+                + "if ARGV[3] == '1' then\n"
+                + "    if current then\n"
+                + "        return 0\n"
+                + "    end\n"
+                + "elseif current ~= ARGV[1] then\n"
+                + "    return 0\n"
+                + "end\n"
+                + "local ttl = tonumber(ARGV[4])\n"
+                + "if ttl > 0 then\n"
+                + "    redis.call('SET', KEYS[1], ARGV[2], 'PX', ttl)\n"
+                + "else\n"
+                + "    redis.call('SET', KEYS[1], ARGV[2])\n"
+                + "end\n"
+                + "return 1");
+        BUILTIN.put(PUSH_AND_TRIM, "for i = 3, #ARGV, 1000 do\n"
+                + "    redis.call('LPUSH', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))\n"
+                + "end\n"
+                + "redis.call('LTRIM', KEYS[1], 0, tonumber(ARGV[1]) - 1)\n"
+                + "local ttl = tonumber(ARGV[2])\n"
+                + "if ttl > 0 then\n"
+                + "    redis.call('PEXPIRE', KEYS[1], ttl)\n"
+                + "end\n"
+                + "return redis.call('LLEN', KEYS[1])");
+    }
+
+    private final RedisClusterSupport support;
+
+    private final Map<String, Script> scripts = new ConcurrentHashMap<>();
+
+    // 是否已在所有主节点上预加载；未预加载不影响执行，缺少的脚本在 NOSCRIPT 时加载
+    private volatile boolean preloaded;
+
+    // 后台预加载是否已启动，保证只有一个预加载任务
+    private final AtomicBoolean preloading = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService preloader;
+
+    private final LongAdder executions = new LongAdder();
+
+    private final LongAdder reloads = new LongAdder();
+
+    public RedisScriptRegistry(RedisClusterSupport support) {
+        this.support = Objects.requireNonNull(support);
+        BUILTIN.forEach(this::register);
+    }
+
+    /**
+     * @param name
+     * @param source
+     * @return {{@link Script}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:31
+     * @description: TODO 注册脚本，同名脚本会被替换；新注册的脚本在下次预加载或首次 NOSCRIPT 时加载到节点
+     */
+    public Script register(String name, String source) {
+        if (Objects.isNull(name) || name.isEmpty() || Objects.isNull(source) || source.isEmpty()) {
+            throw new IllegalArgumentException("脚本名称与内容不能为空");
+        }
+        Script script = new Script(name, source);
+        Script previous = scripts.put(name, script);
+        if (Objects.isNull(previous) || !previous.sha1.equals(script.sha1)) {
+            preloaded = false;
+        }
+        return script;
+    }
+
+    /**
+     * @param locationPattern
+     * @return {{@link int}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:32
+     * @description: TODO 从 classpath 加载匹配的 .lua 文件，文件名（不含扩展名）作为脚本名，返回加载的脚本数量
+     */
+    public int loadClasspath(String locationPattern) {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources(locationPattern);
+        } catch (IOException e) {
+            throw new UncheckedIOException("扫描 Lua 脚本失败: " + locationPattern, e);
+        }
+        int loaded = 0;
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (Objects.isNull(filename) || !filename.endsWith(".lua")) {
+                continue;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                register(filename.substring(0, filename.length() - 4), StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+                loaded++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("读取 Lua 脚本失败: " + resource.getDescription(), e);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @return {{@link int}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:33
+     * @description: TODO 在所有主节点上并发执行 SCRIPT LOAD，同一节点的脚本以流水线发送，返回预加载的节点数量
+     */
+    public int preload() {
+        List<Script> all = new ArrayList<>(scripts.values());
+        List<RedisClusterNode> masters = support.masters();
+        List<Callable<Void>> tasks = new ArrayList<>(masters.size());
+        for (RedisClusterNode node : masters) {
+            tasks.add(() -> {
+                load(node, all);
+                return null;
+            });
+        }
+        support.invokeAll(tasks);
+        preloaded = true;
+        return masters.size();
+    }
+
+    /**
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/19 10:00
+     * @description: TODO 在后台线程中预加载，失败时按指数退避重试直到成功，只启动一次；调用方线程不等待，
+     * 预加载完成前执行的脚本依靠 NOSCRIPT 时的按需加载
+     */
+    public void preloadInBackground() {
+        if (!preloading.compareAndSet(false, true)) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-script-preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        preloader = executor;
+        executor.execute(() -> preloadWithBackoff(executor, PRELOAD_INITIAL_BACKOFF_MILLIS));
+    }
+
+    private void preloadWithBackoff(ScheduledExecutorService executor, long backoffMillis) {
+        try {
+            preload();
+            executor.shutdown();
+        } catch (Exception e) {
+            LOGGER.warn("Lua 脚本预加载失败，{} 毫秒后重试: {}", backoffMillis, e.getMessage());
+            long next = Math.min(backoffMillis * 2, PRELOAD_MAX_BACKOFF_MILLIS);
+            executor.schedule(() -> preloadWithBackoff(executor, next), backoffMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isPreloaded() {
+        return preloaded;
+    }
+
+    @Override
+    public void destroy() {
+        ScheduledExecutorService executor = preloader;
+        if (Objects.nonNull(executor)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param name
+     * @return {{@link Script}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:34
+     * @description: TODO 按名称获取已注册的脚本，未注册时抛出 IllegalArgumentException
+     */
+    public Script script(String name) {
+        Script script = scripts.get(name);
+        if (Objects.isNull(script)) {
+            throw new IllegalArgumentException("Lua 脚本未注册: " + name);
+        }
+        return script;
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(scripts.keySet());
+    }
+
+    /**
+     * @param name
+     * @param resultType
+     * @param keys
+     * @param args
+     * @return {{@link T}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:35
+     * @description: TODO 以 EVALSHA 执行脚本，keys 使用 redisTemplate 的 key 序列化器，集群下必须位于同一 slot；
+     * args 中的 byte[] 原样传递，其余按 String.valueOf 以 UTF-8 编码。resultType 支持 Long、Boolean、String、Double、byte[] 与 List，
+     * List 中的字符串元素解码为 String
+     */
+    public <T> T execute(String name, Class<T> resultType, List<String> keys, Object... args) {
+        Script script = script(name);
+        ReturnType returnType = returnType(resultType);
+        byte[][] keysAndArgs = new byte[keys.size() + args.length][];
+        for (int i = 0; i < keys.size(); i++) {
+            keysAndArgs[i] = support.rawKey(keys.get(i));
+        }
+        for (int i = 0; i < args.length; i++) {
+            keysAndArgs[keys.size() + i] = rawArg(args[i]);
+        }
+        executions.increment();
+        try {
+            return decode(evalSha(script, returnType, keys.size(), keysAndArgs), resultType);
+        } catch (RuntimeException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            reload(script, keys.isEmpty() ? null : keysAndArgs[0]);
+            return decode(evalSha(script, returnType, keys.size(), keysAndArgs), resultType);
+        }
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getReloads() {
+        return reloads.sum();
+    }
+
+    private Object evalSha(Script script, ReturnType returnType, int numKeys, byte[][] keysAndArgs) {
+        return support.template().execute((RedisCallback<Object>) connection ->
+                connection.evalSha(script.sha1, returnType, numKeys, keysAndArgs));
+    }
+
+    // 只把出错的脚本加载到 key 所在节点（没有 key 时加载到所有主节点），其余脚本与节点在各自首次出错时加载
+    private void reload(Script script, byte[] rawKey) {
+        reloads.increment();
+        if (Objects.isNull(rawKey)) {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (RedisClusterNode node : support.masters()) {
+                tasks.add(() -> {
+                    load(node, Collections.singletonList(script));
+                    return null;
+                });
+            }
+            support.invokeAll(tasks);
+            return;
+        }
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            load(rc.clusterGetNodeForSlot(ClusterSlotHashUtil.calculateSlot(rawKey)), Collections.singletonList(script));
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private void load(RedisClusterNode node, List<Script> toLoad) {
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, node);
+            List<RedisFuture<String>> futures = new ArrayList<>(toLoad.size());
+            for (Script script : toLoad) {
+                futures.add(commands.scriptLoad(script.source.getBytes(StandardCharsets.UTF_8)));
+            }
+            List<String> shas = support.awaitAll(futures);
+            for (int i = 0; i < toLoad.size(); i++) {
+                if (!toLoad.get(i).sha1.equalsIgnoreCase(shas.get(i))) {
+                    throw new IllegalStateException("Lua 脚本 SHA1 不一致: " + toLoad.get(i).name);
+                }
+            }
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (Objects.nonNull(cause.getMessage()) && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] rawArg(Object arg) {
+        if (arg instanceof byte[]) {
+            return (byte[]) arg;
+        }
+        return String.valueOf(arg).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ReturnType returnType(Class<?> resultType) {
+        if (resultType == Long.class) {
+            return ReturnType.INTEGER;
+        }
+        if (resultType == Boolean.class) {
+            return ReturnType.BOOLEAN;
+        }
+        if (resultType == List.class) {
+            return ReturnType.MULTI;
+        }
+        if (resultType == String.class || resultType == Double.class || resultType == byte[].class) {
+            return ReturnType.VALUE;
+        }
+        throw new IllegalArgumentException("不支持的脚本结果类型: " + resultType.getName());
+    }
+
+    private static <T> T decode(Object raw, Class<T> resultType) {
+        if (Objects.isNull(raw)) {
+            return null;
+        }
+        if (resultType == String.class) {
+            return resultType.cast(text(raw));
+        }
+        if (resultType == Double.class) {
+            return resultType.cast(Double.valueOf(text(raw)));
+        }
+        if (resultType == List.class) {
+            List<?> items = (List<?>) raw;
+            List<Object> decoded = new ArrayList<>(items.size());
+            for (Object item : items) {
+                decoded.add(item instanceof byte[] ? text(item) : item);
+            }
+            return resultType.cast(decoded);
+        }
+        return resultType.cast(raw);
+    }
+
+    private static String text(Object raw) {
+        return raw instanceof byte[] ? new String((byte[]) raw, StandardCharsets.UTF_8) : String.valueOf(raw);
+    }
+
+    /**
+     * 已注册的脚本，SHA1 在注册时计算，执行时只发送 SHA1
+     */
+    public static class Script {
+
+        private final String name;
+
+        private final String source;
+
+        private final String sha1;
+
+        Script(String name, String source) {
+            this.name = name;
+            this.source = source;
+            this.sha1 = DigestUtils.sha1DigestAsHex(source);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getSha1() {
+            return sha1;
+        }
+    }
+
+}
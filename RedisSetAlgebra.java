@@ -0,0 +1,504 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScoredValue;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * ClassName: RedisSetAlgebra
+ * Description: TODO 集群下的集合运算：所有 key 位于同一个 slot 时直接使用服务端的 SINTER / SUNION / SDIFF / ZUNIONSTORE / ZINTERSTORE，
+ * 否则在客户端计算：并集并发 SSCAN / ZSCAN 各输入后合并；交集从元素最少的集合开始，候选集远小于下一个集合时以流水线 SISMEMBER / ZSCORE 探测，
+ * 否则流式扫描下一个集合筛选候选集；差集同理。成员按序列化后的字节比较，与服务端语义一致。
+ * 结果写回目标 key 时先以流水线写入同 slot 的临时 key，再 RENAME 覆盖目标 key
+ * date: 2026/10/18 21:20
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisSetAlgebra {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisSetAlgebra.class);
+
+    private final RedisClusterSupport support;
+
+    // SSCAN / ZSCAN 每次返回的元素数量提示
+    private int scanCount = 1_000;
+
+    // 单条写回命令或一批探测命令包含的元素数量
+    private int batchSize = 500;
+
+    // 候选集大小乘以该比例仍小于下一个集合时，改为逐个探测而不扫描整个集合
+    private int probeRatio = 4;
+
+    public RedisSetAlgebra(RedisClusterSupport support) {
+        this.support = Objects.requireNonNull(support);
+    }
+
+    public void setScanCount(int scanCount) {
+        if (scanCount <= 0) {
+            throw new IllegalArgumentException("scanCount 必须大于 0");
+        }
+        this.scanCount = scanCount;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize 必须大于 0");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public void setProbeRatio(int probeRatio) {
+        if (probeRatio <= 0) {
+            throw new IllegalArgumentException("probeRatio 必须大于 0");
+        }
+        this.probeRatio = probeRatio;
+    }
+
+    /**
+     * @param keys
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:21
+     * @description: TODO 判断所有 key 是否位于同一个 slot，是则可以直接在服务端执行多 key 命令
+     */
+    public boolean sameSlot(Collection<String> keys) {
+        int slot = -1;
+        for (String key : keys) {
+            int current = ClusterSlotHashUtil.calculateSlot(support.rawKey(key));
+            if (slot >= 0 && current != slot) {
+                return false;
+            }
+            slot = current;
+        }
+        return true;
+    }
+
+    /**
+     * @param key
+     * @param otherKeys
+     * @return {{@link Set< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:22
+     * @description: TODO set 交集
+     */
+    public Set<Object> intersect(String key, Collection<String> otherKeys) {
+        List<String> keys = keys(key, otherKeys);
+        if (sameSlot(keys)) {
+            return support.template().opsForSet().intersect(key, otherKeys);
+        }
+        return deserialize(intersectRaw(keys));
+    }
+
+    /**
+     * @param key
+     * @param otherKeys
+     * @return {{@link Set< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:23
+     * @description: TODO set 并集
+     */
+    public Set<Object> union(String key, Collection<String> otherKeys) {
+        List<String> keys = keys(key, otherKeys);
+        if (sameSlot(keys)) {
+            return support.template().opsForSet().union(key, otherKeys);
+        }
+        return deserialize(unionRaw(keys));
+    }
+
+    /**
+     * @param key
+     * @param otherKeys
+     * @return {{@link Set< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:24
+     * @description: TODO set 差集：key 中有而 otherKeys 中都没有的元素
+     */
+    public Set<Object> difference(String key, Collection<String> otherKeys) {
+        List<String> keys = keys(key, otherKeys);
+        if (sameSlot(keys)) {
+            return support.template().opsForSet().difference(key, otherKeys);
+        }
+        return deserialize(differenceRaw(keys));
+    }
+
+    /**
+     * @param key
+     * @param otherKeys
+     * @param destKey
+     * @return {{@link Long}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:25
+     * @description: TODO set 交集写入 destKey，返回结果元素数量
+     */
+    public Long intersectAndStore(String key, Collection<String> otherKeys, String destKey) {
+        List<String> keys = keys(key, otherKeys);
+        if (sameSlot(withDest(keys, destKey))) {
+            return support.template().opsForSet().intersectAndStore(key, otherKeys, destKey);
+        }
+        return storeSet(destKey, intersectRaw(keys));
+    }
+
+    public Long unionAndStore(String key, Collection<String> otherKeys, String destKey) {
+        List<String> keys = keys(key, otherKeys);
+        if (sameSlot(withDest(keys, destKey))) {
+            return support.template().opsForSet().unionAndStore(key, otherKeys, destKey);
+        }
+        return storeSet(destKey, unionRaw(keys));
+    }
+
+    public Long differenceAndStore(String key, Collection<String> otherKeys, String destKey) {
+        List<String> keys = keys(key, otherKeys);
+        if (sameSlot(withDest(keys, destKey))) {
+            return support.template().opsForSet().differenceAndStore(key, otherKeys, destKey);
+        }
+        return storeSet(destKey, differenceRaw(keys));
+    }
+
+    /**
+     * @param key
+     * @param otherKeys
+     * @param destKey
+     * @return {{@link Long}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:26
+     * @description: TODO zSet 并集写入 destKey，score 按 SUM 聚合，返回结果元素数量
+     */
+    public Long zUnionAndStore(String key, Collection<String> otherKeys, String destKey) {
+        List<String> keys = keys(key, otherKeys);
+        if (sameSlot(withDest(keys, destKey))) {
+            return support.template().opsForZSet().unionAndStore(key, otherKeys, destKey);
+        }
+        List<Callable<Map<ByteBuffer, Double>>> tasks = new ArrayList<>(keys.size());
+        for (String k : keys) {
+            tasks.add(() -> {
+                // ZSCAN 可能重复返回同一元素，单个 key 内按覆盖处理
+                Map<ByteBuffer, Double> scores = new HashMap<>();
+                forEachTuple(k, tuple -> scores.put(ByteBuffer.wrap(tuple.getValue()), tuple.getScore()));
+                return scores;
+            });
+        }
+        Map<ByteBuffer, Double> result = new HashMap<>();
+        for (Map<ByteBuffer, Double> partial : support.invokeAll(tasks)) {
+            for (Map.Entry<ByteBuffer, Double> entry : partial.entrySet()) {
+                result.merge(entry.getKey(), entry.getValue(), Double::sum);
+            }
+        }
+        return storeZSet(destKey, result);
+    }
+
+    /**
+     * @param key
+     * @param otherKeys
+     * @param destKey
+     * @return {{@link Long}}
+     * @author wadreamer
+     * @date: 2026/10/18 21:27
+     * @description: TODO zSet 交集写入 destKey，score 按 SUM 聚合，从元素最少的集合开始计算，返回结果元素数量
+     */
+    public Long zIntersectAndStore(String key, Collection<String> otherKeys, String destKey) {
+        List<String> keys = keys(key, otherKeys);
+        if (sameSlot(withDest(keys, destKey))) {
+            return support.template().opsForZSet().intersectAndStore(key, otherKeys, destKey);
+        }
+        List<Sized> sized = sizes(keys, true);
+        Map<ByteBuffer, Double> result = new HashMap<>();
+        forEachTuple(sized.get(0).key, tuple -> result.put(ByteBuffer.wrap(tuple.getValue()), tuple.getScore()));
+        for (int i = 1; i < sized.size() && !result.isEmpty(); i++) {
+            Sized next = sized.get(i);
+            Map<ByteBuffer, Double> matched = new HashMap<>(result.size() * 4 / 3 + 1);
+            if ((long) result.size() * probeRatio < next.size) {
+                List<ByteBuffer> candidates = new ArrayList<>(result.keySet());
+                List<Double> scores = probeScores(next.key, candidates);
+                for (int j = 0; j < candidates.size(); j++) {
+                    if (Objects.nonNull(scores.get(j))) {
+                        matched.put(candidates.get(j), result.get(candidates.get(j)) + scores.get(j));
+                    }
+                }
+            } else {
+                forEachTuple(next.key, tuple -> {
+                    ByteBuffer member = ByteBuffer.wrap(tuple.getValue());
+                    Double score = result.get(member);
+                    if (Objects.nonNull(score)) {
+                        matched.merge(member, score + tuple.getScore(), (a, b) -> a);
+                    }
+                });
+            }
+            result.clear();
+            result.putAll(matched);
+        }
+        return storeZSet(destKey, result);
+    }
+
+    private Set<ByteBuffer> intersectRaw(List<String> keys) {
+        List<Sized> sized = sizes(keys, false);
+        Set<ByteBuffer> result = new HashSet<>();
+        forEachMember(sized.get(0).key, result::add);
+        for (int i = 1; i < sized.size() && !result.isEmpty(); i++) {
+            result = retainPresent(sized.get(i), result);
+        }
+        return result;
+    }
+
+    private Set<ByteBuffer> unionRaw(List<String> keys) {
+        List<Callable<Set<ByteBuffer>>> tasks = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            tasks.add(() -> {
+                Set<ByteBuffer> members = new HashSet<>();
+                forEachMember(key, members::add);
+                return members;
+            });
+        }
+        Set<ByteBuffer> result = new HashSet<>();
+        for (Set<ByteBuffer> members : support.invokeAll(tasks)) {
+            result.addAll(members);
+        }
+        return result;
+    }
+
+    private Set<ByteBuffer> differenceRaw(List<String> keys) {
+        Set<ByteBuffer> result = new HashSet<>();
+        forEachMember(keys.get(0), result::add);
+        if (keys.size() == 1 || result.isEmpty()) {
+            return result;
+        }
+        List<Sized> others = sizes(keys.subList(1, keys.size()), false);
+        for (Sized other : others) {
+            if (result.isEmpty()) {
+                break;
+            }
+            result.removeAll(retainPresent(other, result));
+        }
+        return result;
+    }
+
+    // 返回 candidates 中同时属于 other 的元素
+    private Set<ByteBuffer> retainPresent(Sized other, Set<ByteBuffer> candidates) {
+        Set<ByteBuffer> present = new HashSet<>();
+        if ((long) candidates.size() * probeRatio < other.size) {
+            List<ByteBuffer> ordered = new ArrayList<>(candidates);
+            List<Boolean> members = probeMembers(other.key, ordered);
+            for (int i = 0; i < ordered.size(); i++) {
+                if (Boolean.TRUE.equals(members.get(i))) {
+                    present.add(ordered.get(i));
+                }
+            }
+        } else {
+            forEachMember(other.key, member -> {
+                if (candidates.contains(member)) {
+                    present.add(member);
+                }
+            });
+        }
+        return present;
+    }
+
+    private List<Boolean> probeMembers(String key, List<ByteBuffer> candidates) {
+        byte[] rawKey = support.rawKey(key);
+        return onNode(rawKey, commands -> {
+            List<Boolean> results = new ArrayList<>(candidates.size());
+            for (List<ByteBuffer> batch : RedisClusterSupport.partition(candidates, batchSize)) {
+                List<RedisFuture<Boolean>> futures = new ArrayList<>(batch.size());
+                for (ByteBuffer member : batch) {
+                    futures.add(commands.sismember(rawKey, bytes(member)));
+                }
+                results.addAll(support.awaitAll(futures));
+            }
+            return results;
+        });
+    }
+
+    private List<Double> probeScores(String key, List<ByteBuffer> candidates) {
+        byte[] rawKey = support.rawKey(key);
+        return onNode(rawKey, commands -> {
+            List<Double> results = new ArrayList<>(candidates.size());
+            for (List<ByteBuffer> batch : RedisClusterSupport.partition(candidates, batchSize)) {
+                List<RedisFuture<Double>> futures = new ArrayList<>(batch.size());
+                for (ByteBuffer member : batch) {
+                    futures.add(commands.zscore(rawKey, bytes(member)));
+                }
+                results.addAll(support.awaitAll(futures));
+            }
+            return results;
+        });
+    }
+
+    private Long storeSet(String destKey, Set<ByteBuffer> members) {
+        List<ByteBuffer> ordered = new ArrayList<>(members);
+        return store(destKey, ordered.size(), (commands, tmpKey) -> {
+            List<RedisFuture<Long>> futures = new ArrayList<>();
+            for (List<ByteBuffer> batch : RedisClusterSupport.partition(ordered, batchSize)) {
+                byte[][] raw = new byte[batch.size()][];
+                for (int i = 0; i < raw.length; i++) {
+                    raw[i] = bytes(batch.get(i));
+                }
+                futures.add(commands.sadd(tmpKey, raw));
+            }
+            support.awaitAll(futures);
+        });
+    }
+
+    private Long storeZSet(String destKey, Map<ByteBuffer, Double> scores) {
+        List<Map.Entry<ByteBuffer, Double>> ordered = new ArrayList<>(scores.entrySet());
+        return store(destKey, ordered.size(), (commands, tmpKey) -> {
+            List<RedisFuture<Long>> futures = new ArrayList<>();
+            for (List<Map.Entry<ByteBuffer, Double>> batch : RedisClusterSupport.partition(ordered, batchSize)) {
+                ScoredValue<byte[]>[] raw = new ScoredValue[batch.size()];
+                for (int i = 0; i < raw.length; i++) {
+                    raw[i] = ScoredValue.just(batch.get(i).getValue(), bytes(batch.get(i).getKey()));
+                }
+                futures.add(commands.zadd(tmpKey, raw));
+            }
+            support.awaitAll(futures);
+        });
+    }
+
+    // 先写入与目标 key 同 slot 的临时 key，再 RENAME 覆盖，读取方不会看到写了一半的结果
+    private Long store(String destKey, long size, Writer writer) {
+        byte[] rawDest = support.rawKey(destKey);
+        byte[] rawTmp = support.rawKey(tmpKey(destKey));
+        onNode(rawDest, commands -> {
+            if (size == 0) {
+                support.await(commands.del(rawDest));
+                return null;
+            }
+            support.await(commands.del(rawTmp));
+            writer.write(commands, rawTmp);
+            support.await(commands.rename(rawTmp, rawDest));
+            return null;
+        });
+        return size;
+    }
+
+    private String tmpKey(String destKey) {
+        String suffix = ":tmp:" + UUID.randomUUID();
+        int open = destKey.indexOf('{');
+        int close = open < 0 ? -1 : destKey.indexOf('}', open + 1);
+        // 已有非空 hash tag 时保留，否则以整个 key 作为 hash tag，使临时 key 与目标 key 位于同一 slot
+        return close > open + 1 ? destKey + suffix : "{" + destKey + "}" + suffix;
+    }
+
+    private <R> R onNode(byte[] rawKey, NodeCallback<R> callback) {
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            return callback.doWith(support.nodeCommands(rc, rc.clusterGetNodeForSlot(ClusterSlotHashUtil.calculateSlot(rawKey))));
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private List<Sized> sizes(List<String> keys, boolean zSet) {
+        List<byte[]> rawKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            rawKeys.add(support.rawKey(key));
+        }
+        List<Long> sizes = support.template().execute((RedisCallback<List<Long>>) connection -> {
+            List<Long> result = new ArrayList<>(rawKeys.size());
+            for (byte[] rawKey : rawKeys) {
+                result.add(zSet ? connection.zCard(rawKey) : connection.sCard(rawKey));
+            }
+            return result;
+        });
+        List<Sized> sized = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Long size = sizes.get(i);
+            sized.add(new Sized(keys.get(i), Objects.isNull(size) ? 0L : size));
+        }
+        sized.sort(Comparator.comparingLong(s -> s.size));
+        return sized;
+    }
+
+    private void forEachMember(String key, Consumer<ByteBuffer> consumer) {
+        byte[] rawKey = support.rawKey(key);
+        ScanOptions options = ScanOptions.scanOptions().count(scanCount).build();
+        support.template().execute((RedisCallback<Void>) connection -> {
+            try (Cursor<byte[]> cursor = connection.sScan(rawKey, options)) {
+                while (cursor.hasNext()) {
+                    consumer.accept(ByteBuffer.wrap(cursor.next()));
+                }
+            } catch (IOException e) {
+                LOGGER.warn("关闭 SSCAN 游标失败: {}", key, e);
+            }
+            return null;
+        });
+    }
+
+    private void forEachTuple(String key, Consumer<RedisZSetCommands.Tuple> consumer) {
+        byte[] rawKey = support.rawKey(key);
+        ScanOptions options = ScanOptions.scanOptions().count(scanCount).build();
+        support.template().execute((RedisCallback<Void>) connection -> {
+            try (Cursor<RedisZSetCommands.Tuple> cursor = connection.zScan(rawKey, options)) {
+                while (cursor.hasNext()) {
+                    consumer.accept(cursor.next());
+                }
+            } catch (IOException e) {
+                LOGGER.warn("关闭 ZSCAN 游标失败: {}", key, e);
+            }
+            return null;
+        });
+    }
+
+    private Set<Object> deserialize(Set<ByteBuffer> members) {
+        RedisSerializer<Object> serializer = (RedisSerializer<Object>) support.template().getValueSerializer();
+        Set<Object> result = new LinkedHashSet<>(members.size() * 4 / 3 + 1);
+        for (ByteBuffer member : members) {
+            result.add(serializer.deserialize(bytes(member)));
+        }
+        return result;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        return buffer.array();
+    }
+
+    private static List<String> keys(String key, Collection<String> otherKeys) {
+        List<String> keys = new ArrayList<>(otherKeys.size() + 1);
+        keys.add(key);
+        keys.addAll(otherKeys);
+        return keys;
+    }
+
+    private static List<String> withDest(List<String> keys, String destKey) {
+        List<String> all = new ArrayList<>(keys);
+        all.add(destKey);
+        return all;
+    }
+
+    private static class Sized {
+
+        private final String key;
+
+        private final long size;
+
+        Sized(String key, long size) {
+            this.key = key;
+            this.size = size;
+        }
+    }
+
+    private interface NodeCallback<R> {
+
+        R doWith(RedisClusterAsyncCommands<byte[], byte[]> commands);
+    }
+
+    private interface Writer {
+
+        void write(RedisClusterAsyncCommands<byte[], byte[]> commands, byte[] tmpKey);
+    }
+
+}
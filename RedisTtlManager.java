@@ -0,0 +1,372 @@
+package club.wadreamer.utils;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * ClassName: RedisTtlManager
+ * Description: TODO 批量过期时间管理：按 hash slot 分组，各主节点并发发送流水线 PEXPIRE / PERSIST / PTTL，
+ * 支持 key 集合、通配符（SCAN 展开）与 Stream 三种输入；设置过期时间时可叠加随机抖动，避免同批写入的 key 同时过期。
+ * 集合输入返回按 key 排序、以数组保存的紧凑结果
+ * date: 2026/10/18 22:00
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisTtlManager {
+
+    private final RedisClusterSupport support;
+
+    private final RedisKeyScanner scanner;
+
+    // 每个节点同时在途的命令数量
+    private int pipelineDepth = 256;
+
+    // 通配符或 Stream 输入时，累计多少个 key 执行一次
+    private int flushSize = 10_000;
+
+    public RedisTtlManager(RedisClusterSupport support, RedisKeyScanner scanner) {
+        this.support = Objects.requireNonNull(support);
+        this.scanner = Objects.requireNonNull(scanner);
+    }
+
+    public void setPipelineDepth(int pipelineDepth) {
+        if (pipelineDepth <= 0) {
+            throw new IllegalArgumentException("pipelineDepth 必须大于 0");
+        }
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    public void setFlushSize(int flushSize) {
+        if (flushSize <= 0) {
+            throw new IllegalArgumentException("flushSize 必须大于 0");
+        }
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * @param keys
+     * @param time
+     * @param timeUnit
+     * @return {{@link BooleanResults}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:01
+     * @description: TODO 批量设置过期时间，结果为 false 表示 key 不存在
+     */
+    public BooleanResults expire(Collection<String> keys, long time, TimeUnit timeUnit) {
+        return expire(keys, time, 0, timeUnit);
+    }
+
+    /**
+     * @param keys
+     * @param time
+     * @param jitter
+     * @param timeUnit
+     * @return {{@link BooleanResults}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:02
+     * @description: TODO 批量设置过期时间，每个 key 的过期时间为 time 加上 [0, jitter] 内的随机值
+     */
+    public BooleanResults expire(Collection<String> keys, long time, long jitter, TimeUnit timeUnit) {
+        BiFunction<RedisClusterAsyncCommands<byte[], byte[]>, byte[], RedisFuture<Boolean>> command = expireCommand(time, jitter, timeUnit);
+        return new BooleanResults(execute(keys, command, true));
+    }
+
+    /**
+     * @param keys
+     * @return {{@link BooleanResults}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:03
+     * @description: TODO 批量移除过期时间，结果为 false 表示 key 不存在或本来就没有过期时间
+     */
+    public BooleanResults persist(Collection<String> keys) {
+        return new BooleanResults(execute(keys, RedisClusterAsyncCommands::persist, true));
+    }
+
+    /**
+     * @param keys
+     * @return {{@link LongResults}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:04
+     * @description: TODO 批量获取剩余过期时间（毫秒），-1 表示没有过期时间，-2 表示 key 不存在
+     */
+    public LongResults ttl(Collection<String> keys) {
+        return new LongResults(execute(keys, RedisClusterAsyncCommands::pttl, true));
+    }
+
+    /**
+     * @param pattern
+     * @param time
+     * @param jitter
+     * @param timeUnit
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:05
+     * @description: TODO 为匹配通配符的 key 设置过期时间，边扫描边设置，返回设置成功的数量
+     */
+    public long expireByPattern(String pattern, long time, long jitter, TimeUnit timeUnit) {
+        try (Stream<String> keys = scanner.stream(RedisScanOptions.match(pattern))) {
+            return expire(keys, time, jitter, timeUnit);
+        }
+    }
+
+    /**
+     * @param keys
+     * @param time
+     * @param jitter
+     * @param timeUnit
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:06
+     * @description: TODO 为 Stream 中的 key 设置过期时间，按 flushSize 分批执行，内存占用与 flushSize 成正比，返回设置成功的数量
+     */
+    public long expire(Stream<String> keys, long time, long jitter, TimeUnit timeUnit) {
+        return count(keys, expireCommand(time, jitter, timeUnit));
+    }
+
+    /**
+     * @param pattern
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:07
+     * @description: TODO 移除匹配通配符的 key 的过期时间，返回移除成功的数量
+     */
+    public long persistByPattern(String pattern) {
+        try (Stream<String> keys = scanner.stream(RedisScanOptions.match(pattern))) {
+            return persist(keys);
+        }
+    }
+
+    public long persist(Stream<String> keys) {
+        return count(keys, RedisClusterAsyncCommands::persist);
+    }
+
+    private BiFunction<RedisClusterAsyncCommands<byte[], byte[]>, byte[], RedisFuture<Boolean>> expireCommand(long time, long jitter, TimeUnit timeUnit) {
+        if (time <= 0 || jitter < 0) {
+            throw new IllegalArgumentException("time 必须大于 0，jitter 不能小于 0");
+        }
+        long millis = timeUnit.toMillis(time);
+        long jitterMillis = timeUnit.toMillis(jitter);
+        return (commands, rawKey) -> commands.pexpire(rawKey,
+                jitterMillis == 0 ? millis : millis + ThreadLocalRandom.current().nextLong(jitterMillis + 1));
+    }
+
+    // 通配符输入时扫描生产者仍占用线程池，各批在当前线程中逐个节点执行，不向线程池提交任务，避免线程耗尽导致死锁
+    private long count(Stream<String> keys, BiFunction<RedisClusterAsyncCommands<byte[], byte[]>, byte[], RedisFuture<Boolean>> command) {
+        List<String> buffer = new ArrayList<>(flushSize);
+        long applied = 0;
+        Iterator<String> iterator = keys.iterator();
+        while (iterator.hasNext()) {
+            buffer.add(iterator.next());
+            if (buffer.size() >= flushSize) {
+                applied += new BooleanResults(execute(buffer, command, false)).countTrue();
+                buffer.clear();
+            }
+        }
+        return applied + new BooleanResults(execute(buffer, command, false)).countTrue();
+    }
+
+    private <T> Map<String, T> execute(Collection<String> keys, BiFunction<RedisClusterAsyncCommands<byte[], byte[]>, byte[], RedisFuture<T>> command,
+                                       boolean parallel) {
+        if (Objects.isNull(keys) || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Collection<RedisClusterSupport.NodeGroup<String>> groups = support.groupByNode(new LinkedHashSet<>(keys), support::rawKey);
+        List<Callable<Map<String, T>>> tasks = new ArrayList<>(groups.size());
+        for (RedisClusterSupport.NodeGroup<String> group : groups) {
+            tasks.add(() -> executeOnNode(group, command));
+        }
+        Map<String, T> results = new HashMap<>(keys.size() * 4 / 3 + 1);
+        for (Map<String, T> partial : parallel ? support.invokeAll(tasks) : support.invokeSequentially(tasks)) {
+            results.putAll(partial);
+        }
+        return results;
+    }
+
+    private <T> Map<String, T> executeOnNode(RedisClusterSupport.NodeGroup<String> group,
+                                             BiFunction<RedisClusterAsyncCommands<byte[], byte[]>, byte[], RedisFuture<T>> command) {
+        Map<String, T> results = new HashMap<>(group.size() * 4 / 3 + 1);
+        RedisClusterConnection rc = support.openClusterConnection();
+        try {
+            RedisClusterAsyncCommands<byte[], byte[]> commands = support.nodeCommands(rc, group.getNode());
+            List<String> sent = new ArrayList<>(pipelineDepth);
+            List<RedisFuture<T>> inFlight = new ArrayList<>(pipelineDepth);
+            for (List<String> slotKeys : group.getSlots().values()) {
+                for (String key : slotKeys) {
+                    sent.add(key);
+                    inFlight.add(command.apply(commands, support.rawKey(key)));
+                    if (inFlight.size() >= pipelineDepth) {
+                        collect(sent, inFlight, results);
+                    }
+                }
+            }
+            collect(sent, inFlight, results);
+            return results;
+        } finally {
+            support.release(rc);
+        }
+    }
+
+    private <T> void collect(List<String> sent, List<RedisFuture<T>> inFlight, Map<String, T> results) {
+        List<T> replies = support.awaitAll(inFlight);
+        for (int i = 0; i < sent.size(); i++) {
+            results.put(sent.get(i), replies.get(i));
+        }
+        sent.clear();
+        inFlight.clear();
+    }
+
+    private static String[] sortedKeys(Map<String, ?> results) {
+        String[] keys = results.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    /**
+     * 以按 key 排序的数组与 BitSet 保存的批量结果，get 使用二分查找
+     */
+    public static class BooleanResults extends AbstractMap<String, Boolean> {
+
+        private final String[] keys;
+
+        private final BitSet values;
+
+        BooleanResults(Map<String, Boolean> results) {
+            this.keys = sortedKeys(results);
+            this.values = new BitSet(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                values.set(i, Boolean.TRUE.equals(results.get(keys[i])));
+            }
+        }
+
+        public int countTrue() {
+            return values.cardinality();
+        }
+
+        @Override
+        public Boolean get(Object key) {
+            int index = key instanceof String ? Arrays.binarySearch(keys, key) : -1;
+            return index < 0 ? null : values.get(index);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && Arrays.binarySearch(keys, key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Set<Entry<String, Boolean>> entrySet() {
+            return new AbstractSet<Entry<String, Boolean>>() {
+
+                @Override
+                public Iterator<Entry<String, Boolean>> iterator() {
+                    return new Iterator<Entry<String, Boolean>>() {
+
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, Boolean> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int current = index++;
+                            return new SimpleImmutableEntry<>(keys[current], values.get(current));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+    }
+
+    /**
+     * 以按 key 排序的数组与 long 数组保存的批量结果，get 使用二分查找
+     */
+    public static class LongResults extends AbstractMap<String, Long> {
+
+        private final String[] keys;
+
+        private final long[] values;
+
+        LongResults(Map<String, Long> results) {
+            this.keys = sortedKeys(results);
+            this.values = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                Long value = results.get(keys[i]);
+                values[i] = Objects.isNull(value) ? -2L : value;
+            }
+        }
+
+        @Override
+        public Long get(Object key) {
+            int index = key instanceof String ? Arrays.binarySearch(keys, key) : -1;
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && Arrays.binarySearch(keys, key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Set<Entry<String, Long>> entrySet() {
+            return new AbstractSet<Entry<String, Long>>() {
+
+                @Override
+                public Iterator<Entry<String, Long>> iterator() {
+                    return new Iterator<Entry<String, Long>>() {
+
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, Long> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int current = index++;
+                            return new SimpleImmutableEntry<>(keys[current], values[current]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+    }
+
+}
@@ -1,14 +1,21 @@
 package club.wadreamer.utils;
 
+import club.wadreamer.utils.RedisMetrics.Family;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
-import org.springframework.data.redis.connection.RedisClusterConnection;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * ClassName: RedisUtils
@@ -20,13 +27,358 @@ import java.util.concurrent.TimeUnit;
  */
 @Component
 @SuppressWarnings({"unchecked", "all"})
-public class RedisUtils {
+public class RedisUtils implements SmartInitializingSingleton {
+
+    // 写入并设置过期时间的 Lua 脚本，同步方法通过脚本注册表以 EVALSHA 执行，响应式方法由 ScriptExecutor 执行（NOSCRIPT 时自动回退为 EVAL）
+    static final RedisScript<Long> HSET_WITH_TTL = writeWithTtlScript("HSET", true);
+
+    static final RedisScript<Long> SADD_WITH_TTL = writeWithTtlScript("SADD", true);
+
+    static final RedisScript<Long> RPUSH_WITH_TTL = writeWithTtlScript("RPUSH", false);
+
+    private static final String HSET_WITH_TTL_NAME = "hset_with_ttl";
+
+    private static final String SADD_WITH_TTL_NAME = "sadd_with_ttl";
+
+    private static final String RPUSH_WITH_TTL_NAME = "rpush_with_ttl";
 
     // redis 配置文件中自动注入该 redisTemplate
     private RedisTemplate<Object, Object> redisTemplate;
 
+    // 集群按节点并发扫描 key
+    private RedisKeyScanner keyScanner;
+
+    // 基于续传令牌的 key 分页
+    private RedisKeyPager keyPager;
+
+    // 基于 SCAN + 流水线 UNLINK 的批量删除
+    private RedisBulkDeleter bulkDeleter;
+
+    // 按 slot 分组、各节点并发的批量获取
+    private RedisMultiGetter multiGetter;
+
+    // 带单次加载、重建租约与提前刷新的读取加载
+    private RedisCacheLoader cacheLoader;
+
+    // 分块流水线写入的大集合批量导入
+    private RedisBulkLoader bulkLoader;
+
+    // 跨 slot 的集合运算，同 slot 时在服务端执行
+    private RedisSetAlgebra setAlgebra;
+
+    // 以 Roaring bitmap 压缩保存的数值 id 集合
+    private RedisLongIdSet longIdSet;
+
+    // 按节点流水线执行的批量过期时间管理
+    private RedisTtlManager ttlManager;
+
+    // Lua 脚本注册表，启动时预加载到所有主节点，执行时只发送 EVALSHA
+    private RedisScriptRegistry scriptRegistry;
+
+    // 可选的进程内一级缓存，为空时 get / hGet 直接访问 Redis
+    private RedisNearCache nearCache;
+
+    // 可选的计数器写后合并，为空时延迟累加方法直接写入 Redis
+    private RedisCounterAggregator counterAggregator;
+
+    // 按命令族统计调用次数、耗时与错误，替代原先打印到标准输出的异常信息
+    private RedisMetrics metrics = new RedisMetrics();
+
+    // 可选的热点 key 探测，为空时不做采样
+    private RedisHotKeyDetector hotKeyDetector;
+
+    // 可选的熔断、截止时间与舱壁保护，为空时 get / hGet / set / hSet 直接访问 Redis
+    private RedisResilience resilience;
+
+    // 可选的并发命令自动批量执行，为空时 get / hSet / lSet 各自单独发送
+    private RedisAutoBatcher autoBatcher;
+
     public RedisUtils(RedisTemplate<Object, Object> redisTemplate) {
         this.redisTemplate = redisTemplate;
+        RedisClusterSupport clusterSupport = new RedisClusterSupport(redisTemplate);
+        this.keyScanner = new RedisKeyScanner(clusterSupport);
+        this.keyPager = new RedisKeyPager(clusterSupport, keyScanner);
+        this.bulkDeleter = new RedisBulkDeleter(clusterSupport, keyScanner);
+        this.multiGetter = new RedisMultiGetter(clusterSupport);
+        this.cacheLoader = new RedisCacheLoader(redisTemplate);
+        this.bulkLoader = new RedisBulkLoader(clusterSupport);
+        // 批量导入覆盖的 key 在导入结束后失效一级缓存
+        this.bulkLoader.setLoadListener(key -> evictNear(key));
+        this.setAlgebra = new RedisSetAlgebra(clusterSupport);
+        this.longIdSet = new RedisLongIdSet(clusterSupport);
+        this.ttlManager = new RedisTtlManager(clusterSupport, keyScanner);
+        this.scriptRegistry = new RedisScriptRegistry(clusterSupport);
+        scriptRegistry.register(HSET_WITH_TTL_NAME, HSET_WITH_TTL.getScriptAsString());
+        scriptRegistry.register(SADD_WITH_TTL_NAME, SADD_WITH_TTL.getScriptAsString());
+        scriptRegistry.register(RPUSH_WITH_TTL_NAME, RPUSH_WITH_TTL.getScriptAsString());
+        scriptRegistry.loadClasspath(RedisScriptRegistry.DEFAULT_LOCATION);
+    }
+
+    /**
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 22:40
+     * @description: TODO 容器启动完成后在后台把已注册的脚本预加载到所有主节点，不阻塞启动，失败时退避重试
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        scriptRegistry.preloadInBackground();
+    }
+
+    @Autowired(required = false)
+    public void setNearCache(RedisNearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public RedisNearCache getNearCache() {
+        return nearCache;
+    }
+
+    public RedisCacheLoader getCacheLoader() {
+        return cacheLoader;
+    }
+
+    public RedisBulkDeleter getBulkDeleter() {
+        return bulkDeleter;
+    }
+
+    public RedisMultiGetter getMultiGetter() {
+        return multiGetter;
+    }
+
+    public RedisBulkLoader getBulkLoader() {
+        return bulkLoader;
+    }
+
+    public RedisSetAlgebra getSetAlgebra() {
+        return setAlgebra;
+    }
+
+    public RedisLongIdSet getLongIdSet() {
+        return longIdSet;
+    }
+
+    public RedisTtlManager getTtlManager() {
+        return ttlManager;
+    }
+
+    public RedisScriptRegistry getScriptRegistry() {
+        return scriptRegistry;
+    }
+
+    @Autowired(required = false)
+    public void setCounterAggregator(RedisCounterAggregator counterAggregator) {
+        this.counterAggregator = counterAggregator;
+        if (Objects.nonNull(counterAggregator)) {
+            // 合并写入的 HINCRBYFLOAT / ZINCRBY 刷新后失效一级缓存
+            counterAggregator.setFlushListener(keys -> evictNear(keys.toArray(new String[0])));
+        }
+    }
+
+    @Autowired(required = false)
+    public void setMetrics(RedisMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    public RedisMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Autowired(required = false)
+    public void setHotKeyDetector(RedisHotKeyDetector hotKeyDetector) {
+        this.hotKeyDetector = hotKeyDetector;
+    }
+
+    public RedisHotKeyDetector getHotKeyDetector() {
+        return hotKeyDetector;
+    }
+
+    @Autowired(required = false)
+    public void setResilience(RedisResilience resilience) {
+        this.resilience = resilience;
+    }
+
+    public RedisResilience getResilience() {
+        return resilience;
+    }
+
+    /**
+     * @param command
+     * @param accumulate
+     * @return {{@link RedisScript< Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 14:30
+     * @description: TODO 生成"写入 + PEXPIRE"的原子脚本：ARGV[1] 为过期毫秒数（不大于 0 时不设置），其余为命令参数；
+     * 参数分段调用以避免 unpack 超出 Lua 栈限制，accumulate 为 true 时返回各段结果之和，否则返回最后一段的结果
+     */
+    static RedisScript<Long> writeWithTtlScript(String command, boolean accumulate) {
+        String script = "local n = 0\n"
+                + "for i = 2, #ARGV, 1000 do\n"
+                + "    n = " + (accumulate ? "n + " : "") + "redis.call('" + command + "', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))\n"
+                + "end\n"
+                + "local ttl = tonumber(ARGV[1])\n"
+                + "if ttl > 0 then\n"
+                + "    redis.call('PEXPIRE', KEYS[1], ttl)\n"
+                + "end\n"
+                + "return n";
+        return new DefaultRedisScript<>(script, Long.class);
+    }
+
+    /**
+     * @param scriptName
+     * @param key
+     * @param ttlMillis
+     * @param args
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 14:31
+     * @description: TODO 一次往返执行写入并设置过期时间，args 为已序列化的命令参数
+     */
+    private long writeWithTtl(String scriptName, String key, long ttlMillis, List<byte[]> args) {
+        Object[] scriptArgs = new Object[args.size() + 1];
+        scriptArgs[0] = ttlMillis;
+        for (int i = 0; i < args.size(); i++) {
+            scriptArgs[i + 1] = args.get(i);
+        }
+        Long result = scriptRegistry.execute(scriptName, Long.class, Collections.singletonList(key), scriptArgs);
+        return Objects.isNull(result) ? 0 : result;
+    }
+
+    private byte[] rawHashKey(Object item) {
+        return ((RedisSerializer<Object>) redisTemplate.getHashKeySerializer()).serialize(item);
+    }
+
+    private byte[] rawHashValue(Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getHashValueSerializer()).serialize(value);
+    }
+
+    private byte[] rawValue(Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+
+    private List<byte[]> rawValues(Collection<?> values) {
+        List<byte[]> raw = new ArrayList<>(values.size());
+        for (Object value : values) {
+            raw.add(rawValue(value));
+        }
+        return raw;
+    }
+
+    private List<byte[]> rawHash(Map<?, ?> map) {
+        List<byte[]> raw = new ArrayList<>(map.size() * 2);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            raw.add(rawHashKey(entry.getKey()));
+            raw.add(rawHashValue(entry.getValue()));
+        }
+        return raw;
+    }
+
+    private ScanOptions scanOptions(String pattern, long count) {
+        ScanOptions.ScanOptionsBuilder builder = ScanOptions.scanOptions().count(count);
+        if (Objects.nonNull(pattern)) {
+            builder.match(pattern);
+        }
+        return builder.build();
+    }
+
+    // 游标按需分批读取，关闭 Stream 时释放游标
+    private <T> Stream<T> cursorStream(Cursor<T> cursor) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        cursor.close();
+                    } catch (Exception e) {
+                        metrics.error(Family.SCAN, e);
+                    }
+                });
+    }
+
+    private void recordAccess(String key) {
+        if (Objects.nonNull(hotKeyDetector)) {
+            hotKeyDetector.record(key);
+        }
+    }
+
+    @Autowired(required = false)
+    public void setAutoBatcher(RedisAutoBatcher autoBatcher) {
+        this.autoBatcher = autoBatcher;
+    }
+
+    public RedisAutoBatcher getAutoBatcher() {
+        return autoBatcher;
+    }
+
+    // 启用自动批量执行时，与其他线程的单 key 命令合并为同一节点的一批写出
+    private Object getValue(String key) {
+        if (Objects.isNull(autoBatcher)) {
+            return redisTemplate.opsForValue().get(key);
+        }
+        byte[] raw = autoBatcher.await(autoBatcher.get(key));
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).deserialize(raw);
+    }
+
+    private void putHash(String key, String item, Object value) {
+        if (Objects.isNull(autoBatcher)) {
+            redisTemplate.opsForHash().put(key, item, value);
+            return;
+        }
+        autoBatcher.await(autoBatcher.hSet(key, rawHashKey(item), rawHashValue(value)));
+    }
+
+    private void rightPush(String key, Object value) {
+        if (Objects.isNull(autoBatcher)) {
+            redisTemplate.opsForList().rightPush(key, value);
+            return;
+        }
+        autoBatcher.await(autoBatcher.rPush(key, rawValue(value)));
+    }
+
+    // 配置了降级保护时经熔断器与舱壁执行，失败或熔断时返回本地最近值
+    private Object readValue(String key, Supplier<Object> command) {
+        return Objects.isNull(resilience) ? command.get() : resilience.readValue(key, command);
+    }
+
+    private Object readHash(String key, String item, Supplier<Object> command) {
+        return Objects.isNull(resilience) ? command.get() : resilience.readHash(key, item, command);
+    }
+
+    private boolean writeValue(String key, Object value, Runnable command) {
+        if (Objects.isNull(resilience)) {
+            command.run();
+            return true;
+        }
+        return resilience.writeValue(key, value, command);
+    }
+
+    private boolean writeHash(String key, String item, Object value, Runnable command) {
+        if (Objects.isNull(resilience)) {
+            command.run();
+            return true;
+        }
+        return resilience.writeHash(key, item, value, command);
+    }
+
+    /**
+     * @param keys
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 13:20
+     * @description: TODO 写操作后失效一级缓存中的 key（含通配符），并通知其他节点
+     */
+    private void evictNear(String... keys) {
+        if (Objects.isNull(nearCache) || Objects.isNull(keys)) {
+            return;
+        }
+        for (String key : keys) {
+            if (Objects.isNull(key)) {
+                continue;
+            }
+            if (RedisBulkDeleter.isPattern(key)) {
+                nearCache.invalidatePattern(key);
+            } else {
+                nearCache.invalidate(key);
+            }
+        }
     }
 
     // =================================== key 操作 ===================================
@@ -40,13 +392,17 @@ public class RedisUtils {
      * @description: TODO 设置 key 的过期时间
      */
     public boolean expire(String key, long time) {
+        long startNanos = metrics.start(Family.KEY);
         try {
             if (time > 0) {
                 redisTemplate.expire(key, time, TimeUnit.SECONDS);
+                evictNear(key);
             }
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.KEY, e);
             return false;
+        } finally {
+            metrics.stop(Family.KEY, startNanos);
         }
         return true;
     }
@@ -61,13 +417,17 @@ public class RedisUtils {
      * @description: TODO 指定时间单位，设置 key 的过期时间
      */
     public boolean expire(String key, long time, TimeUnit timeUnit) {
+        long startNanos = metrics.start(Family.KEY);
         try {
             if (time > 0) {
                 redisTemplate.expire(key, time, timeUnit);
+                evictNear(key);
             }
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.KEY, e);
             return false;
+        } finally {
+            metrics.stop(Family.KEY, startNanos);
         }
         return true;
     }
@@ -80,7 +440,59 @@ public class RedisUtils {
      * @description: TODO 获取过期时间
      */
     public long getExpire(String key) {
-        return redisTemplate.getExpire(key, TimeUnit.SECONDS);
+        long startNanos = metrics.start(Family.KEY);
+        try {
+            return redisTemplate.getExpire(key, TimeUnit.SECONDS);
+        } catch (RuntimeException e) {
+            metrics.error(Family.KEY, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.KEY, startNanos);
+        }
+    }
+
+    /**
+     * @param keys
+     * @param time
+     * @param jitter
+     * @param timeUnit
+     * @return {{@link Map< String, Boolean>}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:10
+     * @description: TODO 批量设置过期时间，按节点并发流水线执行，每个 key 的过期时间为 time 加上 [0, jitter] 内的随机值；
+     * 通配符与 Stream 输入使用 getTtlManager()
+     */
+    public Map<String, Boolean> expire(Collection<String> keys, long time, long jitter, TimeUnit timeUnit) {
+        long startNanos = metrics.start(Family.KEY);
+        try {
+            Map<String, Boolean> results = ttlManager.expire(keys, time, jitter, timeUnit);
+            evictNear(keys.toArray(new String[0]));
+            return results;
+        } catch (RuntimeException e) {
+            metrics.error(Family.KEY, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.KEY, startNanos);
+        }
+    }
+
+    /**
+     * @param keys
+     * @return {{@link Map< String, Long>}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:11
+     * @description: TODO 批量获取剩余过期时间（毫秒），按节点并发流水线执行，-1 表示没有过期时间，-2 表示 key 不存在
+     */
+    public Map<String, Long> getExpire(Collection<String> keys) {
+        long startNanos = metrics.start(Family.KEY);
+        try {
+            return ttlManager.ttl(keys);
+        } catch (RuntimeException e) {
+            metrics.error(Family.KEY, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.KEY, startNanos);
+        }
     }
 
     /**
@@ -91,55 +503,111 @@ public class RedisUtils {
      * @description: TODO 是否含有该 key
      */
     public boolean hasKey(String key) {
+        long startNanos = metrics.start(Family.KEY);
         try {
             return redisTemplate.hasKey(key);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.KEY, e);
             return false;
+        } finally {
+            metrics.stop(Family.KEY, startNanos);
         }
     }
 
+    /**
+     * @param key
+     * @param filter
+     * @param id
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:50
+     * @description: TODO 是否含有该 key，直接查询 Redis，不以过滤器的判断作为结果：本地镜像最多滞后一个刷新周期，
+     * 其他节点刚添加的 id 会被误判为不存在；未开启本地镜像时一次远程判断与直接查询 key 的开销相同，反而多一次往返
+     */
+    public boolean hasKey(String key, RedisBloomFilter filter, String id) {
+        return hasKey(key);
+    }
+
     /**
      * @param keys
-     * @return {}
+     * @return {{@link long}}
      * @author wadreamer
      * @date: 2020/12/16 14:31
-     * @description: TODO 删除一个或多个 key
+     * @description: TODO 删除一个或多个 key，多个参数时支持通配符（使用 SCAN 展开），返回实际删除的数量
      */
-    public void del(String... keys) {
+    public long del(String... keys) {
+        long startNanos = metrics.start(Family.KEY);
         try {
             if (Objects.nonNull(keys) && keys.length > 0) {
                 if (keys.length == 1) {
-                    redisTemplate.delete(keys[0]);
+                    boolean deleted = Boolean.TRUE.equals(redisTemplate.delete(keys[0]));
+                    if (Objects.nonNull(nearCache)) {
+                        nearCache.invalidate(keys[0]);
+                    }
+                    return deleted ? 1 : 0;
                 } else {
                     // 使用 set 去除重复的 key
-                    HashSet<Object> keySet = new HashSet<>();
-                    for (String key : keys) {
-                        keySet.addAll(redisTemplate.keys(key));
-                    }
-                    Long count = redisTemplate.delete(keySet);
+                    long count = bulkDeleter.deleteKeysOrPatterns(new LinkedHashSet<>(Arrays.asList(keys)));
+                    evictNear(keys);
+                    return count;
                 }
             }
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.KEY, e);
+        } finally {
+            metrics.stop(Family.KEY, startNanos);
         }
+        return 0;
     }
 
     /**
      * @param prefix
      * @param ids
-     * @return {}
+     * @return {{@link long}}
      * @author wadreamer
      * @date: 2020/12/16 14:38
-     * @description: TODO 删除以 prefix + id 为前缀的 key
+     * @description: TODO 删除以 prefix + id 为前缀的 key，返回实际删除的数量
      */
-    public void delByKeys(String prefix, Set<Long> ids) {
-        Set<Object> keys = new HashSet<>();
+    public long delByKeys(String prefix, Set<Long> ids) {
+        long startNanos = metrics.start(Family.KEY);
+        try {
+            List<String> keys = new ArrayList<>(ids.size());
 
-        for (Long id : ids) {
-            keys.addAll(redisTemplate.keys(new StringBuffer(prefix).append(id).toString()));
+            for (Long id : ids) {
+                keys.add(new StringBuffer(prefix).append(id).toString());
+            }
+            long count = bulkDeleter.deleteKeysOrPatterns(keys);
+            evictNear(keys.toArray(new String[0]));
+            return count;
+        } catch (RuntimeException e) {
+            metrics.error(Family.KEY, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.KEY, startNanos);
+        }
+    }
+
+    /**
+     * @param pattern
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 12:20
+     * @description: TODO 删除匹配通配符的所有 key，边扫描边删除，不阻塞 Redis
+     */
+    public long delByPattern(String pattern) {
+        long startNanos = metrics.start(Family.KEY);
+        try {
+            long count = bulkDeleter.deleteByPattern(pattern);
+            if (Objects.nonNull(nearCache)) {
+                nearCache.invalidatePattern(pattern);
+            }
+            return count;
+        } catch (RuntimeException e) {
+            metrics.error(Family.KEY, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.KEY, startNanos);
         }
-        redisTemplate.delete(keys);
     }
 
     /**
@@ -147,26 +615,60 @@ public class RedisUtils {
      * @return {{@link List< String>}}
      * @author wadreamer
      * @date: 2020/12/16 14:34
-     * @description: TODO 查找匹配 key
+     * @description: TODO 查找匹配 key，各主节点并发扫描；结果集较大时请使用 scanKeys 或 streamKeys
      */
     public List<String> matchkey(String pattern) {
-        ScanOptions options = ScanOptions.scanOptions().match(pattern).build();
-        RedisConnectionFactory factory = redisTemplate.getConnectionFactory();
-        RedisClusterConnection rc = Objects.requireNonNull(factory).getClusterConnection();
-
-        Cursor<byte[]> cursor = rc.scan(options);
-        List<String> result = new ArrayList<>();
-        while (cursor.hasNext()) {
-            result.add(new String(cursor.next()));
+        long startNanos = metrics.start(Family.SCAN);
+        try {
+            return keyScanner.list(RedisScanOptions.match(pattern));
+        } catch (RuntimeException e) {
+            metrics.error(Family.SCAN, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.SCAN, startNanos);
         }
+    }
 
+    /**
+     * @param options
+     * @param consumer
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:50
+     * @description: TODO 按扫描参数（COUNT、TYPE、总数上限）扫描匹配 key 并逐个回调，不在内存中缓存全部结果
+     */
+    public long scanKeys(RedisScanOptions options, Consumer<String> consumer) {
+        long startNanos = metrics.start(Family.SCAN);
         try {
-            RedisConnectionUtils.releaseConnection(rc, factory);
-        } catch (Exception e) {
-            System.out.println(e.getMessage());
+            return keyScanner.scan(options, consumer);
+        } catch (RuntimeException e) {
+            metrics.error(Family.SCAN, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.SCAN, startNanos);
         }
+    }
 
-        return result;
+    /**
+     * @param options
+     * @return {{@link Stream< String>}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:51
+     * @description: TODO 以 Stream 形式扫描匹配 key，使用完毕后需关闭 Stream 以停止扫描
+     */
+    public Stream<String> streamKeys(RedisScanOptions options) {
+        return keyScanner.stream(options);
+    }
+
+    /**
+     * @param options
+     * @return {{@link RedisKeyScanner.ScanSession}}
+     * @author wadreamer
+     * @date: 2026/10/18 10:52
+     * @description: TODO 开启扫描会话，可在迭代过程中查看各节点的扫描进度
+     */
+    public RedisKeyScanner.ScanSession openKeyScan(RedisScanOptions options) {
+        return keyScanner.open(options);
     }
 
     /**
@@ -176,69 +678,230 @@ public class RedisUtils {
      * @return {{@link List< String>}}
      * @author wadreamer
      * @date: 2020/12/16 14:42
-     * @description: TODO 分页查询 key
+     * @description: TODO 分页查询 key，需要跳过前 page * size 个 key；连续翻页请使用基于令牌的 findKeysForPage
      */
     public List<String> findKeysForPage(String patternKey, int page, int size) {
-        ScanOptions options = ScanOptions.scanOptions().match(patternKey).build();
-        RedisConnectionFactory factory = redisTemplate.getConnectionFactory();
-        RedisClusterConnection rc = Objects.requireNonNull(factory).getClusterConnection();
+        long startNanos = metrics.start(Family.SCAN);
+        try {
+            // 按节点 id 顺序依次扫描，保证同一页多次查询的结果一致
+            return keyPager.offsetPage(RedisScanOptions.match(patternKey), (long) page * size, size);
+        } catch (RuntimeException e) {
+            metrics.error(Family.SCAN, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.SCAN, startNanos);
+        }
+    }
+
+    /**
+     * @param patternKey
+     * @param size
+     * @param token
+     * @return {{@link RedisKeyPage}}
+     * @author wadreamer
+     * @date: 2026/10/18 11:30
+     * @description: TODO 基于令牌分页查询 key，token 为空时查询第一页，之后传入上一页返回的 nextToken
+     */
+    public RedisKeyPage findKeysForPage(String patternKey, int size, String token) {
+        long startNanos = metrics.start(Family.SCAN);
+        try {
+            return keyPager.page(RedisScanOptions.match(patternKey), size, token);
+        } catch (RuntimeException e) {
+            metrics.error(Family.SCAN, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.SCAN, startNanos);
+        }
+    }
 
-        Cursor<byte[]> cursor = rc.scan(options);
-        List<String> result = new ArrayList<>();
+    /**
+     * @param options
+     * @param size
+     * @param token
+     * @return {{@link RedisKeyPage}}
+     * @author wadreamer
+     * @date: 2026/10/18 11:31
+     * @description: TODO 基于令牌分页查询 key，可指定 COUNT 提示与 TYPE 过滤
+     */
+    public RedisKeyPage findKeysForPage(RedisScanOptions options, int size, String token) {
+        long startNanos = metrics.start(Family.SCAN);
+        try {
+            return keyPager.page(options, size, token);
+        } catch (RuntimeException e) {
+            metrics.error(Family.SCAN, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.SCAN, startNanos);
+        }
+    }
 
-        int tmpIndex = 0;
-        int fromIndex = page * size;
-        int endIndex = page * size + size;
+    /**
+     * @param patternKey
+     * @param size
+     * @param token
+     * @param snapshotSeconds
+     * @return {{@link RedisKeyPage}}
+     * @author wadreamer
+     * @date: 2026/10/18 11:32
+     * @description: TODO 基于服务端短期快照分页查询 key，跨页顺序稳定，快照在 snapshotSeconds 秒后过期
+     */
+    public RedisKeyPage findKeysForPageSnapshot(String patternKey, int size, String token, long snapshotSeconds) {
+        long startNanos = metrics.start(Family.SCAN);
+        try {
+            return keyPager.snapshotPage(RedisScanOptions.match(patternKey), size, token, snapshotSeconds);
+        } catch (RuntimeException e) {
+            metrics.error(Family.SCAN, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.SCAN, startNanos);
+        }
+    }
 
-        while (cursor.hasNext()) {
-            if (tmpIndex >= fromIndex && tmpIndex < endIndex) {
-                result.add(new String(cursor.next()));
-                tmpIndex++;
-                continue;
-            }
+    // =================================== String 操作 ===================================
 
-            if (tmpIndex >= endIndex) {
-                break;
+    /**
+     * @param key
+     * @return {{@link Object}}
+     * @author wadreamer
+     * @date: 2020/12/16 14:42
+     * @description: TODO 单个缓存获取
+     */
+    public Object get(String key) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.VALUE_GET);
+        try {
+            if (Objects.isNull(key)) {
+                return null;
             }
-
-            tmpIndex++;
-            cursor.next();
+            RedisNearCache near = nearCache;
+            if (Objects.isNull(near)) {
+                return readValue(key, () -> getValue(key));
+            }
+            // 一级缓存在调用线程上查询，只有访问 Redis 的部分经过熔断器与舱壁
+            Object cached = near.getIfPresent(key);
+            return Objects.nonNull(cached) ? cached : readValue(key, () -> near.load(key));
+        } catch (RuntimeException e) {
+            metrics.error(Family.VALUE_GET, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.VALUE_GET, startNanos);
         }
+    }
 
+    /**
+     * @param key
+     * @param time
+     * @param timeUnit
+     * @param loader
+     * @return {{@link T}}
+     * @author wadreamer
+     * @date: 2026/10/18 18:40
+     * @description: TODO 读取缓存，未命中时加载并写入：同一 JVM 内并发未命中只加载一次，跨节点只有取得租约者重建，
+     * 其他调用方返回旧值；临近过期的值按概率在后台提前刷新。通过该方法写入的值应只通过该方法读取
+     */
+    public <T> T getOrLoad(String key, long time, TimeUnit timeUnit, Supplier<T> loader) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.VALUE_GET);
         try {
-            RedisConnectionUtils.releaseConnection(rc, factory);
-        } catch (Exception e) {
-            System.out.println(e.getMessage());
+            return cacheLoader.getOrLoad(key, time, timeUnit, loader);
+        } catch (RuntimeException e) {
+            metrics.error(Family.VALUE_GET, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.VALUE_GET, startNanos);
         }
-        return result;
     }
 
-    // =================================== String 操作 ===================================
-
     /**
      * @param key
+     * @param filter
+     * @param id
      * @return {{@link Object}}
      * @author wadreamer
-     * @date: 2020/12/16 14:42
-     * @description: TODO 单个缓存获取
+     * @date: 2026/10/18 20:51
+     * @description: TODO 单个缓存获取，直接读取缓存，不以过滤器的判断作为结果：本地镜像最多滞后一个刷新周期，
+     * 其他节点刚添加的 id 会被误判为不存在，提前返回 null 会漏掉已存在的缓存
+     */
+    public Object get(String key, RedisBloomFilter filter, String id) {
+        return get(key);
+    }
+
+    /**
+     * @param key
+     * @param filter
+     * @param id
+     * @param time
+     * @param timeUnit
+     * @param loader
+     * @return {{@link T}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:52
+     * @description: TODO 同 getOrLoad，布隆过滤器判定 id 不存在时返回 null 且不调用 loader 查询数据库，用于拦截请求不存在 id 的缓存穿透；
+     * 过滤器只在缓存未命中、调用 loader 之前判断，已存在的缓存总能读到，命中缓存时也不多一次往返；新增数据时需同时调用 filter.add(id)
+     */
+    public <T> T getOrLoad(String key, RedisBloomFilter filter, String id, long time, TimeUnit timeUnit, Supplier<T> loader) {
+        return getOrLoad(key, time, timeUnit, () -> filter.mightContain(id) ? loader.get() : null);
+    }
+
+    /**
+     * @param key
+     * @return {{@link List< Object>}}
+     * @author wadreamer
+     * @date: 2020/12/16 14:42
+     * @description: TODO 批量获取缓存，重复的 key 只取一次，结果按输入顺序排列并去除未命中的值
+     */
+    public List<Object> multiGet(List<String> key) {
+        long startNanos = metrics.start(Family.VALUE_GET);
+        try {
+            Map<String, Object> values = multiGetter.getAsMap(key);
+            ArrayList<Object> resultList = Lists.newArrayListWithCapacity(values.size());
+            // Lambda 表达式
+            values.values().forEach(item -> Optional.ofNullable(item).ifPresent(resultList::add));
+            return resultList;
+        } catch (RuntimeException e) {
+            metrics.error(Family.VALUE_GET, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.VALUE_GET, startNanos);
+        }
+    }
+
+    /**
+     * @param keys
+     * @return {{@link List< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 14:10
+     * @description: TODO 批量获取缓存，结果与 keys 按下标一一对应，未命中的位置为 null
      */
-    public Object get(String key) {
-        return Objects.isNull(key) ? null : redisTemplate.opsForValue().get(key);
+    public List<Object> multiGetInOrder(List<String> keys) {
+        long startNanos = metrics.start(Family.VALUE_GET);
+        try {
+            return multiGetter.getAll(keys);
+        } catch (RuntimeException e) {
+            metrics.error(Family.VALUE_GET, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.VALUE_GET, startNanos);
+        }
     }
 
     /**
-     * @param key
-     * @return {{@link List< Object>}}
+     * @param keys
+     * @return {{@link Map< String, Object>}}
      * @author wadreamer
-     * @date: 2020/12/16 14:42
-     * @description: TODO 批量获取缓存
+     * @date: 2026/10/18 14:11
+     * @description: TODO 批量获取缓存，返回按输入顺序排列的 key -> value，未命中的 key 对应 null
      */
-    public List<Object> multiGet(List<String> key) {
-        List<Object> list = redisTemplate.opsForValue().multiGet(Sets.newHashSet(key));
-        ArrayList<Object> resultList = Lists.newArrayList();
-        // Lambda 表达式
-        Optional.ofNullable(list).ifPresent(e -> list.forEach(item -> Optional.ofNullable(item).ifPresent(resultList::add)));
-        return resultList;
+    public Map<String, Object> multiGetAsMap(Collection<String> keys) {
+        long startNanos = metrics.start(Family.VALUE_GET);
+        try {
+            return multiGetter.getAsMap(keys);
+        } catch (RuntimeException e) {
+            metrics.error(Family.VALUE_GET, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.VALUE_GET, startNanos);
+        }
     }
 
     /**
@@ -250,12 +913,17 @@ public class RedisUtils {
      * @description: TODO 存入单个缓存
      */
     public boolean set(String key, String value) {
+        long startNanos = metrics.start(Family.VALUE_SET);
         try {
-            redisTemplate.opsForValue().set(key, value);
-            return true;
+            return writeValue(key, value, () -> {
+                redisTemplate.opsForValue().set(key, value);
+                evictNear(key);
+            });
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.VALUE_SET, e);
             return false;
+        } finally {
+            metrics.stop(Family.VALUE_SET, startNanos);
         }
     }
 
@@ -269,17 +937,7 @@ public class RedisUtils {
      * @description: TODO 存入单个缓存，并指定过期时间
      */
     public boolean set(String key, String value, long time) {
-        try {
-            if (time > 0) {
-                redisTemplate.opsForValue().set(key, value, time, TimeUnit.SECONDS);
-            } else {
-                set(key, value);
-            }
-            return true;
-        } catch (Exception e) {
-            System.out.println(e.getMessage());
-            return false;
-        }
+        return set(key, value, time, TimeUnit.SECONDS);
     }
 
     /**
@@ -293,16 +951,21 @@ public class RedisUtils {
      * @description: TODO 存入单个缓存，并指定过期时间和时间单位
      */
     public boolean set(String key, String value, long time, TimeUnit timeUnit) {
+        if (time <= 0) {
+            // 不带过期时间的写入由 set(key, value) 自行计时，避免重复计数
+            return set(key, value);
+        }
+        long startNanos = metrics.start(Family.VALUE_SET);
         try {
-            if (time > 0) {
+            return writeValue(key, value, () -> {
                 redisTemplate.opsForValue().set(key, value, time, timeUnit);
-            } else {
-                set(key, value);
-            }
-            return true;
+                evictNear(key);
+            });
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.VALUE_SET, e);
             return false;
+        } finally {
+            metrics.stop(Family.VALUE_SET, startNanos);
         }
     }
 
@@ -315,11 +978,130 @@ public class RedisUtils {
      * @description: TODO 若不存在，则存入值
      */
     public boolean setIfAbsent(String key, String value) {
+        long startNanos = metrics.start(Family.VALUE_SET);
+        try {
+            boolean absent = redisTemplate.opsForValue().setIfAbsent(key, value);
+            if (absent) {
+                evictNear(key);
+            }
+            return absent;
+        } catch (Exception e) {
+            metrics.error(Family.VALUE_SET, e);
+            return false;
+        } finally {
+            metrics.stop(Family.VALUE_SET, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @param time
+     * @param timeUnit
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:10
+     * @description: TODO 不存在时存入并设置过期时间（SET NX PX，一次原子操作），需要分布式锁时请使用 RedisLocks
+     */
+    public boolean setIfAbsent(String key, String value, long time, TimeUnit timeUnit) {
+        long startNanos = metrics.start(Family.VALUE_SET);
+        try {
+            boolean absent = Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, time, timeUnit));
+            if (absent) {
+                evictNear(key);
+            }
+            return absent;
+        } catch (Exception e) {
+            metrics.error(Family.VALUE_SET, e);
+            return false;
+        } finally {
+            metrics.stop(Family.VALUE_SET, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param expect
+     * @param update
+     * @param time
+     * @param timeUnit
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:41
+     * @description: TODO 当前值等于 expect 时替换为 update（expect 为 null 表示期望 key 不存在），比较与写入在服务端原子执行；
+     * time 大于 0 时同时设置过期时间，否则新值不过期；未替换或失败时返回 false
+     */
+    public boolean compareAndSet(String key, Object expect, Object update, long time, TimeUnit timeUnit) {
+        long startNanos = metrics.start(Family.VALUE_SET);
         try {
-            return redisTemplate.opsForValue().setIfAbsent(key, value);
+            boolean absent = Objects.isNull(expect);
+            Long swapped = scriptRegistry.execute(RedisScriptRegistry.COMPARE_AND_SET, Long.class, Collections.singletonList(key),
+                    absent ? new byte[0] : rawValue(expect), rawValue(update), absent ? 1 : 0, time > 0 ? timeUnit.toMillis(time) : 0);
+            boolean applied = Objects.nonNull(swapped) && swapped == 1;
+            if (applied) {
+                evictNear(key);
+            }
+            return applied;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.VALUE_SET, e);
             return false;
+        } finally {
+            metrics.stop(Family.VALUE_SET, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param delta
+     * @param time
+     * @param timeUnit
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:42
+     * @description: TODO 自增并在 key 没有过期时间时设置过期时间，一次往返，适合固定窗口计数；
+     * 值须以纯数字文本保存（如 StringRedisSerializer），返回自增后的值，失败时返回 0
+     */
+    public long incr(String key, long delta, long time, TimeUnit timeUnit) {
+        long startNanos = metrics.start(Family.VALUE_SET);
+        try {
+            Long value = scriptRegistry.execute(RedisScriptRegistry.INCR_WITH_TTL, Long.class, Collections.singletonList(key),
+                    delta, time > 0 ? timeUnit.toMillis(time) : 0);
+            evictNear(key);
+            return value;
+        } catch (Exception e) {
+            metrics.error(Family.VALUE_SET, e);
+            return 0;
+        } finally {
+            metrics.stop(Family.VALUE_SET, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param delta
+     * @param cap
+     * @param time
+     * @param timeUnit
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:43
+     * @description: TODO 带上限的自增：自增后会超过 cap 时不修改并返回 -1，否则返回自增后的值；
+     * key 没有过期时间时同时设置过期时间，适合配额、库存等计数。失败时同样返回 -1，按未获得额度处理
+     */
+    public long incrCapped(String key, long delta, long cap, long time, TimeUnit timeUnit) {
+        long startNanos = metrics.start(Family.VALUE_SET);
+        try {
+            Long value = scriptRegistry.execute(RedisScriptRegistry.CAPPED_INCR, Long.class, Collections.singletonList(key),
+                    delta, cap, time > 0 ? timeUnit.toMillis(time) : 0);
+            if (value >= 0) {
+                evictNear(key);
+            }
+            return value;
+        } catch (Exception e) {
+            metrics.error(Family.VALUE_SET, e);
+            return -1;
+        } finally {
+            metrics.stop(Family.VALUE_SET, startNanos);
         }
     }
 
@@ -334,7 +1116,25 @@ public class RedisUtils {
      * @description: TODO 获取 map 类型的缓存
      */
     public Object hGet(String key, String item) {
-        return (Objects.isNull(key) || Objects.isNull(item)) ? null : redisTemplate.opsForHash().get(key, item);
+        recordAccess(key);
+        long startNanos = metrics.start(Family.HASH);
+        try {
+            if (Objects.isNull(key) || Objects.isNull(item)) {
+                return null;
+            }
+            RedisNearCache near = nearCache;
+            if (Objects.isNull(near)) {
+                return readHash(key, item, () -> redisTemplate.opsForHash().get(key, item));
+            }
+            // 一级缓存在调用线程上查询，只有访问 Redis 的部分经过熔断器与舱壁
+            Object cached = near.hGetIfPresent(key, item);
+            return Objects.nonNull(cached) ? cached : readHash(key, item, () -> near.hLoad(key, item));
+        } catch (RuntimeException e) {
+            metrics.error(Family.HASH, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
+        }
     }
 
     /**
@@ -345,7 +1145,41 @@ public class RedisUtils {
      * @description: TODO 批量获取 map 类型的缓存
      */
     public Map<Object, Object> hmGet(String key) {
-        return Objects.isNull(key) ? null : redisTemplate.opsForHash().entries(key);
+        long startNanos = metrics.start(Family.HASH);
+        try {
+            return Objects.isNull(key) ? null : redisTemplate.opsForHash().entries(key);
+        } catch (RuntimeException e) {
+            metrics.error(Family.HASH, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param count
+     * @return {{@link Stream< Map.Entry< Object, Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:00
+     * @description: TODO 以 HSCAN 流式遍历 map 类型的缓存，每次向 Redis 取约 count 个 field，消费到哪里取到哪里，
+     * 适用于 field 数量很大的 hash；使用完毕需关闭 Stream（try-with-resources）以释放游标
+     */
+    public Stream<Map.Entry<Object, Object>> hScan(String key, long count) {
+        return hScan(key, null, count);
+    }
+
+    /**
+     * @param key
+     * @param pattern
+     * @param count
+     * @return {{@link Stream< Map.Entry< Object, Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:01
+     * @description: TODO 以 HSCAN 流式遍历 map 类型缓存中 field 匹配通配符的条目
+     */
+    public Stream<Map.Entry<Object, Object>> hScan(String key, String pattern, long count) {
+        return cursorStream(redisTemplate.opsForHash().scan(key, scanOptions(pattern, count)));
     }
 
     /**
@@ -358,12 +1192,17 @@ public class RedisUtils {
      * @description: TODO 存入 map 类型的缓存
      */
     public boolean hSet(String key, String item, Object value) {
+        long startNanos = metrics.start(Family.HASH);
         try {
-            redisTemplate.opsForHash().put(key, item, value);
-            return true;
+            return writeHash(key, item, value, () -> {
+                putHash(key, item, value);
+                evictNear(key);
+            });
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.HASH, e);
             return false;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
         }
     }
 
@@ -375,18 +1214,20 @@ public class RedisUtils {
      * @return {{@link boolean}}
      * @author wadreamer
      * @date: 2020/12/16 14:43
-     * @description: TODO 存入 map 类型的缓存，并指定过期时间
+     * @description: TODO 存入 map 类型的缓存，并指定过期时间，写入与设置过期时间为一次原子操作
      */
     public boolean hSet(String key, String item, Object value, long time) {
+        long startNanos = metrics.start(Family.HASH);
         try {
-            redisTemplate.opsForHash().put(key, item, value);
-            if (time > 0) {
-                expire(key, time);
-            }
-            return true;
+            return writeHash(key, item, value, () -> {
+                writeWithTtl(HSET_WITH_TTL_NAME, key, TimeUnit.SECONDS.toMillis(time), Arrays.asList(rawHashKey(item), rawHashValue(value)));
+                evictNear(key);
+            });
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.HASH, e);
             return false;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
         }
     }
 
@@ -396,15 +1237,59 @@ public class RedisUtils {
      * @return {{@link boolean}}
      * @author wadreamer
      * @date: 2020/12/16 14:43
-     * @description: TODO 批量存入 map 类型的缓存
+     * @description: TODO 批量存入 map 类型的缓存，整个 map 作为一条 HMSET 发送；数据量很大时使用 getBulkLoader().loadHash 分块导入
      */
     public boolean hmSet(String key, HashMap<String, Object> map) {
+        long startNanos = metrics.start(Family.HASH);
         try {
             redisTemplate.opsForHash().putAll(key, map);
+            evictNear(key);
+            return true;
+        } catch (Exception e) {
+            metrics.error(Family.HASH, e);
+            return false;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param map
+     * @param time
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 14:35
+     * @description: TODO 批量存入 map 类型的缓存，并指定过期时间，写入与设置过期时间为一次原子操作
+     */
+    public boolean hmSet(String key, Map<String, Object> map, long time) {
+        return hmSet(key, map, time, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param key
+     * @param map
+     * @param time
+     * @param timeUnit
+     * @return {{@link boolean}}
+     * @author wadreamer
+     * @date: 2026/10/18 14:36
+     * @description: TODO 批量存入 map 类型的缓存，并指定过期时间和时间单位，写入与设置过期时间为一次原子操作
+     */
+    public boolean hmSet(String key, Map<String, Object> map, long time, TimeUnit timeUnit) {
+        long startNanos = metrics.start(Family.HASH);
+        try {
+            if (map.isEmpty()) {
+                return true;
+            }
+            writeWithTtl(HSET_WITH_TTL_NAME, key, timeUnit.toMillis(time), rawHash(map));
+            evictNear(key);
             return true;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.HASH, e);
             return false;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
         }
     }
 
@@ -417,7 +1302,16 @@ public class RedisUtils {
      * @description: TODO 删除 map 类型的缓存
      */
     public void hDel(String key, Object... items) {
-        redisTemplate.opsForHash().delete(key, items);
+        long startNanos = metrics.start(Family.HASH);
+        try {
+            redisTemplate.opsForHash().delete(key, items);
+            evictNear(key);
+        } catch (RuntimeException e) {
+            metrics.error(Family.HASH, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
+        }
     }
 
     /**
@@ -429,7 +1323,15 @@ public class RedisUtils {
      * @description: TODO 判断以 item 为 key 的 map 类型的缓存是否存在
      */
     public boolean hHasKey(String key, String item) {
-        return (Objects.isNull(key) || Objects.isNull(item)) ? null : redisTemplate.opsForHash().hasKey(key, item);
+        long startNanos = metrics.start(Family.HASH);
+        try {
+            return (Objects.isNull(key) || Objects.isNull(item)) ? null : redisTemplate.opsForHash().hasKey(key, item);
+        } catch (RuntimeException e) {
+            metrics.error(Family.HASH, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
+        }
     }
 
     /**
@@ -442,7 +1344,17 @@ public class RedisUtils {
      * @description: TODO 使 map 类型的缓存自增长指定的值
      */
     public double hIncr(String key, String item, double by) {
-        return redisTemplate.opsForHash().increment(key, item, by);
+        long startNanos = metrics.start(Family.HASH);
+        try {
+            double value = redisTemplate.opsForHash().increment(key, item, by);
+            evictNear(key);
+            return value;
+        } catch (RuntimeException e) {
+            metrics.error(Family.HASH, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
+        }
     }
 
     /**
@@ -455,7 +1367,34 @@ public class RedisUtils {
      * @description: TODO 使 map 类型的缓存自递减指定的值
      */
     public double hDecr(String key, String item, double by) {
-        return redisTemplate.opsForHash().increment(key, item, -by);
+        long startNanos = metrics.start(Family.HASH);
+        try {
+            double value = redisTemplate.opsForHash().increment(key, item, -by);
+            evictNear(key);
+            return value;
+        } catch (RuntimeException e) {
+            metrics.error(Family.HASH, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.HASH, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param item
+     * @param by
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 16:20
+     * @description: TODO 延迟累加 map 类型缓存的值，增量在本地合并后批量写入，适用于浏览数、点赞数等高频计数
+     */
+    public void hIncrDeferred(String key, String item, double by) {
+        if (Objects.isNull(counterAggregator)) {
+            hIncr(key, item, by);
+            return;
+        }
+        counterAggregator.hIncr(key, item, by);
     }
 
     // =================================== Set 操作 ===================================
@@ -468,14 +1407,43 @@ public class RedisUtils {
      * @description: TODO 获取 set 类型的缓存
      */
     public Set<Object> sGet(String key) {
+        long startNanos = metrics.start(Family.SET);
         try {
             return redisTemplate.opsForSet().members(key);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
+    /**
+     * @param key
+     * @param count
+     * @return {{@link Stream< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:02
+     * @description: TODO 以 SSCAN 流式遍历 set 类型的缓存，每次向 Redis 取约 count 个元素，元素在消费时才反序列化；
+     * 使用完毕需关闭 Stream（try-with-resources）以释放游标
+     */
+    public Stream<Object> sScan(String key, long count) {
+        return sScan(key, null, count);
+    }
+
+    /**
+     * @param key
+     * @param pattern
+     * @param count
+     * @return {{@link Stream< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:03
+     * @description: TODO 以 SSCAN 流式遍历 set 类型缓存中匹配通配符的元素
+     */
+    public Stream<Object> sScan(String key, String pattern, long count) {
+        return cursorStream(redisTemplate.opsForSet().scan(key, scanOptions(pattern, count)));
+    }
+
     /**
      * @param key
      * @param value
@@ -485,11 +1453,14 @@ public class RedisUtils {
      * @description: TODO 判断 set 类型的缓存中是否存在指定的值
      */
     public boolean sHasKey(String key, Object value) {
+        long startNanos = metrics.start(Family.SET);
         try {
             return redisTemplate.opsForSet().isMember(key, value);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return false;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -499,14 +1470,17 @@ public class RedisUtils {
      * @return {{@link long}}
      * @author wadreamer
      * @date: 2020/12/16 14:43
-     * @description: TODO 存入 set 类型的缓存
+     * @description: TODO 存入 set 类型的缓存；大量数值 id 使用 getLongIdSet() 压缩保存，内存占用小一个数量级以上
      */
     public long sSet(String key, Object... values) {
+        long startNanos = metrics.start(Family.SET);
         try {
             return redisTemplate.opsForSet().add(key, values);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return 0;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -517,18 +1491,17 @@ public class RedisUtils {
      * @return {{@link long}}
      * @author wadreamer
      * @date: 2020/12/16 14:43
-     * @description: TODO 存储 set 类型的缓存，并指定过期时间
+     * @description: TODO 存储 set 类型的缓存，并指定过期时间，写入与设置过期时间为一次原子操作
      */
     public long sSet(String key, long time, Object... values) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            Long count = redisTemplate.opsForSet().add(key, values);
-            if (time > 0) {
-                expire(key, time);
-            }
-            return count;
+            return writeWithTtl(SADD_WITH_TTL_NAME, key, TimeUnit.SECONDS.toMillis(time), rawValues(Arrays.asList(values)));
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return 0;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -540,11 +1513,14 @@ public class RedisUtils {
      * @description: TODO 获取 set 类型的缓存的大小
      */
     public long sGetSetSize(String key) {
+        long startNanos = metrics.start(Family.SET);
         try {
             return redisTemplate.opsForSet().size(key);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return 0;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -557,12 +1533,15 @@ public class RedisUtils {
      * @description: TODO 移除 set 类型的缓存中指定的值
      */
     public long setRemove(String key, Object... values) {
+        long startNanos = metrics.start(Family.SET);
         try {
             Long count = redisTemplate.opsForSet().remove(key, values);
             return count;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return 0;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -572,14 +1551,17 @@ public class RedisUtils {
      * @return {{@link Set< Object>}}
      * @author wadreamer
      * @date: 2020/12/16 15:44
-     * @description: TODO 获取两个 set 类型的缓存的交集
+     * @description: TODO 获取两个 set 类型的缓存的交集，key 不在同一 slot 时在客户端计算
      */
     public Set<Object> sIntersect(String key, String anotherKey) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().intersect(key, anotherKey);
+            return setAlgebra.intersect(key, Collections.singletonList(anotherKey));
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -589,14 +1571,17 @@ public class RedisUtils {
      * @return {{@link Set< Object>}}
      * @author wadreamer
      * @date: 2020/12/16 15:45
-     * @description: TODO 获取某个集合与多个集合的交集
+     * @description: TODO 获取某个集合与多个集合的交集，key 不在同一 slot 时从元素最少的集合开始在客户端计算
      */
     public Set<Object> sIntersect(String key, Collection<String> otherKeys) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().intersect(key, otherKeys);
+            return setAlgebra.intersect(key, otherKeys);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -610,11 +1595,14 @@ public class RedisUtils {
      * @description: TODO 将两个集合的交集存入到另一个集合中
      */
     public Long sIntersectAndStore(String key, String anotherKey, String destKey) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().intersectAndStore(key, anotherKey, destKey);
+            return setAlgebra.intersectAndStore(key, Collections.singletonList(anotherKey), destKey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -628,11 +1616,14 @@ public class RedisUtils {
      * @description: TODO 将某个集合与多个集合的交集存储到另一个集合中
      */
     public Long sIntersectAndStore(String key, Collection<String> othersKey, String destKey) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().intersectAndStore(key, othersKey, destKey);
+            return setAlgebra.intersectAndStore(key, othersKey, destKey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -645,11 +1636,14 @@ public class RedisUtils {
      * @description: TODO 获取两个 set 类型的缓存的并集
      */
     public Set<Object> sUnion(String key, String anotherKey) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().union(key, anotherKey);
+            return setAlgebra.union(key, Collections.singletonList(anotherKey));
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -662,11 +1656,14 @@ public class RedisUtils {
      * @description: TODO 获取某个集合和多个集合的并集
      */
     public Set<Object> sUnion(String key, Collection<String> otherKeys) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().union(key, otherKeys);
+            return setAlgebra.union(key, otherKeys);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -679,11 +1676,14 @@ public class RedisUtils {
      * @description: TODO 获取两个 set 类型的缓存的并集，并存储到指定集合中
      */
     public Long sUnion(String key, String anotherKey, String destkey) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().unionAndStore(key, anotherKey, destkey);
+            return setAlgebra.unionAndStore(key, Collections.singletonList(anotherKey), destkey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -696,11 +1696,14 @@ public class RedisUtils {
      * @description: TODO 获取某个集合和多个集合的并集，并存储到指定集合中
      */
     public Long sUnion(String key, Collection<String> otherKeys, String destKey) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().unionAndStore(key, otherKeys, destKey);
+            return setAlgebra.unionAndStore(key, otherKeys, destKey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -713,11 +1716,14 @@ public class RedisUtils {
      * @description: TODO 获取两个 set 类型的缓存的差集
      */
     public Set<Object> sDifference(String key, String anotherKey) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().difference(key, anotherKey);
+            return setAlgebra.difference(key, Collections.singletonList(anotherKey));
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -730,11 +1736,14 @@ public class RedisUtils {
      * @description: TODO 获取某个集合和多个集合的差集
      */
     public Set<Object> sDifference(String key, Collection<String> otherKeys) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().difference(key, otherKeys);
+            return setAlgebra.difference(key, otherKeys);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -747,11 +1756,14 @@ public class RedisUtils {
      * @description: TODO 获取两个 set 类型的缓存的差集，并存储到指定集合中
      */
     public Long sDifference(String key, String anotherKey, String destkey) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().differenceAndStore(key, anotherKey, destkey);
+            return setAlgebra.differenceAndStore(key, Collections.singletonList(anotherKey), destkey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -764,11 +1776,14 @@ public class RedisUtils {
      * @description: TODO 获取某个集合和多个集合的差集，并存储到指定集合中
      */
     public Long sDifference(String key, Collection<String> otherKeys, String destKey) {
+        long startNanos = metrics.start(Family.SET);
         try {
-            return redisTemplate.opsForSet().differenceAndStore(key, otherKeys, destKey);
+            return setAlgebra.differenceAndStore(key, otherKeys, destKey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.SET, e);
             return null;
+        } finally {
+            metrics.stop(Family.SET, startNanos);
         }
     }
 
@@ -783,11 +1798,14 @@ public class RedisUtils {
      * @description: TODO 返回元素在集合的排名，有序集合是按照元素的score值由小到大排列
      */
     public Long zRank(String key, Object value) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().rank(key, value);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -800,11 +1818,14 @@ public class RedisUtils {
      * @description: TODO 返回元素在集合的排名,按元素的score值由大到小排列
      */
     public Long zReverseRank(String key, Object value) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().reverseRank(key, value);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -818,11 +1839,15 @@ public class RedisUtils {
      * @description: TODO 获取集合指定位置内的元素，并按从小到大的排序
      */
     public Set<Object> zRange(String key, long start, long end) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().range(key, start, end);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -836,11 +1861,15 @@ public class RedisUtils {
      * @description: TODO 批量获取集合指定位置内的元素, 并且把 score 值也获取
      */
     public Set<ZSetOperations.TypedTuple<Object>> zRangeWithScores(String key, long start, long end) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().rangeWithScores(key, start, end);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -854,11 +1883,15 @@ public class RedisUtils {
      * @description: TODO 根据 score 获取指定范围内的集合元素，并按从小到大排序
      */
     public Set<Object> zRangeByScore(String key, double min, double max) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().rangeByScore(key, min, max);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -872,11 +1905,15 @@ public class RedisUtils {
      * @description: TODO 根据 score 获取指定范围内的集合元素和 score，并按从小到大排序，
      */
     public Set<ZSetOperations.TypedTuple<Object>> zRangeByScoreWithScores(String key, double min, double max) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().rangeByScoreWithScores(key, min, max);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -892,11 +1929,15 @@ public class RedisUtils {
      * @description: TODO 根据 score 和 index 获取指定范围内的集合元和 score，并按从小到大排序
      */
     public Set<ZSetOperations.TypedTuple<Object>> zRangeByScoreWithScores(String key, double min, double max, long start, long end) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().rangeByScoreWithScores(key, min, max, start, end);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -910,11 +1951,15 @@ public class RedisUtils {
      * @description: TODO 获取集合元素，按从大到小排序
      */
     public Set<Object> zReverseRange(String key, long start, long end) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().reverseRange(key, start, end);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -928,11 +1973,15 @@ public class RedisUtils {
      * @description: TODO 获取集合的元素, 从大到小排序, 并返回 score 值
      */
     public Set<ZSetOperations.TypedTuple<Object>> zReverseRangeWithScores(String key, long start, long end) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().reverseRangeWithScores(key, start, end);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -946,11 +1995,15 @@ public class RedisUtils {
      * @description: TODO 根据 score 值查询集合元素, 从大到小排序
      */
     public Set<Object> zReverseRangeByScore(String key, double min, double max) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().reverseRangeByScore(key, min, max);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -964,11 +2017,15 @@ public class RedisUtils {
      * @description: TODO
      */
     public Set<ZSetOperations.TypedTuple<Object>> zReverseRangeByScoreWithScores(String key, double min, double max) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().reverseRangeByScoreWithScores(key, min, max);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -984,14 +2041,68 @@ public class RedisUtils {
      * @description: TODO 根据 Score 和 index 查询集合元素, 从大到小排序
      */
     public Set<Object> zReverseRangeByScore(String key, double min, double max, long start, long end) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().reverseRangeByScore(key, min, max, start, end);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
+            return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param min
+     * @param max
+     * @param start
+     * @param end
+     * @return {{@link Set< ZSetOperations.TypedTuple< Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 19:40
+     * @description: TODO 根据 score 和 index 获取指定范围内的集合元素和 score，并按从大到小排序
+     */
+    public Set<ZSetOperations.TypedTuple<Object>> zReverseRangeByScoreWithScores(String key, double min, double max, long start, long end) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.ZSET);
+        try {
+            return redisTemplate.opsForZSet().reverseRangeByScoreWithScores(key, min, max, start, end);
+        } catch (Exception e) {
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
+    /**
+     * @param key
+     * @param count
+     * @return {{@link Stream< ZSetOperations.TypedTuple< Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:04
+     * @description: TODO 以 ZSCAN 流式遍历 zSet 类型的缓存（元素与 score，不保证顺序），每次向 Redis 取约 count 个元素；
+     * 使用完毕需关闭 Stream（try-with-resources）以释放游标
+     */
+    public Stream<ZSetOperations.TypedTuple<Object>> zScan(String key, long count) {
+        return zScan(key, null, count);
+    }
+
+    /**
+     * @param key
+     * @param pattern
+     * @param count
+     * @return {{@link Stream< ZSetOperations.TypedTuple< Object>>}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:05
+     * @description: TODO 以 ZSCAN 流式遍历 zSet 类型缓存中匹配通配符的元素
+     */
+    public Stream<ZSetOperations.TypedTuple<Object>> zScan(String key, String pattern, long count) {
+        return cursorStream(redisTemplate.opsForZSet().scan(key, scanOptions(pattern, count)));
+    }
+
     /**
      * @param key
      * @return {{@link Long}}
@@ -1000,11 +2111,14 @@ public class RedisUtils {
      * @description: TODO 获取集合元素的数量
      */
     public Long zSize(String key) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().size(key);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1016,11 +2130,14 @@ public class RedisUtils {
      * @description: TODO 获取集合大小
      */
     public Long zZCard(String key) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().zCard(key);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1033,11 +2150,14 @@ public class RedisUtils {
      * @description: TODO 获取集合中 value 元素的 score 值
      */
     public Double zScore(String key, Object value) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().score(key, value);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1050,7 +2170,15 @@ public class RedisUtils {
      * @return
      */
     public Long zCount(String key, double min, double max) {
-        return redisTemplate.opsForZSet().count(key, min, max);
+        long startNanos = metrics.start(Family.ZSET);
+        try {
+            return redisTemplate.opsForZSet().count(key, min, max);
+        } catch (RuntimeException e) {
+            metrics.error(Family.ZSET, e);
+            throw e;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
+        }
     }
 
     /**
@@ -1063,11 +2191,14 @@ public class RedisUtils {
      * @description: TODO 添加元素，有序集合是按照元素的 score 值由小到大排列
      */
     public Boolean zAdd(String key, String value, double score) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().add(key, value, score);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1080,11 +2211,14 @@ public class RedisUtils {
      * @description: TODO 批量添加元素，有序集合是按照元素的 score 值由小到大排列
      */
     public Long zAdd(String key, Set<ZSetOperations.TypedTuple<Object>> values) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().add(key, values);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1097,11 +2231,14 @@ public class RedisUtils {
      * @description: TODO 批量移除 zSet 中指定的值
      */
     public Long zRemove(String key, Object... values) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().remove(key, values);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1115,12 +2252,32 @@ public class RedisUtils {
      * @description: TODO 增加元素的 score 值，并返回增加后的值
      */
     public Double zIncrementScore(String key, String value, double delta) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().incrementScore(key, value, delta);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param value
+     * @param delta
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 16:21
+     * @description: TODO 延迟增加元素的 score 值，增量在本地合并后批量写入，适用于热度排行等高频计数
+     */
+    public void zIncrementScoreDeferred(String key, String value, double delta) {
+        if (Objects.isNull(counterAggregator)) {
+            zIncrementScore(key, value, delta);
+            return;
         }
+        counterAggregator.zIncrementScore(key, value, delta);
     }
 
     /**
@@ -1133,11 +2290,14 @@ public class RedisUtils {
      * @description: TODO 移除指定索引位置的元素
      */
     public Long zRemoveRange(String key, long start, long end) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().removeRange(key, start, end);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1151,11 +2311,14 @@ public class RedisUtils {
      * @description: TODO 根据指定的 score 值的范围来移除成员
      */
     public Long zRemoveRangeByScore(String key, double min, double max) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
             return redisTemplate.opsForZSet().removeRangeByScore(key, min, max);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1169,11 +2332,14 @@ public class RedisUtils {
      * @description: TODO 获取两个指定集合的并集，并存储在指定集合中
      */
     public Long zUnionAndStore(String key, String otherKey, String destKey) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
-            return redisTemplate.opsForZSet().unionAndStore(key, otherKey, destKey);
+            return setAlgebra.zUnionAndStore(key, Collections.singletonList(otherKey), destKey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1187,11 +2353,14 @@ public class RedisUtils {
      * @description: TODO 获取指定集合和多个集合的并集，并存储在指定集合中
      */
     public Long zUnionAndStore(String key, Collection<String> otherKeys, String destKey) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
-            return redisTemplate.opsForZSet().unionAndStore(key, otherKeys, destKey);
+            return setAlgebra.zUnionAndStore(key, otherKeys, destKey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1205,11 +2374,14 @@ public class RedisUtils {
      * @description: TODO 获取两个指定集合的交集，并存储在指定集合中
      */
     public Long zIntersectAndStore(String key, String otherKey, String destKey) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
-            return redisTemplate.opsForZSet().intersectAndStore(key, otherKey, destKey);
+            return setAlgebra.zIntersectAndStore(key, Collections.singletonList(otherKey), destKey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1223,11 +2395,14 @@ public class RedisUtils {
      * @description: TODO 获取指定集合和多个集合的交集，并存储在指定集合中
      */
     public Long zIntersectAndStore(String key, Collection<String> otherKeys, String destKey) {
+        long startNanos = metrics.start(Family.ZSET);
         try {
-            return redisTemplate.opsForZSet().intersectAndStore(key, otherKeys, destKey);
+            return setAlgebra.zIntersectAndStore(key, otherKeys, destKey);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.ZSET, e);
             return null;
+        } finally {
+            metrics.stop(Family.ZSET, startNanos);
         }
     }
 
@@ -1243,14 +2418,65 @@ public class RedisUtils {
      * @description: TODO 获取 list 类型的缓存中指定范围内的值
      */
     public List<Object> lGet(String key, long start, long end) {
+        recordAccess(key);
+        long startNanos = metrics.start(Family.LIST);
         try {
             return redisTemplate.opsForList().range(key, start, end);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.LIST, e);
             return null;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
         }
     }
 
+    /**
+     * @param key
+     * @param chunkSize
+     * @return {{@link Stream< Object>}}
+     * @author wadreamer
+     * @date: 2026/10/18 20:06
+     * @description: TODO 按 chunkSize 分段 LRANGE 流式遍历 list 类型的缓存，消费完一段才读取下一段，提前结束时不再访问 Redis；
+     * 遍历期间 list 头部有增删时，分段边界会随之偏移
+     */
+    public Stream<Object> lScan(String key, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 必须大于 0");
+        }
+        Iterator<Object> iterator = new Iterator<Object>() {
+
+            private long offset;
+
+            private Iterator<Object> chunk = Collections.emptyIterator();
+
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (!chunk.hasNext() && !exhausted) {
+                    List<Object> values = redisTemplate.opsForList().range(key, offset, offset + chunkSize - 1);
+                    if (Objects.isNull(values) || values.size() < chunkSize) {
+                        exhausted = true;
+                    }
+                    if (Objects.nonNull(values)) {
+                        offset += values.size();
+                        chunk = values.iterator();
+                    }
+                }
+                return chunk.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
     /**
      * @param key
      * @return {{@link long}}
@@ -1259,11 +2485,14 @@ public class RedisUtils {
      * @description: TODO 获取 list 类型的缓存的大小
      */
     public long lGetListSize(String key) {
+        long startNanos = metrics.start(Family.LIST);
         try {
             return redisTemplate.opsForList().size(key);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.LIST, e);
             return 0;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
         }
     }
 
@@ -1276,11 +2505,14 @@ public class RedisUtils {
      * @description: TODO 获取 list 类型的缓存中的指定位置的值
      */
     public Object lGetIndex(String key, long index) {
+        long startNanos = metrics.start(Family.LIST);
         try {
             return redisTemplate.opsForList().index(key, index);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.LIST, e);
             return null;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
         }
     }
 
@@ -1293,12 +2525,15 @@ public class RedisUtils {
      * @description: TODO 从右边往 list 类型缓存中存入指定的值
      */
     public boolean lSet(String key, Object value) {
+        long startNanos = metrics.start(Family.LIST);
         try {
-            redisTemplate.opsForList().rightPush(key, value);
+            rightPush(key, value);
             return true;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.LIST, e);
             return false;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
         }
     }
 
@@ -1309,18 +2544,18 @@ public class RedisUtils {
      * @return {{@link boolean}}
      * @author wadreamer
      * @date: 2020/12/16 14:43
-     * @description: TODO 从右边往 list 类型缓存中存入指定的值，并指定过期时间
+     * @description: TODO 从右边往 list 类型缓存中存入指定的值，并指定过期时间，写入与设置过期时间为一次原子操作
      */
     public boolean lSet(String key, Object value, long time) {
+        long startNanos = metrics.start(Family.LIST);
         try {
-            redisTemplate.opsForList().rightPush(key, value);
-            if (time > 0) {
-                expire(key, time);
-            }
+            writeWithTtl(RPUSH_WITH_TTL_NAME, key, TimeUnit.SECONDS.toMillis(time), Collections.singletonList(rawValue(value)));
             return true;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.LIST, e);
             return false;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
         }
     }
 
@@ -1330,15 +2565,18 @@ public class RedisUtils {
      * @return {{@link boolean}}
      * @author wadreamer
      * @date: 2020/12/16 14:43
-     * @description: TODO 从右边往 list 类型缓存中存入 list 类型的值
+     * @description: TODO 从右边往 list 类型缓存中存入 list 类型的值，整个 list 作为一条 RPUSH 发送；数据量很大时使用 getBulkLoader().loadList 分块导入
      */
     public boolean lSet(String key, List<Object> value) {
+        long startNanos = metrics.start(Family.LIST);
         try {
             redisTemplate.opsForList().rightPushAll(key, value);
             return true;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.LIST, e);
             return false;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
         }
     }
 
@@ -1349,18 +2587,55 @@ public class RedisUtils {
      * @return {{@link boolean}}
      * @author wadreamer
      * @date: 2020/12/16 14:43
-     * @description: TODO 从右边往 list 类型缓存中存入 list 类型的值，并指定过期时间
+     * @description: TODO 从右边往 list 类型缓存中存入 list 类型的值，并指定过期时间，写入与设置过期时间为一次原子操作
      */
     public boolean lSet(String key, List<Object> value, long time) {
+        long startNanos = metrics.start(Family.LIST);
         try {
-            redisTemplate.opsForList().rightPushAll(key, value);
-            if (time > 0) {
-                expire(key, time);
+            if (value.isEmpty()) {
+                return true;
             }
+            writeWithTtl(RPUSH_WITH_TTL_NAME, key, TimeUnit.SECONDS.toMillis(time), rawValues(value));
             return true;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.LIST, e);
             return false;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
+        }
+    }
+
+    /**
+     * @param key
+     * @param values
+     * @param maxLength
+     * @param time
+     * @param timeUnit
+     * @return {{@link long}}
+     * @author wadreamer
+     * @date: 2026/10/18 22:44
+     * @description: TODO 从左边推入并只保留最新的 maxLength 个元素，推入、裁剪与设置过期时间为一次原子操作，
+     * 适合最近访问、最新动态等定长列表；time 不大于 0 时不设置过期时间，返回裁剪后的长度，失败时返回 0
+     */
+    public long lPushAndTrim(String key, List<Object> values, long maxLength, long time, TimeUnit timeUnit) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("maxLength 必须大于 0");
+        }
+        long startNanos = metrics.start(Family.LIST);
+        try {
+            List<byte[]> raw = rawValues(values);
+            Object[] args = new Object[raw.size() + 2];
+            args[0] = maxLength;
+            args[1] = time > 0 ? timeUnit.toMillis(time) : 0;
+            for (int i = 0; i < raw.size(); i++) {
+                args[i + 2] = raw.get(i);
+            }
+            return scriptRegistry.execute(RedisScriptRegistry.PUSH_AND_TRIM, Long.class, Collections.singletonList(key), args);
+        } catch (Exception e) {
+            metrics.error(Family.LIST, e);
+            return 0;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
         }
     }
 
@@ -1374,12 +2649,15 @@ public class RedisUtils {
      * @description: TODO 修改 list 类型缓存中指定位置的值
      */
     public boolean lUpdateIndex(String key, long index, Object value) {
+        long startNanos = metrics.start(Family.LIST);
         try {
             redisTemplate.opsForList().set(key, index, value);
             return true;
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.LIST, e);
             return false;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
         }
     }
 
@@ -1393,11 +2671,14 @@ public class RedisUtils {
      * @description: TODO 移除 list 类型的缓存中指定数量的值
      */
     public long lRemove(String key, long count, Object value) {
+        long startNanos = metrics.start(Family.LIST);
         try {
             return redisTemplate.opsForList().remove(key, count, value);
         } catch (Exception e) {
-            System.out.println(e.getMessage());
+            metrics.error(Family.LIST, e);
             return 0;
+        } finally {
+            metrics.stop(Family.LIST, startNanos);
         }
     }
 
@@ -0,0 +1,320 @@
+package club.wadreamer.utils;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import net.jpountz.lz4.LZ4Factory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * ClassName: RedisValueCodec
+ * Description: TODO 紧凑的 value 序列化器：默认使用无 schema 的二进制格式 Smile，超过阈值时可选 Deflate / LZ4 压缩。
+ * 每个值带有自描述的头部 [魔数, 格式|压缩方式, 原始长度]，旧的 JDK 序列化数据（0xAC 0xED 开头）仍可直接读取，迁移期间新旧格式共存。
+ * Smile 格式只还原 JDK 常用类型与指定包下的类，其他类型的类型信息在读取时被拒绝
+ * date: 2026/10/18 16:30
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisValueCodec implements RedisSerializer<Object> {
+
+    // 头部魔数，不与 JDK 序列化（0xAC）、JSON（'{' '[' '"'）以及 Smile（':'）的首字节冲突
+    static final byte MAGIC = (byte) 0xB7;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    // 默认允许还原的类型：JDK 集合、数值、时间类型以及本项目的类
+    private static final String[] DEFAULT_PACKAGES = {"java.lang.", "java.util.", "java.time.", "java.math.", "club.wadreamer."};
+
+    public enum Format {
+        SMILE(1), JDK(2);
+
+        private final int id;
+
+        Format(int id) {
+            this.id = id;
+        }
+    }
+
+    public enum Compression {
+        NONE(0), DEFLATE(1), LZ4(2);
+
+        private final int id;
+
+        Compression(int id) {
+            this.id = id;
+        }
+    }
+
+    private final ObjectMapper smileMapper;
+
+    private final JdkSerializationRedisSerializer jdkSerializer;
+
+    // 写入时使用的格式，读取时按头部识别，与此设置无关
+    private Format format = Format.SMILE;
+
+    private Compression compression = Compression.NONE;
+
+    // 序列化后超过该字节数才尝试压缩
+    private int compressionThreshold = 1024;
+
+    private int deflateLevel = Deflater.BEST_SPEED;
+
+    public RedisValueCodec() {
+        this(RedisValueCodec.class.getClassLoader());
+    }
+
+    public RedisValueCodec(ClassLoader classLoader) {
+        this(classLoader, new String[0]);
+    }
+
+    /**
+     * @param classLoader
+     * @param allowedPackages
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/19 09:40
+     * @description: TODO allowedPackages 为允许从 Smile 数据中还原的应用包名前缀（如 "com.example.model."），
+     * 缓存的实体类不在 club.wadreamer 包下时必须指定
+     */
+    public RedisValueCodec(ClassLoader classLoader, String... allowedPackages) {
+        this.jdkSerializer = new JdkSerializationRedisSerializer(classLoader);
+        BasicPolymorphicTypeValidator.Builder validator = BasicPolymorphicTypeValidator.builder().allowIfSubTypeIsArray();
+        for (String prefix : DEFAULT_PACKAGES) {
+            validator.allowIfSubType(prefix);
+        }
+        for (String prefix : allowedPackages) {
+            validator.allowIfSubType(Objects.requireNonNull(prefix));
+        }
+        this.smileMapper = new ObjectMapper(new SmileFactory());
+        // 所有值都写入类型信息，Long、Date 等非自然类型的标量不会被还原为 Integer、Long；
+        // 只有校验器允许的类型可以被还原，避免任意类型的反序列化
+        this.smileMapper.activateDefaultTyping(validator.build(), ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        this.smileMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public RedisValueCodec setFormat(Format format) {
+        this.format = Objects.requireNonNull(format);
+        return this;
+    }
+
+    public RedisValueCodec setCompression(Compression compression) {
+        this.compression = Objects.requireNonNull(compression);
+        return this;
+    }
+
+    public RedisValueCodec setCompressionThreshold(int compressionThreshold) {
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException("compressionThreshold 不能小于 0");
+        }
+        this.compressionThreshold = compressionThreshold;
+        return this;
+    }
+
+    public RedisValueCodec setDeflateLevel(int deflateLevel) {
+        if (deflateLevel < Deflater.BEST_SPEED || deflateLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("deflateLevel 必须在 1 ~ 9 之间");
+        }
+        this.deflateLevel = deflateLevel;
+        return this;
+    }
+
+    /**
+     * @param template
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 16:32
+     * @description: TODO 将本序列化器设置为模板的 value 与 hash value 序列化器，key 的序列化方式保持不变
+     */
+    public void applyTo(RedisTemplate<?, ?> template) {
+        template.setValueSerializer(this);
+        template.setHashValueSerializer(this);
+        template.afterPropertiesSet();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (Objects.isNull(value)) {
+            return EMPTY;
+        }
+        byte[] body = format == Format.SMILE ? writeSmile(value) : jdkSerializer.serialize(value);
+
+        Compression used = Compression.NONE;
+        byte[] payload = body;
+        if (compression != Compression.NONE && body.length > compressionThreshold) {
+            byte[] compressed = compression == Compression.LZ4 ? Lz4.compress(body) : deflate(body);
+            // 压缩收益不足时保存原文，读取时无需解压
+            if (compressed.length < body.length) {
+                used = compression;
+                payload = compressed;
+            }
+        }
+
+        int lengthBytes = used == Compression.NONE ? 0 : varIntSize(body.length);
+        byte[] result = new byte[2 + lengthBytes + payload.length];
+        result[0] = MAGIC;
+        result[1] = (byte) (format.id << 4 | used.id);
+        if (lengthBytes > 0) {
+            writeVarInt(result, 2, body.length);
+        }
+        System.arraycopy(payload, 0, result, 2 + lengthBytes, payload.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (Objects.isNull(bytes) || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            // 迁移前写入的数据，按 JDK 序列化读取
+            return jdkSerializer.deserialize(bytes);
+        }
+        if (bytes.length < 2) {
+            throw new SerializationException("value 头部不完整");
+        }
+
+        int formatId = (bytes[1] >> 4) & 0x0F;
+        int compressionId = bytes[1] & 0x0F;
+        byte[] body;
+        if (compressionId == Compression.NONE.id) {
+            body = Arrays.copyOfRange(bytes, 2, bytes.length);
+        } else {
+            int[] position = {2};
+            int length = readVarInt(bytes, position);
+            if (compressionId == Compression.LZ4.id) {
+                body = Lz4.decompress(bytes, position[0], length);
+            } else if (compressionId == Compression.DEFLATE.id) {
+                body = inflate(bytes, position[0], length);
+            } else {
+                throw new SerializationException("未知的压缩方式：" + compressionId);
+            }
+        }
+
+        if (formatId == Format.SMILE.id) {
+            return readSmile(body);
+        }
+        if (formatId == Format.JDK.id) {
+            return jdkSerializer.deserialize(body);
+        }
+        throw new SerializationException("未知的序列化格式：" + formatId);
+    }
+
+    private byte[] writeSmile(Object value) {
+        try {
+            return smileMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new SerializationException("Smile 序列化失败：" + e.getMessage(), e);
+        }
+    }
+
+    private Object readSmile(byte[] body) {
+        try {
+            return smileMapper.readValue(body, Object.class);
+        } catch (Exception e) {
+            throw new SerializationException("Smile 反序列化失败：" + e.getMessage(), e);
+        }
+    }
+
+    private byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(deflateLevel, true);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 16);
+            byte[] buffer = new byte[Math.min(body.length + 16, 8192)];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] bytes, int offset, int length) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] body = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int count = inflater.inflate(body, read, length - read);
+                if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += count;
+            }
+            if (read != length) {
+                throw new SerializationException("Deflate 数据长度不一致，期望 " + length + "，实际 " + read);
+            }
+            return body;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Deflate 解压失败：" + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void writeVarInt(byte[] target, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[offset] = (byte) value;
+    }
+
+    private static int readVarInt(byte[] source, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position[0] >= source.length) {
+                break;
+            }
+            byte b = source[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("value 头部长度字段损坏");
+    }
+
+    // 延迟加载 lz4-java，未使用 LZ4 时不要求该依赖存在
+    private static class Lz4 {
+
+        private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+
+        static byte[] compress(byte[] body) {
+            return FACTORY.fastCompressor().compress(body);
+        }
+
+        static byte[] decompress(byte[] bytes, int offset, int length) {
+            byte[] body = new byte[length];
+            FACTORY.fastDecompressor().decompress(bytes, offset, body, 0, length);
+            return body;
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package club.wadreamer.utils.benchmark;
+
+import club.wadreamer.utils.RedisAutoBatcher;
+import club.wadreamer.utils.RedisUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName: RedisAutoBatcherBenchmark
+ * Description: TODO 对比启用与不启用自动批量执行时 get / hSet / lSet 的吞吐量。不启用时每条命令各自写出并刷新一次，
+ * 启用时每个迭代结束输出每条命令平均的 dispatch() 调用次数（每次调用写出并刷新一批命令）。自动批量只在多线程并发时有收益，
+ * 用法：-Dbench.threads=1,16,64 run target/jmh RedisAutoBatcherBenchmark
+ * date: 2026/10/18 23:10
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RedisAutoBatcherBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    private static final int HASH_FIELDS = 1_000;
+
+    @State(Scope.Benchmark)
+    public static class BatchState {
+
+        @Param({"false", "true"})
+        public boolean autoBatch;
+
+        @Param({"64"})
+        public int maxBatchSize;
+
+        @Param({"50"})
+        public long windowMicros;
+
+        RedisBenchmarkEnvironment environment;
+
+        RedisUtils redisUtils;
+
+        RedisAutoBatcher autoBatcher;
+
+        String value;
+
+        String[] keys;
+
+        String hashKey;
+
+        String listKey;
+
+        private long commandsBefore;
+
+        private long batchesBefore;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            environment = new RedisBenchmarkEnvironment("jdk");
+            redisUtils = environment.redisUtils();
+            value = RedisBenchmarkEnvironment.value(64);
+
+            keys = new String[KEYS];
+            for (int i = 0; i < KEYS; i++) {
+                keys[i] = RedisBenchmarkEnvironment.KEY_PREFIX + "batch:" + i;
+                redisUtils.set(keys[i], value);
+            }
+            HashMap<String, Object> hash = new HashMap<>(HASH_FIELDS * 4 / 3 + 1);
+            for (int i = 0; i < HASH_FIELDS; i++) {
+                hash.put("field:" + i, value);
+            }
+            hashKey = RedisBenchmarkEnvironment.KEY_PREFIX + "batch-hash";
+            redisUtils.hmSet(hashKey, hash);
+            listKey = RedisBenchmarkEnvironment.KEY_PREFIX + "batch-list";
+
+            if (autoBatch) {
+                autoBatcher = new RedisAutoBatcher(environment.template(), maxBatchSize, windowMicros);
+                redisUtils.setAutoBatcher(autoBatcher);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void mark() {
+            if (autoBatch) {
+                commandsBefore = autoBatcher.getCommands();
+                batchesBefore = autoBatcher.getBatches();
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void report() {
+            // 避免 list 在多次迭代中无限增长
+            environment.template().opsForList().trim(listKey, 0, 9_999);
+            if (autoBatch) {
+                long commands = autoBatcher.getCommands() - commandsBefore;
+                long batches = autoBatcher.getBatches() - batchesBefore;
+                System.out.println(String.format("命令数 %d，dispatch() 调用次数 %d，每条命令的 dispatch() 调用次数 %.4f",
+                        commands, batches, commands == 0 ? 0D : (double) batches / commands));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (autoBatch) {
+                redisUtils.setAutoBatcher(null);
+                autoBatcher.destroy();
+            }
+            environment.close();
+        }
+
+        String randomKey() {
+            return keys[ThreadLocalRandom.current().nextInt(KEYS)];
+        }
+
+        String randomField() {
+            return "field:" + ThreadLocalRandom.current().nextInt(HASH_FIELDS);
+        }
+    }
+
+    @Benchmark
+    public Object get(BatchState state) {
+        return state.redisUtils.get(state.randomKey());
+    }
+
+    @Benchmark
+    public boolean hSet(BatchState state) {
+        return state.redisUtils.hSet(state.hashKey, state.randomField(), state.value);
+    }
+
+    @Benchmark
+    public boolean lSet(BatchState state) {
+        return state.redisUtils.lSet(state.listKey, state.value);
+    }
+
+}
@@ -0,0 +1,97 @@
+package club.wadreamer.utils.benchmark;
+
+import club.wadreamer.utils.RedisUtils;
+import club.wadreamer.utils.RedisValueCodec;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ClassName: RedisBenchmarkEnvironment
+ * Description: TODO 基准测试使用的 Redis 环境：连接本地 Redis 集群（系统属性 redis.nodes，默认 127.0.0.1:7000 ~ 7005），
+ * 按指定的序列化方式创建 RedisTemplate 与 RedisUtils
+ * date: 2026/10/18 17:30
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisBenchmarkEnvironment implements AutoCloseable {
+
+    static final String DEFAULT_NODES = "127.0.0.1:7000,127.0.0.1:7001,127.0.0.1:7002,127.0.0.1:7003,127.0.0.1:7004,127.0.0.1:7005";
+
+    // 基准测试写入的 key 均使用该前缀，结束时统一删除
+    static final String KEY_PREFIX = "bench:";
+
+    private final LettuceConnectionFactory connectionFactory;
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+
+    private final RedisUtils redisUtils;
+
+    public RedisBenchmarkEnvironment(String codec) {
+        List<String> nodes = Arrays.asList(System.getProperty("redis.nodes", DEFAULT_NODES).split(","));
+        this.connectionFactory = new LettuceConnectionFactory(new RedisClusterConfiguration(nodes));
+        this.connectionFactory.afterPropertiesSet();
+
+        this.redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
+        redisTemplate.setHashValueSerializer(new JdkSerializationRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        switch (codec) {
+            case "jdk":
+                break;
+            case "smile":
+                new RedisValueCodec().applyTo(redisTemplate);
+                break;
+            case "smile-lz4":
+                new RedisValueCodec().setCompression(RedisValueCodec.Compression.LZ4).applyTo(redisTemplate);
+                break;
+            default:
+                throw new IllegalArgumentException("未知的序列化方式：" + codec);
+        }
+        this.redisUtils = new RedisUtils(redisTemplate);
+    }
+
+    public RedisTemplate<Object, Object> template() {
+        return redisTemplate;
+    }
+
+    public RedisUtils redisUtils() {
+        return redisUtils;
+    }
+
+    /**
+     * @param size
+     * @return {{@link String}}
+     * @author wadreamer
+     * @date: 2026/10/18 17:32
+     * @description: TODO 生成指定长度的文本值，内容有一定重复度，接近真实的文章正文
+     */
+    public static String value(int size) {
+        String sentence = "Redis 基准测试的样例数据 benchmark payload 0123456789 ";
+        StringBuilder builder = new StringBuilder(size);
+        while (builder.length() < size) {
+            builder.append(sentence);
+        }
+        builder.setLength(size);
+        return builder.toString();
+    }
+
+    @Override
+    public void close() {
+        try {
+            redisUtils.delByPattern(KEY_PREFIX + "*");
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+}
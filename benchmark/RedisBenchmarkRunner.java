@@ -0,0 +1,89 @@
+package club.wadreamer.utils.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * ClassName: RedisBenchmarkRunner
+ * Description: TODO 运行 RedisUtils 基准测试，按不同线程数各输出一份 JSON 结果；也可对比两次构建的 JSON 结果。
+ * 用法：run [结果目录] [基准名正则]，或 compare 基线.json 当前.json
+ * date: 2026/10/18 17:40
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+public class RedisBenchmarkRunner {
+
+    // 并发级别，可通过系统属性 bench.threads 覆盖，例如 -Dbench.threads=1,8
+    private static final String DEFAULT_THREADS = "1,4,16";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && "compare".equals(args[0])) {
+            compare(new File(args[1]), new File(args[2]));
+            return;
+        }
+        String resultDir = args.length >= 2 ? args[1] : "target/jmh";
+        String include = args.length >= 3 ? args[2] : RedisUtilsBenchmark.class.getSimpleName();
+        new File(resultDir).mkdirs();
+
+        for (String threads : System.getProperty("bench.threads", DEFAULT_THREADS).split(",")) {
+            int count = Integer.parseInt(threads.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(count)
+                    .jvmArgsAppend("-Dredis.nodes=" + System.getProperty("redis.nodes", RedisBenchmarkEnvironment.DEFAULT_NODES))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultDir, "redis-utils-t" + count + ".json").getPath());
+            new Runner(options.build()).run();
+        }
+    }
+
+    /**
+     * @param baseline
+     * @param current
+     * @return {}
+     * @author wadreamer
+     * @date: 2026/10/18 17:42
+     * @description: TODO 按 基准名 + 模式 + 参数 对齐两份 JMH JSON 结果，输出得分变化百分比
+     */
+    private static void compare(File baseline, File current) throws Exception {
+        Map<String, JsonNode> before = index(baseline);
+        Map<String, JsonNode> after = index(current);
+        System.out.println(String.format("%-90s%14s%14s%10s", "基准", "基线", "当前", "变化"));
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode old = before.get(entry.getKey());
+            double score = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            if (Objects.isNull(old)) {
+                System.out.println(String.format("%-90s%14s%14.3f%10s", entry.getKey(), "-", score, "新增"));
+                continue;
+            }
+            double oldScore = old.path("primaryMetric").path("score").asDouble();
+            double change = oldScore == 0D ? 0D : (score - oldScore) * 100D / oldScore;
+            System.out.println(String.format("%-90s%14.3f%14.3f%9.1f%%  %s", entry.getKey(), oldScore, score, change, unit));
+        }
+    }
+
+    private static Map<String, JsonNode> index(File file) throws Exception {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder name = new StringBuilder(result.path("benchmark").asText())
+                    .append(" [").append(result.path("mode").asText()).append(", t=").append(result.path("threads").asInt());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                name.append(", ").append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(name.append(']').toString(), result);
+        }
+        return results;
+    }
+
+}
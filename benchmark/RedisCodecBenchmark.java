@@ -0,0 +1,257 @@
+package club.wadreamer.utils.benchmark;
+
+import club.wadreamer.utils.RedisValueCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName: RedisCodecBenchmark
+ * Description: TODO 对比各序列化方式写入 Redis 的字节数与编解码耗时，无需连接 Redis；
+ * 每组参数开始时输出序列化后的字节数。用法：run target/jmh RedisCodecBenchmark
+ * date: 2026/10/18 16:40
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisCodecBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CodecState {
+
+        @Param({"jdk", "json", "smile", "smile-deflate", "smile-lz4"})
+        public String codec;
+
+        @Param({"user", "article"})
+        public String sample;
+
+        RedisSerializer<Object> serializer;
+
+        Object value;
+
+        byte[] bytes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            serializer = serializer(codec);
+            value = "user".equals(sample) ? user() : article();
+            bytes = serializer.serialize(value);
+            System.out.println(String.format("%s / %s：%d 字节", codec, sample, bytes.length));
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(CodecState state) {
+        return state.serializer.serialize(state.value);
+    }
+
+    @Benchmark
+    public Object decode(CodecState state) {
+        return state.serializer.deserialize(state.bytes);
+    }
+
+    private static RedisSerializer<Object> serializer(String codec) {
+        switch (codec) {
+            case "jdk":
+                return (RedisSerializer<Object>) (RedisSerializer<?>) new JdkSerializationRedisSerializer();
+            case "json":
+                return new GenericJackson2JsonRedisSerializer();
+            case "smile":
+                return new RedisValueCodec();
+            case "smile-deflate":
+                return new RedisValueCodec().setCompression(RedisValueCodec.Compression.DEFLATE);
+            case "smile-lz4":
+                return new RedisValueCodec().setCompression(RedisValueCodec.Compression.LZ4);
+            default:
+                throw new IllegalArgumentException("未知的序列化方式：" + codec);
+        }
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(10086L);
+        user.setUsername("wadreamer");
+        user.setNickname("追梦人");
+        user.setEmail("wadreamer@example.com");
+        user.setRoles(Arrays.asList("admin", "author"));
+        user.setCreateTime(new Date(1760745600000L));
+        return user;
+    }
+
+    private static Article article() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            content.append("Redis 是一个开源的内存数据结构存储，可用作数据库、缓存和消息代理。第 ").append(i).append(" 段。\n");
+        }
+        Article article = new Article();
+        article.setId(20261018L);
+        article.setTitle("Spring Boot 整合 Redis 集群");
+        article.setSummary("介绍 RedisTemplate 的序列化配置与常用操作");
+        article.setContent(content.toString());
+        article.setTags(Arrays.asList("Redis", "Spring Boot", "缓存"));
+        article.setViews(1024);
+        article.setAuthor(user());
+        return article;
+    }
+
+    public static class User implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private String username;
+
+        private String nickname;
+
+        private String email;
+
+        private List<String> roles;
+
+        private Date createTime;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getNickname() {
+            return nickname;
+        }
+
+        public void setNickname(String nickname) {
+            this.nickname = nickname;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(List<String> roles) {
+            this.roles = roles;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        @Override
+        public String toString() {
+            return "User{id=" + id + ", username='" + username + "'}";
+        }
+    }
+
+    public static class Article implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private String title;
+
+        private String summary;
+
+        private String content;
+
+        private List<String> tags;
+
+        private int views;
+
+        private User author;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getSummary() {
+            return summary;
+        }
+
+        public void setSummary(String summary) {
+            this.summary = summary;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public void setContent(String content) {
+            this.content = content;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public int getViews() {
+            return views;
+        }
+
+        public void setViews(int views) {
+            this.views = views;
+        }
+
+        public User getAuthor() {
+            return author;
+        }
+
+        public void setAuthor(User author) {
+            this.author = author;
+        }
+
+        @Override
+        public String toString() {
+            return "Article{id=" + id + ", title='" + title + "'}";
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package club.wadreamer.utils.benchmark;
+
+import club.wadreamer.utils.RedisLocks;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName: RedisLockBenchmark
+ * Description: TODO 分布式锁竞争基准：多个线程争抢少量锁，测量获取 + 释放的吞吐量与耗时分布，
+ * 对比订阅释放消息唤醒与按固定间隔重试两种等待方式
+ * date: 2026/10/18 19:20
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(32)
+@Fork(1)
+public class RedisLockBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LockState {
+
+        // 参与竞争的锁数量，1 表示所有线程争抢同一把锁
+        @Param({"1", "16"})
+        public int locks;
+
+        @Param({"pubsub", "polling"})
+        public String wakeup;
+
+        RedisBenchmarkEnvironment environment;
+
+        RedisMessageListenerContainer container;
+
+        RedisLocks redisLocks;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            environment = new RedisBenchmarkEnvironment("jdk");
+            redisLocks = new RedisLocks(environment.template(), 10_000L);
+            if ("pubsub".equals(wakeup)) {
+                container = new RedisMessageListenerContainer();
+                container.setConnectionFactory(environment.template().getConnectionFactory());
+                container.afterPropertiesSet();
+                container.start();
+                redisLocks.subscribe(container);
+            } else {
+                redisLocks.setFallbackWaitMillis(10L);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (container != null) {
+                container.stop();
+                container.destroy();
+            }
+            redisLocks.destroy();
+            environment.close();
+        }
+
+        String randomLock() {
+            return RedisBenchmarkEnvironment.KEY_PREFIX + "lock:" + ThreadLocalRandom.current().nextInt(locks);
+        }
+    }
+
+    @Benchmark
+    public long lockUnlock(LockState state) throws InterruptedException {
+        RedisLocks.Lock lock = state.redisLocks.tryLock(state.randomLock(), 5, TimeUnit.SECONDS);
+        if (lock == null) {
+            return -1;
+        }
+        try {
+            return lock.getFencingToken();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public boolean tryLockOnce(LockState state) {
+        RedisLocks.Lock lock = state.redisLocks.tryLock(state.randomLock());
+        if (lock == null) {
+            return false;
+        }
+        return lock.unlock();
+    }
+
+}
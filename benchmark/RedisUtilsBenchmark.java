@@ -0,0 +1,174 @@
+package club.wadreamer.utils.benchmark;
+
+import club.wadreamer.utils.RedisUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName: RedisUtilsBenchmark
+ * Description: TODO RedisUtils 热点方法的 JMH 基准：单 key 读写、批量 multiGet、hash 读写、zSet 范围查询、
+ * list 写入与基于 SCAN 的 key 匹配，按 value 大小与序列化方式组合，线程数由 RedisBenchmarkRunner 指定
+ * date: 2026/10/18 17:35
+ *
+ * @author wadreamer
+ * @since JDK 1.8
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RedisUtilsBenchmark {
+
+    // 预先写入的 string 数量，读操作随机命中其中之一
+    private static final int KEYS = 10_000;
+
+    // hash 的 field 数量，hmGet 会读取整个 hash，数量不宜过大
+    private static final int HASH_FIELDS = 1_000;
+
+    private static final int MULTI_GET_BATCH = 100;
+
+    private static final int ZSET_MEMBERS = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class RedisState {
+
+        @Param({"64", "1024", "16384"})
+        public int valueSize;
+
+        @Param({"jdk", "smile-lz4"})
+        public String codec;
+
+        RedisBenchmarkEnvironment environment;
+
+        RedisUtils redisUtils;
+
+        String value;
+
+        String[] keys;
+
+        String hashKey;
+
+        String zSetKey;
+
+        String listKey;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            environment = new RedisBenchmarkEnvironment(codec);
+            redisUtils = environment.redisUtils();
+            value = RedisBenchmarkEnvironment.value(valueSize);
+
+            keys = new String[KEYS];
+            for (int i = 0; i < KEYS; i++) {
+                keys[i] = RedisBenchmarkEnvironment.KEY_PREFIX + "string:" + i;
+                redisUtils.set(keys[i], value);
+            }
+            HashMap<String, Object> hash = new HashMap<>(HASH_FIELDS * 4 / 3 + 1);
+            for (int i = 0; i < HASH_FIELDS; i++) {
+                hash.put("field:" + i, value);
+            }
+            hashKey = RedisBenchmarkEnvironment.KEY_PREFIX + "hash";
+            redisUtils.hmSet(hashKey, hash);
+
+            zSetKey = RedisBenchmarkEnvironment.KEY_PREFIX + "zset";
+            Set<ZSetOperations.TypedTuple<Object>> tuples = new HashSet<>(ZSET_MEMBERS * 4 / 3 + 1);
+            for (int i = 0; i < ZSET_MEMBERS; i++) {
+                tuples.add(new DefaultTypedTuple<>("member:" + i, (double) i));
+            }
+            redisUtils.zAdd(zSetKey, tuples);
+
+            listKey = RedisBenchmarkEnvironment.KEY_PREFIX + "list";
+        }
+
+        @TearDown(Level.Iteration)
+        public void trimList() {
+            // 避免 list 在多次迭代中无限增长
+            environment.template().opsForList().trim(listKey, 0, 9_999);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            environment.close();
+        }
+
+        String randomKey() {
+            return keys[ThreadLocalRandom.current().nextInt(KEYS)];
+        }
+
+        String randomField() {
+            return "field:" + ThreadLocalRandom.current().nextInt(HASH_FIELDS);
+        }
+
+        List<String> randomBatch() {
+            List<String> batch = new ArrayList<>(MULTI_GET_BATCH);
+            for (int i = 0; i < MULTI_GET_BATCH; i++) {
+                batch.add(randomKey());
+            }
+            return batch;
+        }
+    }
+
+    @Benchmark
+    public Object get(RedisState state) {
+        return state.redisUtils.get(state.randomKey());
+    }
+
+    @Benchmark
+    public boolean set(RedisState state) {
+        return state.redisUtils.set(state.randomKey(), state.value);
+    }
+
+    @Benchmark
+    public List<Object> multiGet(RedisState state) {
+        return state.redisUtils.multiGet(state.randomBatch());
+    }
+
+    @Benchmark
+    public Object hGet(RedisState state) {
+        return state.redisUtils.hGet(state.hashKey, state.randomField());
+    }
+
+    @Benchmark
+    public boolean hSet(RedisState state) {
+        return state.redisUtils.hSet(state.hashKey, state.randomField(), state.value);
+    }
+
+    @Benchmark
+    public Set<Object> zRange(RedisState state) {
+        long start = ThreadLocalRandom.current().nextInt(ZSET_MEMBERS - 100);
+        return state.redisUtils.zRange(state.zSetKey, start, start + 99);
+    }
+
+    @Benchmark
+    public Set<ZSetOperations.TypedTuple<Object>> zRangeByScoreWithScores(RedisState state) {
+        double min = ThreadLocalRandom.current().nextInt(ZSET_MEMBERS - 100);
+        return state.redisUtils.zRangeByScoreWithScores(state.zSetKey, min, min + 99);
+    }
+
+    @Benchmark
+    public boolean lSet(RedisState state) {
+        return state.redisUtils.lSet(state.listKey, state.value);
+    }
+
+    // 全量 hash 读取与 key 匹配开销较大，单独以单次耗时为主要观察指标
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<Object, Object> hmGet(RedisState state) {
+        return state.redisUtils.hmGet(state.hashKey);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> matchkey(RedisState state) {
+        return state.redisUtils.matchkey(RedisBenchmarkEnvironment.KEY_PREFIX + "string:1*");
+    }
+
+}